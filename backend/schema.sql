@@ -25,6 +25,10 @@ DROP TABLE IF EXISTS creditcards CASCADE;
 DROP TABLE IF EXISTS genres CASCADE;
 DROP TABLE IF EXISTS stars CASCADE;
 DROP TABLE IF EXISTS movies CASCADE;
+DROP TABLE IF EXISTS catalog_version CASCADE;
+
+-- Trigram matching for case-insensitive partial-match filters (ILIKE '%x%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
 
 -- ============================================================================
 -- CORE TABLES
@@ -37,6 +41,10 @@ CREATE TABLE movies (
     title VARCHAR(255) NOT NULL,
     year SMALLINT,  -- Optimized for year values (e.g., 1888-2155)
     director VARCHAR(255),
+    search_document TSVECTOR,  -- title (A), director (B) and star names (C); filled by the data loader
+    browse_letter CHAR(1),  -- upper-case first letter of the title, '*' if not A-Z; filled by the data loader
+    weighted_rating NUMERIC(6,4) NOT NULL DEFAULT 0,  -- Bayesian weighted rating, 0 if unrated; filled by the data loader
+    rating_rank INT NOT NULL DEFAULT 0,  -- dense rank of weighted_rating, higher is better, 0 if unrated; the rating sort key
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -47,6 +55,7 @@ CREATE TABLE stars (
     id VARCHAR(10) PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     birth_year SMALLINT,  -- Optimized for year values
+    movie_count INT NOT NULL DEFAULT 0,  -- rows in stars_in_movies; maintained by the data loader
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -139,18 +148,49 @@ CREATE TABLE ratings (
         REFERENCES movies(id) ON DELETE CASCADE
 );
 
+-- ============================================================================
+-- CATALOG METADATA
+-- ============================================================================
+
+-- Catalog Version Table
+-- Single-row stamp bumped by the data loader after every load; the backend
+-- polls it to invalidate caches and rebuild derived data
+CREATE TABLE catalog_version (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    version BIGINT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO catalog_version (id, version) VALUES (1, 1);
+
 -- ============================================================================
 -- INDEXES FOR PERFORMANCE OPTIMIZATION
 -- ============================================================================
 
 -- Movies indexes
-CREATE INDEX idx_movies_title ON movies(title);
+-- (sortKey, id) composites serve keyset pagination: WHERE (key, id) > (?, ?) ORDER BY key, id
+CREATE INDEX idx_movies_title ON movies(title, id);
 CREATE INDEX idx_movies_year ON movies(year);
+CREATE INDEX idx_movies_year_id ON movies((COALESCE(year, 0)), id);
 CREATE INDEX idx_movies_director ON movies(director);
+-- Full-text search over title, director and star names (search ?query=)
+CREATE INDEX idx_movies_search_document ON movies USING GIN (search_document);
+-- startsWith browsing: one letter bucket, keyset-paged by title or year
+CREATE INDEX idx_movies_letter_title ON movies(browse_letter, title, id);
+CREATE INDEX idx_movies_letter_year ON movies(browse_letter, (COALESCE(year, 0)), id);
+-- sortBy=rating: covers the movie list columns, so a page is a range scan with no sort or ratings join
+CREATE INDEX idx_movies_rating_rank ON movies(rating_rank, id) INCLUDE (title, year, director);
+CREATE INDEX idx_movies_letter_rating_rank ON movies(browse_letter, rating_rank, id);
+-- Trigram indexes serve ILIKE '%x%' (title/director filters), which B-trees cannot
+CREATE INDEX idx_movies_title_trgm ON movies USING GIN (title gin_trgm_ops);
+CREATE INDEX idx_movies_director_trgm ON movies USING GIN (director gin_trgm_ops);
 
 -- Stars indexes
-CREATE INDEX idx_stars_name ON stars(name);
+CREATE INDEX idx_stars_name ON stars(name, id);
 CREATE INDEX idx_stars_birth_year ON stars(birth_year);
+CREATE INDEX idx_stars_birth_year_id ON stars((COALESCE(birth_year, 0)), id);
+CREATE INDEX idx_stars_movie_count_id ON stars(movie_count, id);
+CREATE INDEX idx_stars_name_trgm ON stars USING GIN (name gin_trgm_ops);
 
 -- Customers indexes
 CREATE INDEX idx_customers_email ON customers(email);
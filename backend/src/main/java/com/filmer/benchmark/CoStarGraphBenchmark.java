@@ -0,0 +1,127 @@
+package com.filmer.benchmark;
+
+import com.filmer.service.CoStarGraph;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the memory footprint and query latency of the in-memory co-star graph.
+ *
+ * The graph is built from the database exactly as the backend builds it,
+ * and its heap cost is reported both as the graph's own estimate and as
+ * the measured heap growth across the build. Shortest paths between random
+ * pairs of stars (stars with at least one movie) and 2-hop neighborhoods
+ * of random stars are then timed individually after a warmup pass, and
+ * p50/p99/p99.9/max are printed per query type.
+ *
+ * Required Environment Variables: DB_URL, DB_USER, DB_PASSWORD
+ *
+ * Usage:
+ * mvn exec:java -Dexec.mainClass="com.filmer.benchmark.CoStarGraphBenchmark" [-Dexec.args="6"]
+ */
+public class CoStarGraphBenchmark {
+
+    private static final int STARS = 10000;
+    private static final int WARMUP_QUERIES = 2000;
+    private static final int MEASURED_QUERIES = 10000;
+    private static final int HOPS = 2;
+
+    public static void main(String[] args) {
+        String dbUrl = System.getenv("DB_URL");
+        String dbUser = System.getenv("DB_USER");
+        String dbPassword = System.getenv("DB_PASSWORD");
+
+        if (dbUrl == null || dbUser == null || dbPassword == null) {
+            System.err.println("❌ ERROR: Missing environment variables");
+            System.err.println("Required: DB_URL, DB_USER, DB_PASSWORD");
+            System.exit(1);
+        }
+
+        int maxDegrees = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(dbUrl, dbUser, dbPassword));
+
+        System.out.println("⏳ Building co-star graph...");
+        long heapBefore = usedHeap();
+        CoStarGraph graph = CoStarGraph.build(jdbcTemplate, 1, 0);
+        long heapAfter = usedHeap();
+        System.out.printf("✅ %d stars, %d movies, %d links, built in %d ms%n",
+            graph.getStarCount(), graph.getMovieCount(), graph.getLinkCount(), graph.getBuildMillis());
+        System.out.printf("💾 ~%d KiB estimated, %d KiB measured heap growth%n",
+            graph.getApproxBytes() / 1024, (heapAfter - heapBefore) / 1024);
+
+        Random random = new Random(42);
+        int[] stars = new int[STARS];
+        int picked = 0;
+        for (int attempt = 0; picked < STARS && attempt < STARS * 100 && graph.getStarCount() > 0; attempt++) {
+            int star = random.nextInt(graph.getStarCount());
+            if (graph.movieCountOf(star) > 0) {
+                stars[picked++] = star;
+            }
+        }
+        if (picked == 0) {
+            System.err.println("❌ ERROR: No star has any movie; load the catalog first");
+            System.exit(1);
+        }
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            int[] path = graph.shortestPath(stars[i % picked], stars[(i * 7 + 1) % picked], maxDegrees);
+            sink += path == null ? 0 : path.length;
+            sink += graph.neighborhood(stars[i % picked], HOPS)[0];
+        }
+        System.out.printf("💾 ~%d KiB per search slot%n", graph.getSearchBytes() / 1024);
+
+        long[] pathNanos = new long[MEASURED_QUERIES];
+        int connected = 0;
+        long degrees = 0;
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            int from = stars[random.nextInt(picked)];
+            int to = stars[random.nextInt(picked)];
+            long started = System.nanoTime();
+            int[] path = graph.shortestPath(from, to, maxDegrees);
+            pathNanos[i] = System.nanoTime() - started;
+            if (path != null) {
+                connected++;
+                degrees += path.length / 2;
+            }
+        }
+        Arrays.sort(pathNanos);
+
+        long[] neighborhoodNanos = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            int star = stars[random.nextInt(picked)];
+            long started = System.nanoTime();
+            sink += graph.neighborhood(star, HOPS)[HOPS - 1];
+            neighborhoodNanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(neighborhoodNanos);
+
+        System.out.println("📏 Query latency (" + MEASURED_QUERIES + " queries each)");
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        System.out.printf("%-8s %14s %14s%n", "", "path", HOPS + "-hop");
+        System.out.printf("%-8s %14s %14s%n", "p50", micros(pathNanos, 0.50), micros(neighborhoodNanos, 0.50));
+        System.out.printf("%-8s %14s %14s%n", "p99", micros(pathNanos, 0.99), micros(neighborhoodNanos, 0.99));
+        System.out.printf("%-8s %14s %14s%n", "p99.9", micros(pathNanos, 0.999), micros(neighborhoodNanos, 0.999));
+        System.out.printf("%-8s %14s %14s%n", "max", micros(pathNanos, 1.0), micros(neighborhoodNanos, 1.0));
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        System.out.printf("%d of %d pairs connected within %d degrees, %.2f degrees on average%n",
+            connected, MEASURED_QUERIES, maxDegrees, connected == 0 ? 0.0 : (double) degrees / connected);
+        System.out.println("(" + sink + ")");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String micros(long[] sorted, double quantile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return String.format("%.1f µs", sorted[Math.max(0, index)] / 1000.0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.filmer.benchmark;
+
+import com.filmer.service.MovieDetailLoader;
+import com.filmer.service.ParallelLookups;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures movie detail latency on cache misses with the four detail
+ * lookups (movie row, rating, genres, stars) run one after another versus
+ * forked in parallel.
+ *
+ * Both runs use the backend's MovieDetailLoader over a pooled data source
+ * sized like the backend's (10 connections); only filmer.lookups.parallel
+ * differs. Nothing is cached, so every load is a miss. Movies are the most
+ * voted ones, whose casts make the star lookup the slowest. Both modes load
+ * the same ids in the same order, alternating per round so neither gets a
+ * warmer buffer cache.
+ *
+ * Required Environment Variables: DB_URL, DB_USER, DB_PASSWORD
+ *
+ * Usage:
+ * mvn exec:java -Dexec.mainClass="com.filmer.benchmark.DetailLookupBenchmark" [-Dexec.args="500"]
+ */
+public class DetailLookupBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        String dbUrl = System.getenv("DB_URL");
+        String dbUser = System.getenv("DB_USER");
+        String dbPassword = System.getenv("DB_PASSWORD");
+
+        if (dbUrl == null || dbUser == null || dbPassword == null) {
+            System.err.println("❌ ERROR: Missing environment variables");
+            System.err.println("Required: DB_URL, DB_USER, DB_PASSWORD");
+            System.exit(1);
+        }
+
+        int movies = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(dbUrl);
+        dataSource.setUsername(dbUser);
+        dataSource.setPassword(dbPassword);
+        dataSource.setMaximumPoolSize(10);
+        dataSource.setMinimumIdle(10);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        List<String> movieIds = jdbcTemplate.queryForList(
+            "SELECT movie_id FROM ratings ORDER BY num_votes DESC LIMIT ?", String.class, movies);
+        if (movieIds.isEmpty()) {
+            System.err.println("❌ ERROR: No rated movies; load the catalog first");
+            System.exit(1);
+        }
+
+        ParallelLookups sequential = new ParallelLookups(8, 6, 10000, false);
+        ParallelLookups parallel = new ParallelLookups(8, 6, 10000, true);
+        MovieDetailLoader sequentialLoader = new MovieDetailLoader(jdbcTemplate, sequential);
+        MovieDetailLoader parallelLoader = new MovieDetailLoader(jdbcTemplate, parallel);
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(sequentialLoader, movieIds);
+            run(parallelLoader, movieIds);
+        }
+        long[] sequentialNanos = new long[movieIds.size() * MEASURED_ROUNDS];
+        long[] parallelNanos = new long[movieIds.size() * MEASURED_ROUNDS];
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            int offset = round * movieIds.size();
+            if (round % 2 == 0) {
+                System.arraycopy(run(sequentialLoader, movieIds), 0, sequentialNanos, offset, movieIds.size());
+                System.arraycopy(run(parallelLoader, movieIds), 0, parallelNanos, offset, movieIds.size());
+            } else {
+                System.arraycopy(run(parallelLoader, movieIds), 0, parallelNanos, offset, movieIds.size());
+                System.arraycopy(run(sequentialLoader, movieIds), 0, sequentialNanos, offset, movieIds.size());
+            }
+        }
+        Arrays.sort(sequentialNanos);
+        Arrays.sort(parallelNanos);
+
+        System.out.println("📏 Movie detail load on cache miss (" + movieIds.size() + " movies x " +
+            MEASURED_ROUNDS + " rounds)");
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        System.out.printf("%-8s %14s %14s %8s%n", "", "sequential", "parallel", "speedup");
+        for (double quantile : new double[] { 0.50, 0.90, 0.99 }) {
+            long before = quantile(sequentialNanos, quantile);
+            long after = quantile(parallelNanos, quantile);
+            System.out.printf("%-8s %11.2f ms %11.2f ms %7.2fx%n", "p" + Math.round(quantile * 100),
+                before / 1e6, after / 1e6, (double) before / after);
+        }
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        System.out.println("Parallel lookups: " + parallel.getStats());
+
+        sequential.destroy();
+        parallel.destroy();
+        dataSource.close();
+    }
+
+    private static long[] run(MovieDetailLoader loader, List<String> movieIds) {
+        long[] nanos = new long[movieIds.size()];
+        for (int i = 0; i < movieIds.size(); i++) {
+            long started = System.nanoTime();
+            loader.load(Collections.singleton(movieIds.get(i)));
+            nanos[i] = System.nanoTime() - started;
+        }
+        return nanos;
+    }
+
+    private static long quantile(long[] sorted, double quantile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)];
+    }
+}
@@ -0,0 +1,113 @@
+package com.filmer.benchmark;
+
+import com.filmer.service.query.MovieSortField;
+
+import java.sql.*;
+import java.util.Arrays;
+
+/**
+ * Compares OFFSET and keyset (seek) pagination latency for the movie listing.
+ *
+ * For each sort order and page (1, 100, 10,000 by default) it times the
+ * OFFSET query and the equivalent seek query starting from the previous
+ * page's last (sortKey, id). The seek boundary is looked up once, untimed,
+ * exactly as a client would receive it in nextCursor.
+ *
+ * Required Environment Variables: DB_URL, DB_USER, DB_PASSWORD
+ *
+ * Usage:
+ * mvn exec:java -Dexec.mainClass="com.filmer.benchmark.PaginationBenchmark" [-Dexec.args="1 100 10000"]
+ */
+public class PaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+
+    private static final String COLUMNS = "m.id, m.title, m.year, m.director, r.rating, r.num_votes";
+    private static final String FROM = "movies m LEFT JOIN ratings r ON r.movie_id = m.id";
+
+    public static void main(String[] args) throws SQLException {
+        String dbUrl = System.getenv("DB_URL");
+        String dbUser = System.getenv("DB_USER");
+        String dbPassword = System.getenv("DB_PASSWORD");
+
+        if (dbUrl == null || dbUser == null || dbPassword == null) {
+            System.err.println("❌ ERROR: Missing environment variables");
+            System.err.println("Required: DB_URL, DB_USER, DB_PASSWORD");
+            System.exit(1);
+        }
+
+        int[] pages = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] { 1, 100, 10000 };
+
+        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword)) {
+            System.out.println("📏 Pagination benchmark (page size " + PAGE_SIZE + ", median of " +
+                MEASURED_RUNS + " runs)");
+            System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+            System.out.printf("%-8s %8s %14s %14s %9s%n", "sortBy", "page", "offset (ms)", "keyset (ms)", "speedup");
+
+            for (MovieSortField sort : MovieSortField.values()) {
+                String orderBy = " ORDER BY " + sort.expression() + ", m.id";
+                String offsetSql = "SELECT " + COLUMNS + " FROM " + FROM + orderBy + " LIMIT ? OFFSET ?";
+                String boundarySql = "SELECT " + sort.expression() + ", m.id FROM " + FROM + orderBy + " LIMIT 1 OFFSET ?";
+                String keysetSql = "SELECT " + COLUMNS + " FROM " + FROM +
+                    " WHERE (" + sort.expression() + ", m.id) > (CAST(? AS " + sort.sqlType() + "), ?)" +
+                    orderBy + " LIMIT ?";
+
+                for (int page : pages) {
+                    long offset = (long) (page - 1) * PAGE_SIZE;
+                    double offsetMs = median(conn, offsetSql, PAGE_SIZE, offset);
+
+                    double keysetMs;
+                    if (page == 1) {
+                        keysetMs = median(conn, "SELECT " + COLUMNS + " FROM " + FROM + orderBy + " LIMIT ?", PAGE_SIZE);
+                    } else {
+                        String[] boundary = boundary(conn, boundarySql, offset - 1);
+                        if (boundary == null) {
+                            System.out.printf("%-8s %8d   (past end of catalog)%n", sort.param(), page);
+                            continue;
+                        }
+                        keysetMs = median(conn, keysetSql, boundary[0], boundary[1], PAGE_SIZE);
+                    }
+
+                    System.out.printf("%-8s %8d %14.2f %14.2f %8.1fx%n",
+                        sort.param(), page, offsetMs, keysetMs, offsetMs / keysetMs);
+                }
+            }
+            System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        }
+    }
+
+    private static String[] boundary(Connection conn, String sql, long offset) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new String[] { rs.getString(1), rs.getString(2) } : null;
+            }
+        }
+    }
+
+    private static double median(Connection conn, String sql, Object... params) throws SQLException {
+        double[] timings = new double[MEASURED_RUNS];
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+                long start = System.nanoTime();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // drain
+                    }
+                }
+                if (run >= WARMUP_RUNS) {
+                    timings[run - WARMUP_RUNS] = (System.nanoTime() - start) / 1_000_000.0;
+                }
+            }
+        }
+        Arrays.sort(timings);
+        return timings[MEASURED_RUNS / 2];
+    }
+}
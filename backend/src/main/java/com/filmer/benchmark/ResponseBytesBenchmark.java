@@ -0,0 +1,126 @@
+package com.filmer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filmer.dto.response.ApiResponse;
+import com.filmer.dto.response.MovieDetailResponse;
+import com.filmer.service.ResponseBytesCache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures CPU time and heap allocation per movie detail response, before
+ * and after pre-serialized response caching.
+ *
+ * "Before" is what every detail cache hit used to cost: Jackson serializes
+ * the ApiResponse envelope and the container gzips the result. "After" is
+ * a serialized response cache hit: the stored gzip bytes are wrapped in a
+ * ResponseEntity and copied to the output stream. Both write to a
+ * discarding stream, so only the per-request work is measured. No database
+ * is needed; the movie is synthetic with a configurable cast size.
+ *
+ * Usage:
+ * mvn exec:java -Dexec.mainClass="com.filmer.benchmark.ResponseBytesBenchmark" [-Dexec.args="40"]
+ */
+public class ResponseBytesBenchmark {
+
+    private static final int WARMUP_REQUESTS = 50000;
+    private static final int MEASURED_REQUESTS = 200000;
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    public static void main(String[] args) throws IOException {
+        int stars = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        ObjectMapper mapper = new ObjectMapper();
+        MovieDetailResponse movie = syntheticMovie(stars);
+        ApiResponse<MovieDetailResponse> body = ApiResponse.success(movie);
+        ResponseBytesCache.SerializedResponse cached =
+                ResponseBytesCache.SerializedResponse.of(mapper.writeValueAsBytes(body));
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        Request before = () -> {
+            byte[] json = mapper.writeValueAsBytes(body);
+            try (GZIPOutputStream out = new GZIPOutputStream(DISCARD)) {
+                out.write(json);
+            }
+        };
+        Request after = () -> {
+            byte[] bytes = cached.toResponseEntity("gzip, deflate, br").getBody();
+            DISCARD.write(bytes, 0, bytes.length);
+        };
+
+        System.out.printf("📦 Movie detail with %d stars: %,d bytes JSON, %,d bytes gzip%n",
+            stars, cached.getIdentity().length, cached.getGzip() == null ? 0 : cached.getGzip().length);
+        System.out.println("📏 Per-request cost (" + MEASURED_REQUESTS + " requests after " +
+            WARMUP_REQUESTS + " warmup)");
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        System.out.printf("%-34s %10s %12s%n", "path", "CPU (µs)", "alloc (B)");
+        double[] beforeCost = measure(before, threads, threadId);
+        System.out.printf("%-34s %10.2f %12.0f%n", "serialize + gzip (before)", beforeCost[0], beforeCost[1]);
+        double[] afterCost = measure(after, threads, threadId);
+        System.out.printf("%-34s %10.2f %12.0f%n", "cached gzip bytes (after)", afterCost[0], afterCost[1]);
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        System.out.printf("CPU %.0fx lower, allocation %.0fx lower%n",
+            beforeCost[0] / afterCost[0], beforeCost[1] / Math.max(1, afterCost[1]));
+    }
+
+    /**
+     * @return CPU microseconds and allocated bytes per request
+     */
+    private static double[] measure(Request request, com.sun.management.ThreadMXBean threads, long threadId)
+            throws IOException {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            request.run();
+        }
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long allocStart = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            request.run();
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuStart;
+        long alloc = threads.getThreadAllocatedBytes(threadId) - allocStart;
+        return new double[] { cpu / 1000.0 / MEASURED_REQUESTS, (double) alloc / MEASURED_REQUESTS };
+    }
+
+    private static MovieDetailResponse syntheticMovie(int stars) {
+        MovieDetailResponse movie = new MovieDetailResponse();
+        movie.setId("tt0133093");
+        movie.setTitle("The Matrix");
+        movie.setYear((short) 1999);
+        movie.setDirector("Lana Wachowski, Lilly Wachowski");
+        movie.setRating(new BigDecimal("8.7"));
+        movie.setNumVotes(2100000);
+        List<MovieDetailResponse.GenreInfo> genres = new ArrayList<>();
+        genres.add(new MovieDetailResponse.GenreInfo(1L, "Action"));
+        genres.add(new MovieDetailResponse.GenreInfo(6L, "Sci-Fi"));
+        movie.setGenres(genres);
+        List<MovieDetailResponse.StarInfo> cast = new ArrayList<>();
+        for (int i = 0; i < stars; i++) {
+            cast.add(new MovieDetailResponse.StarInfo(
+                String.format("nm%07d", 206 + i), "Star Name " + i, (short) (1950 + i % 50)));
+        }
+        movie.setStars(cast);
+        return movie;
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        void run() throws IOException;
+    }
+}
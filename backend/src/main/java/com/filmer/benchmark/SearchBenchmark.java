@@ -0,0 +1,110 @@
+package com.filmer.benchmark;
+
+import java.sql.*;
+import java.util.Arrays;
+
+/**
+ * Compares keyword search latency: the LIKE baseline (title, director and a
+ * join to star names) against the full-text search on movies.search_document.
+ *
+ * Each term is searched both ways for one page of 20 results, and the
+ * number of matches each approach finds is printed next to the timings,
+ * since word matching and substring matching do not return identical sets.
+ *
+ * Required Environment Variables: DB_URL, DB_USER, DB_PASSWORD
+ *
+ * Usage:
+ * mvn exec:java -Dexec.mainClass="com.filmer.benchmark.SearchBenchmark" [-Dexec.args="love hanks nolan"]
+ */
+public class SearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+
+    private static final String LIKE_WHERE =
+        " WHERE m.title ILIKE ? OR m.director ILIKE ? OR EXISTS (" +
+        "SELECT 1 FROM stars_in_movies sim JOIN stars s ON s.id = sim.star_id " +
+        "WHERE sim.movie_id = m.id AND s.name ILIKE ?)";
+
+    private static final String LIKE_SQL =
+        "SELECT m.id, m.title FROM movies m" + LIKE_WHERE + " ORDER BY m.title, m.id LIMIT " + PAGE_SIZE;
+
+    private static final String LIKE_COUNT_SQL = "SELECT COUNT(*) FROM movies m" + LIKE_WHERE;
+
+    private static final String FTS_FROM =
+        " FROM movies m CROSS JOIN websearch_to_tsquery('english', ?) AS q(query) WHERE m.search_document @@ q.query";
+
+    private static final String FTS_SQL =
+        "SELECT m.id, m.title" + FTS_FROM +
+        " ORDER BY -ts_rank(m.search_document, q.query), m.id LIMIT " + PAGE_SIZE;
+
+    private static final String FTS_COUNT_SQL = "SELECT COUNT(*)" + FTS_FROM;
+
+    public static void main(String[] args) throws SQLException {
+        String dbUrl = System.getenv("DB_URL");
+        String dbUser = System.getenv("DB_USER");
+        String dbPassword = System.getenv("DB_PASSWORD");
+
+        if (dbUrl == null || dbUser == null || dbPassword == null) {
+            System.err.println("❌ ERROR: Missing environment variables");
+            System.err.println("Required: DB_URL, DB_USER, DB_PASSWORD");
+            System.exit(1);
+        }
+
+        String[] terms = args.length > 0 ? args : new String[] { "love", "war", "hanks", "nolan", "star wars" };
+
+        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword)) {
+            System.out.println("📏 Search benchmark (page size " + PAGE_SIZE + ", median of " +
+                MEASURED_RUNS + " runs)");
+            System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+            System.out.printf("%-12s %12s %10s %12s %10s %9s%n",
+                "term", "LIKE (ms)", "matches", "FTS (ms)", "matches", "speedup");
+
+            for (String term : terms) {
+                String pattern = "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                double likeMs = median(conn, LIKE_SQL, pattern, pattern, pattern);
+                long likeMatches = count(conn, LIKE_COUNT_SQL, pattern, pattern, pattern);
+                double ftsMs = median(conn, FTS_SQL, term);
+                long ftsMatches = count(conn, FTS_COUNT_SQL, term);
+
+                System.out.printf("%-12s %12.2f %10d %12.2f %10d %8.1fx%n",
+                    term, likeMs, likeMatches, ftsMs, ftsMatches, likeMs / ftsMs);
+            }
+            System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        }
+    }
+
+    private static long count(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static double median(Connection conn, String sql, Object... params) throws SQLException {
+        double[] timings = new double[MEASURED_RUNS];
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+                long start = System.nanoTime();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // drain
+                    }
+                }
+                if (run >= WARMUP_RUNS) {
+                    timings[run - WARMUP_RUNS] = (System.nanoTime() - start) / 1_000_000.0;
+                }
+            }
+        }
+        Arrays.sort(timings);
+        return timings[MEASURED_RUNS / 2];
+    }
+}
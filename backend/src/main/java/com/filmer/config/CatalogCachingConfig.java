@@ -0,0 +1,24 @@
+package com.filmer.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers conditional GET handling for the read-only catalog endpoints
+ * (movies, stars, genres, search and charts).
+ */
+@Configuration
+public class CatalogCachingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CatalogETagInterceptor catalogETagInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogETagInterceptor)
+                .addPathPatterns("/api/v1/movies/**", "/api/v1/stars/**", "/api/v1/genres/**", "/api/v1/search/**",
+                                 "/api/v1/charts/**");
+    }
+}
@@ -0,0 +1,57 @@
+package com.filmer.config;
+
+import com.filmer.controller.ChartController;
+import com.filmer.controller.GenreController;
+import com.filmer.controller.MovieController;
+import com.filmer.controller.SearchController;
+import com.filmer.controller.StarController;
+import com.filmer.dto.response.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the ETag chosen by {@link CatalogETagInterceptor}, and the catalog
+ * Cache-Control policy, to successful catalog responses: envelopes and
+ * pre-serialized byte bodies. Error envelopes are left untagged so clients
+ * never revalidate against a failure. A gzip-encoded byte body is a
+ * different representation from the identity one, so it gets the tag's
+ * gzip variant.
+ */
+@ControllerAdvice(assignableTypes = {
+        MovieController.class, StarController.class, GenreController.class, SearchController.class,
+        ChartController.class})
+public class CatalogETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private CatalogETagInterceptor catalogETagInterceptor;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if ((body instanceof ApiResponse || body instanceof byte[]) && request instanceof ServletServerHttpRequest) {
+            Object etag = ((ServletServerHttpRequest) request).getServletRequest()
+                    .getAttribute(CatalogETagInterceptor.ETAG_ATTRIBUTE);
+            if (etag != null) {
+                boolean gzip = "gzip".equals(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+                response.getHeaders().set(HttpHeaders.ETAG,
+                        gzip ? CatalogETagInterceptor.gzipVariant((String) etag) : (String) etag);
+                response.getHeaders().set(HttpHeaders.CACHE_CONTROL, catalogETagInterceptor.getCacheControl());
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,132 @@
+package com.filmer.config;
+
+import com.filmer.service.CatalogVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Conditional GET for catalog endpoints.
+ *
+ * <p>Catalog responses only change when the data loader bumps the catalog
+ * version, so the version (plus a stamp of the application build, in case a
+ * deployment changes the JSON) is a valid strong ETag for every catalog
+ * URL. The build stamp comes from the build info written at package time,
+ * so every instance running the same build, and every restart of it, issues
+ * the same tag for the same content. A GET whose {@code If-None-Match} carries the current tag is
+ * answered 304 here, before the controller runs any query. Otherwise the
+ * tag is left in a request attribute for {@link CatalogETagAdvice} to put
+ * on successful responses.</p>
+ *
+ * <p>The tag follows the applied catalog version, which only moves once
+ * every cache and index has picked up a load, so content still built from
+ * the previous catalog is never tagged with the new version. No tag is
+ * issued until the first version has been applied.</p>
+ */
+@Component
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    static final String ETAG_ATTRIBUTE = CatalogETagInterceptor.class.getName() + ".etag";
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    private final String cacheControl;
+
+    private final String buildStamp;
+
+    public CatalogETagInterceptor(@Value("${filmer.http.catalog-max-age-seconds:0}") long maxAgeSeconds,
+                                  ObjectProvider<BuildProperties> buildProperties) {
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .cachePublic()
+                .mustRevalidate()
+                .getHeaderValue();
+        this.buildStamp = buildStamp(buildProperties.getIfAvailable());
+    }
+
+    /**
+     * @return The build time in base 36, or the version when the build info
+     *         has no time; "dev" when running without build info (e.g. from an IDE)
+     */
+    private static String buildStamp(BuildProperties build) {
+        if (build == null) {
+            return "dev";
+        }
+        if (build.getTime() != null) {
+            return Long.toString(build.getTime().toEpochMilli(), 36);
+        }
+        return build.getVersion() != null ? build.getVersion() : "dev";
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        long version = catalogVersionService.getAppliedVersion();
+        if (version == 0) {
+            return true;
+        }
+
+        String etag = "\"" + version + "-" + buildStamp + "\"";
+        String matched = match(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag);
+        if (matched != null) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, matched);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            if (!matched.equals(etag)) {
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    String getCacheControl() {
+        return cacheControl;
+    }
+
+    /**
+     * @return The tag of the gzip-encoded variant of a response tagged {@code etag};
+     *         different representations need different strong validators
+     */
+    static String gzipVariant(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so a W/ prefix (added e.g. when
+     * the response was compressed by a proxy) is ignored.
+     *
+     * @return The current tag, or its gzip variant, that the header names; null if none
+     */
+    private static String match(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        String gzipTag = gzipVariant(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return etag;
+            }
+            if (tag.equals(gzipTag)) {
+                return gzipTag;
+            }
+        }
+        return null;
+    }
+}
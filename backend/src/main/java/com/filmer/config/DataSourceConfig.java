@@ -0,0 +1,84 @@
+package com.filmer.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Builds the primary and read connection pools behind {@link RoutingDataSource}.
+ *
+ * <p>Both pools share the {@code spring.datasource.hikari.*} timeouts and
+ * init SQL; their sizes and minimum idle connections are set separately. The read pool is read-only,
+ * so a write issued on the read route fails instead of reaching a replica.
+ * pgjdbc only enforces that inside transactions by default, so the read
+ * pool uses {@code readOnlyMode=always} to cover autocommit statements too.</p>
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${spring.datasource.hikari.idle-timeout:600000}")
+    private long idleTimeout;
+
+    @Value("${spring.datasource.hikari.max-lifetime:1800000}")
+    private long maxLifetime;
+
+    @Value("${spring.datasource.hikari.connection-init-sql:}")
+    private String connectionInitSql;
+
+    @Bean
+    @Primary
+    public RoutingDataSource dataSource(
+            @Value("${filmer.datasource.primary.maximum-pool-size:4}") int primaryPoolSize,
+            @Value("${filmer.datasource.primary.minimum-idle:4}") int primaryMinimumIdle,
+            @Value("${filmer.datasource.read.maximum-pool-size:8}") int readPoolSize,
+            @Value("${filmer.datasource.read.minimum-idle:5}") int readMinimumIdle,
+            @Value("${filmer.datasource.read.url:}") String readUrl,
+            @Value("${filmer.datasource.read.username:}") String readUsername,
+            @Value("${filmer.datasource.read.password:}") String readPassword) {
+        boolean replica = !readUrl.isBlank();
+        HikariDataSource primary = pool("filmer-primary", url, username, password,
+                primaryPoolSize, primaryMinimumIdle, false);
+        HikariDataSource read = pool("filmer-read",
+                replica ? readUrl : url,
+                replica && !readUsername.isBlank() ? readUsername : username,
+                replica && !readPassword.isBlank() ? readPassword : password,
+                readPoolSize, readMinimumIdle, true);
+        return new RoutingDataSource(primary, read, replica);
+    }
+
+    private HikariDataSource pool(String name, String jdbcUrl, String user, String pass,
+                                  int size, int minimumIdle, boolean readOnly) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(jdbcUrl);
+        pool.setUsername(user);
+        pool.setPassword(pass);
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(minimumIdle);
+        pool.setConnectionTimeout(connectionTimeout);
+        pool.setIdleTimeout(idleTimeout);
+        pool.setMaxLifetime(maxLifetime);
+        pool.setReadOnly(readOnly);
+        if (!connectionInitSql.isBlank()) {
+            pool.setConnectionInitSql(connectionInitSql);
+        }
+        if (readOnly) {
+            pool.addDataSourceProperty("readOnlyMode", "always");
+        }
+        return pool;
+    }
+}
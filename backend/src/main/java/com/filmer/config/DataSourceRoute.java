@@ -0,0 +1,68 @@
+package com.filmer.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Which connection pool the current thread's queries use.
+ *
+ * <p>The route is thread-bound: {@link ReadRouteInterceptor} sets it for
+ * catalog requests, and work handed to other threads must carry it over
+ * with {@link #callWith}. Threads that never set a route use the primary.</p>
+ */
+public enum DataSourceRoute {
+
+    /**
+     * The primary database; all writes, and reads that must see them.
+     */
+    PRIMARY,
+
+    /**
+     * The read-only catalog pool, on the replica when one is configured.
+     */
+    READ;
+
+    private static final ThreadLocal<DataSourceRoute> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return The route of the current thread, PRIMARY if none was set
+     */
+    public static DataSourceRoute current() {
+        DataSourceRoute route = CURRENT.get();
+        return route == null ? PRIMARY : route;
+    }
+
+    static void set(DataSourceRoute route) {
+        CURRENT.set(route);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs work on the given route, restoring the thread's previous route afterwards.
+     */
+    public static <T> T callWith(DataSourceRoute route, Supplier<T> work) {
+        DataSourceRoute previous = CURRENT.get();
+        CURRENT.set(route);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs work on the given route, restoring the thread's previous route afterwards.
+     */
+    public static void runWith(DataSourceRoute route, Runnable work) {
+        callWith(route, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.filmer.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Routes the catalog endpoints (movies, stars, genres, search, charts, export) to
+ * the read pool and tracks writes of the checkout, cart and order endpoints,
+ * which stay on the primary like everything else.
+ */
+@Configuration
+public class DataSourceRoutingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ReadRouteInterceptor readRouteInterceptor;
+
+    @Autowired
+    private WriteTrackingInterceptor writeTrackingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readRouteInterceptor)
+                .addPathPatterns("/api/v1/movies/**", "/api/v1/stars/**", "/api/v1/genres/**", "/api/v1/search/**",
+                                 "/api/v1/charts/**", "/api/v1/export/**");
+        registry.addInterceptor(writeTrackingInterceptor)
+                .addPathPatterns("/api/v1/checkout/**", "/api/v1/cart/**", "/api/v1/orders/**");
+    }
+}
@@ -0,0 +1,38 @@
+package com.filmer.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Sends the queries of catalog requests to the read pool, or to the
+ * primary while {@link ReadYourWrites} says the session's last write has
+ * not reached the replica. The route is cleared when the request thread
+ * is released.
+ */
+@Component
+public class ReadRouteInterceptor implements AsyncHandlerInterceptor {
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        DataSourceRoute.set(readYourWrites.readRoute(request));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        DataSourceRoute.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        DataSourceRoute.clear();
+    }
+}
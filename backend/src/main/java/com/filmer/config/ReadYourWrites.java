@@ -0,0 +1,107 @@
+package com.filmer.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-your-writes for sessions that wrote to the primary while reads go
+ * to a replica.
+ *
+ * <p>After a successful write request (e.g. checkout) the primary's WAL
+ * position is stored in the session. A later catalog read from that
+ * session is routed to the replica only once the replica has replayed up
+ * to that position; until then it is served by the primary. Once the
+ * replica has caught up the position is dropped and no further checks
+ * are made. Without a replica the read pool is the primary database and
+ * nothing is tracked.</p>
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWrites.class);
+
+    static final String LSN_ATTRIBUTE = ReadYourWrites.class.getName() + ".lsn";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoutingDataSource routingDataSource;
+
+    private final LongAdder writesTracked = new LongAdder();
+    private final LongAdder replicaChecks = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    /**
+     * Remembers the primary's current WAL position for the request's session.
+     */
+    public void recordWrite(HttpServletRequest request) {
+        if (!routingDataSource.isReplica()) {
+            return;
+        }
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return;
+        }
+        try {
+            String lsn = DataSourceRoute.callWith(DataSourceRoute.PRIMARY,
+                    () -> jdbcTemplate.queryForObject("SELECT pg_current_wal_lsn()::text", String.class));
+            session.setAttribute(LSN_ATTRIBUTE, lsn);
+            writesTracked.increment();
+        } catch (DataAccessException e) {
+            log.warn("Could not read primary WAL position: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return READ, or PRIMARY while the replica has not replayed the session's last write
+     */
+    public DataSourceRoute readRoute(HttpServletRequest request) {
+        if (!routingDataSource.isReplica()) {
+            return DataSourceRoute.READ;
+        }
+        HttpSession session = request.getSession(false);
+        Object lsn = session == null ? null : session.getAttribute(LSN_ATTRIBUTE);
+        if (lsn == null) {
+            return DataSourceRoute.READ;
+        }
+
+        replicaChecks.increment();
+        Boolean caughtUp;
+        try {
+            // NULL on a server that is not in recovery, i.e. not lagging
+            caughtUp = DataSourceRoute.callWith(DataSourceRoute.READ,
+                    () -> jdbcTemplate.queryForObject(
+                            "SELECT COALESCE(pg_last_wal_replay_lsn() >= ?::pg_lsn, true)", Boolean.class, lsn));
+        } catch (DataAccessException e) {
+            caughtUp = false;
+        }
+        if (Boolean.TRUE.equals(caughtUp)) {
+            session.removeAttribute(LSN_ATTRIBUTE);
+            return DataSourceRoute.READ;
+        }
+        primaryReads.increment();
+        return DataSourceRoute.PRIMARY;
+    }
+
+    /**
+     * @return Writes tracked, replica position checks, and reads sent to the primary to see a write
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("writesTracked", writesTracked.sum());
+        stats.put("replicaChecks", replicaChecks.sum());
+        stats.put("primaryReads", primaryReads.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,80 @@
+package com.filmer.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The application DataSource: a primary pool for writes and a separate,
+ * read-only pool for catalog reads, chosen per thread by {@link DataSourceRoute}.
+ *
+ * <p>With separate pools, a burst of catalog browsing can exhaust only the
+ * read pool; checkout, cart and order requests keep their own connections.
+ * The read pool points at a replica when {@code filmer.datasource.read.url}
+ * is set and at the primary database otherwise.</p>
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final HikariDataSource primary;
+    private final HikariDataSource read;
+    private final boolean replica;
+
+    public RoutingDataSource(HikariDataSource primary, HikariDataSource read, boolean replica) {
+        this.primary = primary;
+        this.read = read;
+        this.replica = replica;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRoute.PRIMARY, primary);
+        targets.put(DataSourceRoute.READ, read);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourceRoute.current();
+    }
+
+    /**
+     * @return Whether reads go to a separate replica database
+     */
+    public boolean isReplica() {
+        return replica;
+    }
+
+    /**
+     * @return Connection counts of each pool
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("primary", describe(primary));
+        Map<String, Object> readStats = describe(read);
+        readStats.put("replica", replica);
+        stats.put("read", readStats);
+        return stats;
+    }
+
+    private static Map<String, Object> describe(HikariDataSource pool) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("maximumPoolSize", pool.getMaximumPoolSize());
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        if (mxBean != null) {
+            result.put("active", mxBean.getActiveConnections());
+            result.put("idle", mxBean.getIdleConnections());
+            result.put("total", mxBean.getTotalConnections());
+            result.put("awaitingConnection", mxBean.getThreadsAwaitingConnection());
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        read.close();
+        primary.close();
+    }
+}
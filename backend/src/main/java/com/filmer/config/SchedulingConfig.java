@@ -0,0 +1,12 @@
+package com.filmer.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background tasks such as catalog version polling.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,43 @@
+package com.filmer.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.filmer.dto.response.SparseFieldset;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the Jackson filter behind sparse fieldsets on the application
+ * ObjectMapper.
+ *
+ * <p>The filter asks each {@link SparseFieldset} item whether a property
+ * was selected, so one serializer handles every selection and nothing
+ * depends on request state.</p>
+ */
+@Configuration
+public class SparseFieldsetConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetFilter() {
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+                .addFilter(SparseFieldset.FILTER_ID, new SparseFieldsetFilter());
+        return builder -> builder.filters(filters);
+    }
+
+    static class SparseFieldsetFilter extends SimpleBeanPropertyFilter {
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (!(pojo instanceof SparseFieldset) || ((SparseFieldset) pojo).includesField(writer.getName())) {
+                writer.serializeAsField(pojo, generator, provider);
+            } else if (!generator.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.filmer.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records successful writes on primary-routed endpoints (checkout, cart,
+ * orders) with {@link ReadYourWrites}, so the session's following catalog
+ * reads see them.
+ */
+@Component
+public class WriteTrackingInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        String method = request.getMethod();
+        boolean write = "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)
+                || "DELETE".equals(method);
+        if (write && ex == null && response.getStatus() < 400) {
+            readYourWrites.recordWrite(request);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.filmer.controller;
+
+import com.filmer.dto.response.ApiResponse;
+import com.filmer.dto.response.ChartResponse;
+import com.filmer.service.ChartService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for top-rated chart endpoints.
+ * Serves the best movies per genre and per decade for home page rails.
+ */
+@RestController
+@RequestMapping("/api/v1/charts")
+public class ChartController {
+
+    @Autowired
+    private ChartService chartService;
+
+    /**
+     * Get the top-rated movies of a genre.
+     *
+     * <p>Movies are ranked by weighted rating, the same order as
+     * {@code sortBy=rating&order=desc}. Charts are precomputed after each
+     * data load, so no query runs per request.</p>
+     *
+     * @param genreId The unique identifier of the genre
+     * @param limit   Number of movies to return, defaults to 10, max filmer.charts.size (50)
+     * @return ResponseEntity containing the genre and its best movies, best first
+     *
+     * <p><b>Query Parameters:</b></p>
+     * <ul>
+     *   <li>limit (optional) - Entries to return, min 1, max 50, default 10</li>
+     * </ul>
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Chart retrieved successfully</li>
+     *   <li>400 Bad Request - Invalid limit</li>
+     *   <li>404 Not Found - Genre not found</li>
+     * </ul>
+     */
+    @GetMapping("/genres/{genreId}")
+    public ResponseEntity<ApiResponse<ChartResponse>> getGenreChart(
+            @PathVariable Long genreId,
+            @RequestParam(defaultValue = "10") int limit) {
+        ChartResponse response = chartService.getGenreChart(genreId, limit);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Get the top-rated movies of a decade.
+     *
+     * @param decade First year of the decade, e.g. 1990 for the 90s
+     * @param limit  Number of movies to return, defaults to 10, max filmer.charts.size (50)
+     * @return ResponseEntity containing the decade and its best movies, best first
+     *
+     * <p><b>Path Parameters:</b></p>
+     * <ul>
+     *   <li>decade (required) - Year ending in 0, from 1870</li>
+     * </ul>
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Chart retrieved successfully (empty for a decade without rated movies)</li>
+     *   <li>400 Bad Request - Invalid decade or limit</li>
+     * </ul>
+     */
+    @GetMapping("/decades/{decade}")
+    public ResponseEntity<ApiResponse<ChartResponse>> getDecadeChart(
+            @PathVariable int decade,
+            @RequestParam(defaultValue = "10") int limit) {
+        ChartResponse response = chartService.getDecadeChart(decade, limit);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
@@ -0,0 +1,83 @@
+package com.filmer.controller;
+
+import com.filmer.config.DataSourceRoute;
+import com.filmer.service.CatalogExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Controller for bulk catalog export.
+ * Streams the catalog instead of paging through it.
+ */
+@RestController
+@RequestMapping("/api/v1/export")
+public class ExportController {
+
+    private static final String EXPORT_SLOT = ExportController.class.getName() + ".slot";
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    /**
+     * Export every movie as newline-delimited JSON.
+     *
+     * <p>Each line is one movie with its genres and cast, ordered by movie id.
+     * The body is written while the database is read, so the first lines
+     * arrive before the export finishes and server memory stays flat.
+     * Exports are limited to {@code filmer.export.max-concurrent} at a time.
+     * The slot is taken here, so the limit can still answer 429, and given
+     * back when the body finishes or, if the body never runs (executor
+     * rejection, async timeout), when the async request completes.</p>
+     *
+     * @return ResponseEntity streaming application/x-ndjson
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Export streamed</li>
+     *   <li>429 Too Many Requests - Export limit reached; see Retry-After</li>
+     * </ul>
+     */
+    @GetMapping("/movies")
+    public ResponseEntity<StreamingResponseBody> exportMovies(HttpServletRequest request) {
+        catalogExportService.acquire();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                catalogExportService.release();
+            }
+        };
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_SLOT,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        release.run();
+                    }
+                });
+        // The body is written on an async thread; keep this request's route
+        DataSourceRoute route = DataSourceRoute.current();
+        StreamingResponseBody body = out -> {
+            try {
+                DataSourceRoute.callWith(route, () -> catalogExportService.writeMovies(out));
+            } finally {
+                release.run();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MediaType.APPLICATION_NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"movies.ndjson\"")
+                .body(body);
+    }
+}
@@ -1,14 +1,17 @@
 package com.filmer.controller;
 
 import com.filmer.dto.response.ApiResponse;
-import com.filmer.dto.response.GenreListResponse;
 import com.filmer.dto.response.GenreMoviesResponse;
-import com.filmer.dto.response.GenreResponse;
+import com.filmer.service.GenreService;
+import com.filmer.service.ResponseBytesCache;
+import com.filmer.service.query.FieldSet;
+import com.filmer.service.query.MovieSortField;
+import com.filmer.service.query.PageRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collections;
-
 /**
  * Controller for genre-related endpoints.
  * Handles genre listing and browsing movies by genre.
@@ -17,13 +20,22 @@ import java.util.Collections;
 @RequestMapping("/api/v1/genres")
 public class GenreController {
 
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
     /**
      * Get all available genres.
      *
      * <p>Returns a list of all movie genres in the system.
-     * This endpoint does not require pagination as the genre list is typically small.</p>
+     * This endpoint does not require pagination as the genre list is typically small.
+     * It is served as pre-serialized JSON (gzip-compressed when accepted)
+     * from {@link ResponseBytesCache}.</p>
      *
-     * @return ResponseEntity containing list of all genres
+     * @param acceptEncoding Accept-Encoding request header
+     * @return ResponseEntity containing list of all genres, ordered by name
      *
      * <p><b>Responses:</b></p>
      * <ul>
@@ -31,12 +43,9 @@ public class GenreController {
      * </ul>
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<GenreListResponse>> listGenres() {
-        // TODO: Implement genre listing logic
-        // 1. Query all genres from database
-        // 2. Map entities to DTOs
-        GenreListResponse response = new GenreListResponse(Collections.emptyList());
-        return ResponseEntity.status(501).body(ApiResponse.success(response));
+    public ResponseEntity<byte[]> listGenres(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseBytesCache.get("genres", genreService::listGenres).toResponseEntity(acceptEncoding);
     }
 
     /**
@@ -50,6 +59,9 @@ public class GenreController {
      * @param size    Number of items per page, defaults to 20, max 100
      * @param sortBy  Field to sort by: title, year, or rating. Defaults to title
      * @param order   Sort order: asc or desc. Defaults to asc
+     * @param cursor  Opaque cursor from a previous page's nextCursor/prevCursor (overrides page)
+     * @param countMode How totals are computed: exact, estimate or hasMore. Defaults to exact
+     * @param fields Comma-separated item fields to return (sparse fieldset); all when omitted
      * @return ResponseEntity containing genre info and paginated movie list
      *
      * <p><b>Path Parameters:</b></p>
@@ -63,11 +75,15 @@ public class GenreController {
      *   <li>size (optional) - Items per page, min 1, max 100, default 20</li>
      *   <li>sortBy (optional) - Sort field: title|year|rating, default title</li>
      *   <li>order (optional) - Sort order: asc|desc, default asc</li>
+     *   <li>cursor (optional) - Keyset cursor; seeks instead of using OFFSET</li>
+     *   <li>countMode (optional) - exact|estimate|hasMore, default exact</li>
+     *   <li>fields (optional) - Subset of id,title,year,director,rating</li>
      * </ul>
      *
      * <p><b>Responses:</b></p>
      * <ul>
      *   <li>200 OK - Movies retrieved successfully</li>
+     *   <li>400 Bad Request - Invalid query parameters</li>
      *   <li>404 Not Found - Genre not found with given ID</li>
      * </ul>
      */
@@ -77,19 +93,14 @@ public class GenreController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String order) {
-        // TODO: Implement genre movies retrieval logic
-        // 1. Verify genre exists, return 404 if not
-        // 2. Validate pagination parameters
-        // 3. Query movies by genre with pagination
-        // 4. Map entities to DTOs
-        GenreMoviesResponse response = new GenreMoviesResponse();
-        response.setGenre(new GenreResponse(genreId, "Genre"));
-        response.setItems(Collections.emptyList());
-        response.setPage(page);
-        response.setSize(size);
-        response.setTotalItems(0);
-        response.setTotalPages(0);
-        return ResponseEntity.status(501).body(ApiResponse.success(response));
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String countMode,
+            @RequestParam(required = false) String fields) {
+        PageRequest pageRequest = PageRequest.of(page, size, order, cursor, countMode);
+        GenreMoviesResponse response =
+                genreService.getMoviesByGenre(genreId, MovieSortField.fromParam(sortBy), pageRequest,
+                        FieldSet.of(fields, GenreMoviesResponse.GenreMovieItem.FIELDS));
+        return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
@@ -1,15 +1,29 @@
 package com.filmer.controller;
 
+import com.filmer.config.ReadYourWrites;
+import com.filmer.config.RoutingDataSource;
 import com.filmer.dto.response.ApiResponse;
 import com.filmer.dto.response.ApiErrorResponse;
 import com.filmer.dto.response.HealthResponse;
+import com.filmer.service.BrowseIndex;
+import com.filmer.service.CoStarGraphIndex;
+import com.filmer.service.DetailCache;
 import com.filmer.service.HealthCheckService;
+import com.filmer.service.MovieSearchIndex;
+import com.filmer.service.MovieSortOrdersCache;
+import com.filmer.service.ParallelLookups;
+import com.filmer.service.RequestCoalescer;
+import com.filmer.service.ResponseBytesCache;
+import com.filmer.service.SimilarMoviesIndex;
+import com.filmer.service.SuggestIndex;
+import com.filmer.service.TopChartsIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -23,6 +37,45 @@ public class HealthController {
     @Autowired
     private HealthCheckService healthCheckService;
 
+    @Autowired
+    private DetailCache detailCache;
+
+    @Autowired
+    private BrowseIndex browseIndex;
+
+    @Autowired
+    private MovieSearchIndex movieSearchIndex;
+
+    @Autowired
+    private MovieSortOrdersCache movieSortOrdersCache;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
+    @Autowired
+    private ParallelLookups parallelLookups;
+
+    @Autowired
+    private TopChartsIndex topChartsIndex;
+
+    @Autowired
+    private SimilarMoviesIndex similarMoviesIndex;
+
+    @Autowired
+    private CoStarGraphIndex coStarGraphIndex;
+
+    @Autowired
+    private RoutingDataSource routingDataSource;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
     /**
      * Health check endpoint to verify API availability and database connectivity.
      *
@@ -69,4 +122,60 @@ public class HealthController {
                     .body(ApiErrorResponse.of("DB_CONNECTION_ERROR", "Database connection failed"));
         }
     }
+
+    /**
+     * In-process cache statistics.
+     *
+     * <p>Reports size, hits, misses, hit rate and evictions for the movie
+     * and star detail caches and the serialized response cache since
+     * startup, the size, approximate memory and build time of the browse,
+     * movie search and suggest indexes and of the sort orders the first two
+     * share, the top charts and the similar
+     * movie lists (with their measured recall), the co-star graph (with its
+     * recent query latency), how many concurrent identical requests were
+     * coalesced, and how parallel detail lookups fared.</p>
+     *
+     * @return ResponseEntity containing per-cache counters
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Statistics retrieved successfully</li>
+     * </ul>
+     */
+    @GetMapping("/health/caches")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(detailCache.getStats());
+        stats.put("responseBytes", responseBytesCache.getStats());
+        stats.put("browseIndex", browseIndex.getStats());
+        stats.put("movieSearchIndex", movieSearchIndex.getStats());
+        stats.put("movieSortOrders", movieSortOrdersCache.getStats());
+        stats.put("suggestIndex", suggestIndex.getStats());
+        stats.put("topCharts", topChartsIndex.getStats());
+        stats.put("similarMovies", similarMoviesIndex.getStats());
+        stats.put("coStarGraph", coStarGraphIndex.getStats());
+        stats.put("requestCoalescing", requestCoalescer.getStats());
+        stats.put("parallelLookups", parallelLookups.getStats());
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    /**
+     * Connection pool statistics.
+     *
+     * <p>Reports the size and current active, idle and waiting counts of
+     * the primary and read pools, whether reads go to a replica, and how
+     * often read-your-writes checks sent a catalog read to the primary.</p>
+     *
+     * @return ResponseEntity containing per-pool counters
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Statistics retrieved successfully</li>
+     * </ul>
+     */
+    @GetMapping("/health/pools")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(routingDataSource.getStats());
+        stats.put("readYourWrites", readYourWrites.getStats());
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
 }
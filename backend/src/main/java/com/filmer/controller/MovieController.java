@@ -1,14 +1,22 @@
 package com.filmer.controller;
 
 import com.filmer.dto.response.ApiResponse;
+import com.filmer.dto.response.BatchResponse;
 import com.filmer.dto.response.MovieDetailResponse;
 import com.filmer.dto.response.MovieListItemResponse;
 import com.filmer.dto.response.PaginatedResponse;
+import com.filmer.dto.response.SimilarMoviesResponse;
+import com.filmer.service.MovieService;
+import com.filmer.service.ResponseBytesCache;
+import com.filmer.service.query.BatchIds;
+import com.filmer.service.query.FieldSet;
+import com.filmer.service.query.MovieSortField;
+import com.filmer.service.query.PageRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collections;
-
 /**
  * Controller for movie-related endpoints.
  * Handles movie listing, pagination, sorting, filtering, and detail retrieval.
@@ -17,6 +25,12 @@ import java.util.Collections;
 @RequestMapping("/api/v1/movies")
 public class MovieController {
 
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
     /**
      * Get a paginated list of movies with optional sorting and filtering.
      *
@@ -28,6 +42,9 @@ public class MovieController {
      * @param sortBy     Field to sort by: title, year, or rating. Defaults to title
      * @param order      Sort order: asc or desc. Defaults to asc
      * @param startsWith Filter movies starting with this character (A-Z or * for non-alpha)
+     * @param cursor     Opaque cursor from a previous page's nextCursor/prevCursor (overrides page)
+     * @param countMode  How totals are computed: exact, estimate or hasMore. Defaults to exact
+     * @param fields     Comma-separated item fields to return (sparse fieldset); all when omitted
      * @return ResponseEntity containing paginated movie list
      *
      * <p><b>Query Parameters:</b></p>
@@ -37,6 +54,10 @@ public class MovieController {
      *   <li>sortBy (optional) - Sort field: title|year|rating, default title</li>
      *   <li>order (optional) - Sort order: asc|desc, default asc</li>
      *   <li>startsWith (optional) - Filter by starting character</li>
+     *   <li>cursor (optional) - Keyset cursor; seeks instead of using OFFSET</li>
+     *   <li>countMode (optional) - exact|estimate|hasMore, default exact</li>
+     *   <li>fields (optional) - Subset of id,title,year,director,rating,numVotes,genres,stars;
+     *       genres and stars are only queried when selected</li>
      * </ul>
      *
      * <p><b>Responses:</b></p>
@@ -51,17 +72,45 @@ public class MovieController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "title") String sortBy,
             @RequestParam(defaultValue = "asc") String order,
-            @RequestParam(required = false) String startsWith) {
-        // TODO: Implement movie listing logic
-        // 1. Validate pagination parameters
-        // 2. Validate sort field and order
-        // 3. Apply startsWith filter if provided
-        // 4. Query database with pagination
-        // 5. Map entities to DTOs
-        PaginatedResponse<MovieListItemResponse> response = new PaginatedResponse<>(
-                Collections.emptyList(), page, size, 0
-        );
-        return ResponseEntity.status(501).body(ApiResponse.success(response));
+            @RequestParam(required = false) String startsWith,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String countMode,
+            @RequestParam(required = false) String fields) {
+        PageRequest pageRequest = PageRequest.of(page, size, order, cursor, countMode);
+        PaginatedResponse<MovieListItemResponse> response =
+                movieService.listMovies(MovieSortField.fromParam(sortBy), pageRequest, startsWith,
+                        FieldSet.of(fields, MovieListItemResponse.FIELDS));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Get details for many movies in one request.
+     *
+     * <p>Returns one entry per requested id, in request order. Movies already
+     * in the detail cache are served from it and the rest are loaded together,
+     * so a page of ids costs a constant number of queries.</p>
+     *
+     * @param ids Comma-separated movie IDs, at most 100
+     * @return ResponseEntity containing the batch, with not-found ids marked
+     *
+     * <p><b>Query Parameters:</b></p>
+     * <ul>
+     *   <li>ids (required) - Comma-separated movie IDs, 1 to 100 (duplicates allowed)</li>
+     * </ul>
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Batch resolved (missing movies have found=false)</li>
+     *   <li>400 Bad Request - No ids, blank ids, or too many ids</li>
+     *   <li>503 Service Unavailable - Loading the uncached movies took longer than
+     *       {@code filmer.lookups.timeout-ms} (Retry-After)</li>
+     * </ul>
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchResponse<MovieDetailResponse>>> getMovieDetailsBatch(
+            @RequestParam(required = false) String ids) {
+        BatchResponse<MovieDetailResponse> response = movieService.getMovieDetailsBatch(BatchIds.of(ids));
+        return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     /**
@@ -70,7 +119,11 @@ public class MovieController {
      * <p>Returns comprehensive movie details including all genres and stars
      * associated with the movie.</p>
      *
+     * <p>The response is served as pre-serialized JSON (gzip-compressed
+     * when accepted) from {@link ResponseBytesCache}.</p>
+     *
      * @param movieId The unique identifier of the movie (max 10 chars)
+     * @param acceptEncoding Accept-Encoding request header
      * @return ResponseEntity containing detailed movie information
      *
      * <p><b>Path Parameters:</b></p>
@@ -82,17 +135,47 @@ public class MovieController {
      * <ul>
      *   <li>200 OK - Movie details retrieved successfully</li>
      *   <li>404 Not Found - Movie not found with given ID</li>
+     *   <li>503 Service Unavailable - A parallel lookup of an uncached movie took longer than
+     *       {@code filmer.lookups.timeout-ms} (Retry-After)</li>
      * </ul>
      */
     @GetMapping("/{movieId}")
-    public ResponseEntity<ApiResponse<MovieDetailResponse>> getMovieDetails(
-            @PathVariable String movieId) {
-        // TODO: Implement movie detail retrieval logic
-        // 1. Query movie by ID with genres and stars
-        // 2. Return 404 if not found
-        // 3. Map entity to DTO
-        MovieDetailResponse response = new MovieDetailResponse();
-        response.setId(movieId);
-        return ResponseEntity.status(501).body(ApiResponse.success(response));
+    public ResponseEntity<byte[]> getMovieDetails(
+            @PathVariable String movieId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseBytesCache.get("movie:" + movieId, () -> movieService.getMovieDetails(movieId))
+                .toResponseEntity(acceptEncoding);
+    }
+
+    /**
+     * Get movies similar to a specific movie ("more like this").
+     *
+     * <p>Similarity is the Jaccard index of the two movies' cast and genre
+     * sets. Neighbors are precomputed with MinHash/LSH after each data load,
+     * so they are approximate: a similar movie may occasionally be missed.</p>
+     *
+     * @param movieId The unique identifier of the movie (max 10 chars)
+     * @param limit   Number of similar movies, defaults to 10, max filmer.similar.k (10)
+     * @return ResponseEntity containing the similar movies, most similar first
+     *
+     * <p><b>Query Parameters:</b></p>
+     * <ul>
+     *   <li>limit (optional) - Movies to return, min 1, max 10, default 10</li>
+     * </ul>
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Similar movies retrieved (empty when none are known)</li>
+     *   <li>400 Bad Request - Invalid limit</li>
+     *   <li>404 Not Found - Movie not found with given ID</li>
+     *   <li>503 Service Unavailable - Lists not built for the current catalog yet (Retry-After)</li>
+     * </ul>
+     */
+    @GetMapping("/{movieId}/similar")
+    public ResponseEntity<ApiResponse<SimilarMoviesResponse>> getSimilarMovies(
+            @PathVariable String movieId,
+            @RequestParam(defaultValue = "10") int limit) {
+        SimilarMoviesResponse response = movieService.getSimilarMovies(movieId, limit);
+        return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
@@ -3,19 +3,34 @@ package com.filmer.controller;
 import com.filmer.dto.response.ApiResponse;
 import com.filmer.dto.response.MovieListItemResponse;
 import com.filmer.dto.response.PaginatedResponse;
+import com.filmer.dto.response.SuggestionResponse;
+import com.filmer.exception.BadRequestException;
+import com.filmer.service.SearchService;
+import com.filmer.service.SuggestDictionary;
+import com.filmer.service.SuggestIndex;
+import com.filmer.service.query.FieldSet;
+import com.filmer.service.query.PageRequest;
+import com.filmer.service.query.SearchCriteria;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collections;
+import java.util.List;
 
 /**
  * Controller for search endpoints.
- * Handles keyword search and advanced movie filtering.
+ * Handles keyword search, advanced movie filtering and typeahead suggestions.
  */
 @RestController
 @RequestMapping("/api/v1/search")
 public class SearchController {
 
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
     /**
      * Search movies with keyword and advanced filters.
      *
@@ -33,8 +48,12 @@ public class SearchController {
      * @param genreId  Filter by genre ID
      * @param page     Page number (1-indexed), defaults to 1
      * @param size     Number of items per page, defaults to 20, max 100
-     * @param sortBy   Field to sort by: title, year, or rating. Defaults to title
-     * @param order    Sort order: asc or desc. Defaults to asc
+     * @param sortBy   Field to sort by: title, year, rating or relevance. Defaults to
+     *                 relevance when query is given, title otherwise
+     * @param order    Sort order: asc or desc. Defaults to asc (best matches first for relevance)
+     * @param cursor   Opaque cursor from a previous page's nextCursor/prevCursor (overrides page)
+     * @param countMode How totals are computed: exact, estimate or hasMore. Defaults to exact
+     * @param fields Comma-separated item fields to return (sparse fieldset); all when omitted
      * @return ResponseEntity containing paginated search results
      *
      * <p><b>Query Parameters:</b></p>
@@ -49,13 +68,17 @@ public class SearchController {
      *   <li>genreId (optional) - Genre ID filter</li>
      *   <li>page (optional) - Page number, min 1, default 1</li>
      *   <li>size (optional) - Items per page, min 1, max 100, default 20</li>
-     *   <li>sortBy (optional) - Sort field: title|year|rating, default title</li>
+     *   <li>sortBy (optional) - Sort field: title|year|rating|relevance, default relevance with query, else title</li>
      *   <li>order (optional) - Sort order: asc|desc, default asc</li>
+     *   <li>cursor (optional) - Keyset cursor; seeks instead of using OFFSET</li>
+     *   <li>countMode (optional) - exact|estimate|hasMore, default exact</li>
+     *   <li>fields (optional) - Subset of id,title,year,director,rating,numVotes,genres,stars</li>
      * </ul>
      *
      * <p><b>Filter Logic:</b></p>
      * <ul>
-     *   <li>query: Full-text search across title, director, and star names</li>
+     *   <li>query: Full-text search across title, director, and star names
+     *       (web-search syntax: quoted phrases, OR, -exclusion)</li>
      *   <li>All other filters combined with AND logic</li>
      *   <li>At least one filter must be provided</li>
      * </ul>
@@ -78,17 +101,46 @@ public class SearchController {
             @RequestParam(required = false) Long genreId,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String order) {
-        // TODO: Implement search logic
-        // 1. Validate at least one search parameter is provided
-        // 2. Validate pagination and sort parameters
-        // 3. Build dynamic query based on provided filters
-        // 4. Execute query with pagination
-        // 5. Map entities to DTOs
-        PaginatedResponse<MovieListItemResponse> response = new PaginatedResponse<>(
-                Collections.emptyList(), page, size, 0
-        );
-        return ResponseEntity.status(501).body(ApiResponse.success(response));
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String countMode,
+            @RequestParam(required = false) String fields) {
+        SearchCriteria criteria = new SearchCriteria(query, title, year, yearFrom, yearTo, director, star, genreId);
+        PageRequest pageRequest = PageRequest.of(page, size, order, cursor, countMode);
+        PaginatedResponse<MovieListItemResponse> response =
+                searchService.searchMovies(criteria, sortBy, pageRequest, FieldSet.of(fields, MovieListItemResponse.FIELDS));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Typeahead suggestions for movie titles and star names.
+     *
+     * <p>Answered from an in-memory dictionary rebuilt after each catalog
+     * load, without touching the database. A suggestion matches when any
+     * of the first words of its name starts with the prefix (case, accents
+     * and punctuation ignored); the most popular matches come first.</p>
+     *
+     * @param prefix Text typed so far
+     * @param limit  Maximum number of suggestions, defaults to 10, max 20
+     * @return ResponseEntity containing movie and star suggestions
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Suggestions retrieved successfully (empty while the dictionary is first built)</li>
+     *   <li>400 Bad Request - Missing prefix or invalid limit</li>
+     * </ul>
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<SuggestionResponse>>> suggest(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException("prefix is required");
+        }
+        if (limit < 1 || limit > SuggestDictionary.MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + SuggestDictionary.MAX_LIMIT);
+        }
+        return ResponseEntity.ok(ApiResponse.success(suggestIndex.suggest(prefix, limit)));
     }
 }
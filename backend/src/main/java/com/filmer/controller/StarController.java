@@ -1,14 +1,21 @@
 package com.filmer.controller;
 
 import com.filmer.dto.response.ApiResponse;
+import com.filmer.dto.response.BatchResponse;
 import com.filmer.dto.response.PaginatedResponse;
 import com.filmer.dto.response.StarDetailResponse;
 import com.filmer.dto.response.StarListItemResponse;
+import com.filmer.dto.response.StarNeighborhoodResponse;
+import com.filmer.dto.response.StarPathResponse;
+import com.filmer.service.StarService;
+import com.filmer.service.query.BatchIds;
+import com.filmer.service.query.FieldSet;
+import com.filmer.service.query.PageRequest;
+import com.filmer.service.query.StarSortField;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collections;
-
 /**
  * Controller for star-related endpoints.
  * Handles star listing, searching, and detail retrieval.
@@ -17,6 +24,9 @@ import java.util.Collections;
 @RequestMapping("/api/v1/stars")
 public class StarController {
 
+    @Autowired
+    private StarService starService;
+
     /**
      * Get a paginated list of stars with optional sorting and name search.
      *
@@ -25,18 +35,24 @@ public class StarController {
      *
      * @param page   Page number (1-indexed), defaults to 1
      * @param size   Number of items per page, defaults to 20, max 100
-     * @param sortBy Field to sort by: name or birthYear. Defaults to name
+     * @param sortBy Field to sort by: name, birthYear or movieCount. Defaults to name
      * @param order  Sort order: asc or desc. Defaults to asc
      * @param name   Filter stars by name (partial, case-insensitive match)
+     * @param cursor Opaque cursor from a previous page's nextCursor/prevCursor (overrides page)
+     * @param countMode How totals are computed: exact, estimate or hasMore. Defaults to exact
+     * @param fields Comma-separated item fields to return (sparse fieldset); all when omitted
      * @return ResponseEntity containing paginated star list
      *
      * <p><b>Query Parameters:</b></p>
      * <ul>
      *   <li>page (optional) - Page number, min 1, default 1</li>
      *   <li>size (optional) - Items per page, min 1, max 100, default 20</li>
-     *   <li>sortBy (optional) - Sort field: name|birthYear, default name</li>
+     *   <li>sortBy (optional) - Sort field: name|birthYear|movieCount, default name</li>
      *   <li>order (optional) - Sort order: asc|desc, default asc</li>
      *   <li>name (optional) - Name search filter (partial match)</li>
+     *   <li>cursor (optional) - Keyset cursor; seeks instead of using OFFSET</li>
+     *   <li>countMode (optional) - exact|estimate|hasMore, default exact</li>
+     *   <li>fields (optional) - Subset of id,name,birthYear,movieCount</li>
      * </ul>
      *
      * <p><b>Responses:</b></p>
@@ -51,17 +67,42 @@ public class StarController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String order,
-            @RequestParam(required = false) String name) {
-        // TODO: Implement star listing logic
-        // 1. Validate pagination parameters
-        // 2. Validate sort field and order
-        // 3. Apply name filter if provided
-        // 4. Query database with pagination
-        // 5. Map entities to DTOs with movie count
-        PaginatedResponse<StarListItemResponse> response = new PaginatedResponse<>(
-                Collections.emptyList(), page, size, 0
-        );
-        return ResponseEntity.status(501).body(ApiResponse.success(response));
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String countMode,
+            @RequestParam(required = false) String fields) {
+        PageRequest pageRequest = PageRequest.of(page, size, order, cursor, countMode);
+        PaginatedResponse<StarListItemResponse> response =
+                starService.listStars(StarSortField.fromParam(sortBy), pageRequest, name,
+                        FieldSet.of(fields, StarListItemResponse.FIELDS));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Get details for many stars in one request.
+     *
+     * <p>Returns one entry per requested id, in request order. Stars already
+     * in the detail cache are served from it and the rest are loaded together.</p>
+     *
+     * @param ids Comma-separated star IDs, at most 100
+     * @return ResponseEntity containing the batch, with not-found ids marked
+     *
+     * <p><b>Query Parameters:</b></p>
+     * <ul>
+     *   <li>ids (required) - Comma-separated star IDs, 1 to 100 (duplicates allowed)</li>
+     * </ul>
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Batch resolved (missing stars have found=false)</li>
+     *   <li>400 Bad Request - No ids, blank ids, or too many ids</li>
+     * </ul>
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchResponse<StarDetailResponse>>> getStarDetailsBatch(
+            @RequestParam(required = false) String ids) {
+        BatchResponse<StarDetailResponse> response = starService.getStarDetailsBatch(BatchIds.of(ids));
+        return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     /**
@@ -87,12 +128,72 @@ public class StarController {
     @GetMapping("/{starId}")
     public ResponseEntity<ApiResponse<StarDetailResponse>> getStarDetails(
             @PathVariable String starId) {
-        // TODO: Implement star detail retrieval logic
-        // 1. Query star by ID with associated movies
-        // 2. Return 404 if not found
-        // 3. Map entity to DTO
-        StarDetailResponse response = new StarDetailResponse();
-        response.setId(starId);
-        return ResponseEntity.status(501).body(ApiResponse.success(response));
+        StarDetailResponse response = starService.getStarDetails(starId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Get the shortest chain of shared movies between two stars.
+     *
+     * <p>Returns the stars and movies linking one star to another, as in
+     * "degrees of separation": each movie on the chain features the stars
+     * before and after it. Searched on the in-memory co-star graph.</p>
+     *
+     * @param starId The star to start from
+     * @param to     The star to reach
+     * @return ResponseEntity containing the chain, or connected=false
+     *
+     * <p><b>Query Parameters:</b></p>
+     * <ul>
+     *   <li>to (required) - Star ID to reach</li>
+     * </ul>
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Chain found, or connected=false if none within the maximum degrees</li>
+     *   <li>400 Bad Request - to is missing</li>
+     *   <li>404 Not Found - Either star not found</li>
+     *   <li>429 Too Many Requests - All graph search slots are busy</li>
+     *   <li>503 Service Unavailable - The graph is not built yet, or is being rebuilt for a newly loaded star</li>
+     * </ul>
+     */
+    @GetMapping("/{starId}/path")
+    public ResponseEntity<ApiResponse<StarPathResponse>> getStarPath(
+            @PathVariable String starId,
+            @RequestParam(required = false) String to) {
+        StarPathResponse response = starService.getStarPath(starId, to);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Get how many stars are reachable from a star through shared movies.
+     *
+     * <p>Returns the number of stars first reached at each hop: hop 1 is the
+     * star's co-stars, hop 2 their co-stars, and so on.</p>
+     *
+     * @param starId The unique identifier of the star
+     * @param hops   Hops to expand, defaults to 2
+     * @return ResponseEntity containing per-hop star counts
+     *
+     * <p><b>Query Parameters:</b></p>
+     * <ul>
+     *   <li>hops (optional) - Hops to expand, min 1, max 3, default 2</li>
+     * </ul>
+     *
+     * <p><b>Responses:</b></p>
+     * <ul>
+     *   <li>200 OK - Counts retrieved successfully</li>
+     *   <li>400 Bad Request - hops out of range</li>
+     *   <li>404 Not Found - Star not found with given ID</li>
+     *   <li>429 Too Many Requests - All graph search slots are busy</li>
+     *   <li>503 Service Unavailable - The graph is not built yet, or is being rebuilt for a newly loaded star</li>
+     * </ul>
+     */
+    @GetMapping("/{starId}/neighborhood")
+    public ResponseEntity<ApiResponse<StarNeighborhoodResponse>> getStarNeighborhood(
+            @PathVariable String starId,
+            @RequestParam(defaultValue = "2") int hops) {
+        StarNeighborhoodResponse response = starService.getStarNeighborhood(starId, hops);
+        return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
@@ -0,0 +1,99 @@
+package com.filmer.dto.response;
+
+import java.util.List;
+
+/**
+ * Response of a batch (multi-get) endpoint.
+ * Holds one item per requested id, in request order; ids that do not
+ * exist are returned with {@code found = false} and no data.
+ *
+ * @param <T> The type of the resolved resources
+ */
+public class BatchResponse<T> {
+
+    private List<Item<T>> items;
+    private int found;
+    private int notFound;
+
+    public BatchResponse() {
+    }
+
+    public BatchResponse(List<Item<T>> items) {
+        this.items = items;
+        for (Item<T> item : items) {
+            if (item.isFound()) {
+                found++;
+            } else {
+                notFound++;
+            }
+        }
+    }
+
+    // Getters and Setters
+
+    public List<Item<T>> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item<T>> items) {
+        this.items = items;
+    }
+
+    public int getFound() {
+        return found;
+    }
+
+    public void setFound(int found) {
+        this.found = found;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(int notFound) {
+        this.notFound = notFound;
+    }
+
+    /**
+     * Result for one requested id.
+     */
+    public static class Item<T> {
+        private String id;
+        private boolean found;
+        private T data;
+
+        public Item() {
+        }
+
+        public Item(String id, T data) {
+            this.id = id;
+            this.found = data != null;
+            this.data = data;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public boolean isFound() {
+            return found;
+        }
+
+        public void setFound(boolean found) {
+            this.found = found;
+        }
+
+        public T getData() {
+            return data;
+        }
+
+        public void setData(T data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.filmer.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response DTO for a top-rated chart: the best movies of one genre or one decade.
+ */
+public class ChartResponse {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private GenreResponse genre;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer decade;
+
+    private List<ChartItem> items;
+
+    public ChartResponse() {
+    }
+
+    public ChartResponse(GenreResponse genre, Integer decade, List<ChartItem> items) {
+        this.genre = genre;
+        this.decade = decade;
+        this.items = items;
+    }
+
+    // Getters and Setters
+
+    public GenreResponse getGenre() {
+        return genre;
+    }
+
+    public void setGenre(GenreResponse genre) {
+        this.genre = genre;
+    }
+
+    public Integer getDecade() {
+        return decade;
+    }
+
+    public void setDecade(Integer decade) {
+        this.decade = decade;
+    }
+
+    public List<ChartItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ChartItem> items) {
+        this.items = items;
+    }
+
+    /**
+     * One chart entry, best first.
+     */
+    public static class ChartItem {
+
+        private int position;
+        private String id;
+        private String title;
+        private Short year;
+        private String director;
+        private BigDecimal rating;
+        private Integer numVotes;
+        private BigDecimal weightedRating;
+
+        public ChartItem() {
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public void setPosition(int position) {
+            this.position = position;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public Short getYear() {
+            return year;
+        }
+
+        public void setYear(Short year) {
+            this.year = year;
+        }
+
+        public String getDirector() {
+            return director;
+        }
+
+        public void setDirector(String director) {
+            this.director = director;
+        }
+
+        public BigDecimal getRating() {
+            return rating;
+        }
+
+        public void setRating(BigDecimal rating) {
+            this.rating = rating;
+        }
+
+        public Integer getNumVotes() {
+            return numVotes;
+        }
+
+        public void setNumVotes(Integer numVotes) {
+            this.numVotes = numVotes;
+        }
+
+        public BigDecimal getWeightedRating() {
+            return weightedRating;
+        }
+
+        public void setWeightedRating(BigDecimal weightedRating) {
+            this.weightedRating = weightedRating;
+        }
+    }
+}
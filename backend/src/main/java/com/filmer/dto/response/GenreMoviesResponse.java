@@ -1,7 +1,12 @@
 package com.filmer.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Response DTO for genre movies browsing.
@@ -13,8 +18,14 @@ public class GenreMoviesResponse {
     private List<GenreMovieItem> items;
     private int page;
     private int size;
-    private long totalItems;
-    private int totalPages;
+    private Long totalItems;
+    private Integer totalPages;
+    private Boolean hasMore;
+    private String countMode;
+    private String nextCursor;
+    private String prevCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> fields;
 
     public GenreMoviesResponse() {
     }
@@ -53,35 +64,104 @@ public class GenreMoviesResponse {
         this.size = size;
     }
 
-    public long getTotalItems() {
+    public Long getTotalItems() {
         return totalItems;
     }
 
-    public void setTotalItems(long totalItems) {
+    public void setTotalItems(Long totalItems) {
         this.totalItems = totalItems;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
 
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public String getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(String countMode) {
+        this.countMode = countMode;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public void setPrevCursor(String prevCursor) {
+        this.prevCursor = prevCursor;
+    }
+
+    /**
+     * @return Item fields materialized for this response, when a fieldset was requested
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
     /**
      * Movie item for genre browsing.
      */
-    public static class GenreMovieItem {
+    @JsonFilter(SparseFieldset.FILTER_ID)
+    public static class GenreMovieItem implements SparseFieldset {
+
+        /**
+         * JSON fields selectable with the {@code fields} parameter, in output order.
+         */
+        public static final List<String> FIELDS = List.of("id", "title", "year", "director", "rating");
+
         private String id;
         private String title;
         private Short year;
         private String director;
         private BigDecimal rating;
 
+        @JsonIgnore
+        private Integer ratingRank;
+
+        @JsonIgnore
+        private Set<String> selectedFields;
+
         public GenreMovieItem() {
         }
 
+        /**
+         * @param selectedFields Fields to serialize, or null for all
+         */
+        @JsonIgnore
+        public void setSelectedFields(Set<String> selectedFields) {
+            this.selectedFields = selectedFields;
+        }
+
+        @Override
+        public boolean includesField(String name) {
+            return selectedFields == null || selectedFields.contains(name);
+        }
+
         public String getId() {
             return id;
         }
@@ -121,5 +201,18 @@ public class GenreMoviesResponse {
         public void setRating(BigDecimal rating) {
             this.rating = rating;
         }
+
+        /**
+         * @return Dense rank of the weighted rating, the rating sort key; not serialized
+         */
+        @JsonIgnore
+        public Integer getRatingRank() {
+            return ratingRank;
+        }
+
+        @JsonIgnore
+        public void setRatingRank(Integer ratingRank) {
+            this.ratingRank = ratingRank;
+        }
     }
 }
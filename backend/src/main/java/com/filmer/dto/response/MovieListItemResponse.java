@@ -1,13 +1,24 @@
 package com.filmer.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Response DTO for movie list items.
  * Contains summary information for displaying in lists.
  */
-public class MovieListItemResponse {
+@JsonFilter(SparseFieldset.FILTER_ID)
+public class MovieListItemResponse implements SparseFieldset {
+
+    /**
+     * JSON fields selectable with the {@code fields} parameter, in output order.
+     */
+    public static final List<String> FIELDS =
+            List.of("id", "title", "year", "director", "rating", "numVotes", "genres", "stars");
 
     private String id;
     private String title;
@@ -18,9 +29,28 @@ public class MovieListItemResponse {
     private List<String> genres;
     private List<StarSummary> stars;
 
+    @JsonIgnore
+    private Integer ratingRank;
+
+    @JsonIgnore
+    private Set<String> selectedFields;
+
     public MovieListItemResponse() {
     }
 
+    /**
+     * @param selectedFields Fields to serialize, or null for all
+     */
+    @JsonIgnore
+    public void setSelectedFields(Set<String> selectedFields) {
+        this.selectedFields = selectedFields;
+    }
+
+    @Override
+    public boolean includesField(String name) {
+        return selectedFields == null || selectedFields.contains(name);
+    }
+
     // Getters and Setters
 
     public String getId() {
@@ -71,6 +101,19 @@ public class MovieListItemResponse {
         this.numVotes = numVotes;
     }
 
+    /**
+     * @return Dense rank of the weighted rating, the rating sort key; not serialized
+     */
+    @JsonIgnore
+    public Integer getRatingRank() {
+        return ratingRank;
+    }
+
+    @JsonIgnore
+    public void setRatingRank(Integer ratingRank) {
+        this.ratingRank = ratingRank;
+    }
+
     public List<String> getGenres() {
         return genres;
     }
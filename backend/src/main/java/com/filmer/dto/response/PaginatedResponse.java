@@ -1,5 +1,7 @@
 package com.filmer.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
@@ -13,12 +15,27 @@ public class PaginatedResponse<T> {
     private List<T> items;
     private int page;
     private int size;
-    private long totalItems;
-    private int totalPages;
+    private Long totalItems;
+    private Integer totalPages;
+    private Boolean hasMore;
+    private String countMode;
+    private String nextCursor;
+    private String prevCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> fields;
 
     public PaginatedResponse() {
     }
 
+    /**
+     * Creates a page without totals; they are filled in according to the count mode.
+     */
+    public PaginatedResponse(List<T> items, int page, int size) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+    }
+
     public PaginatedResponse(List<T> items, int page, int size, long totalItems) {
         this.items = items;
         this.page = page;
@@ -53,19 +70,62 @@ public class PaginatedResponse<T> {
         this.size = size;
     }
 
-    public long getTotalItems() {
+    public Long getTotalItems() {
         return totalItems;
     }
 
-    public void setTotalItems(long totalItems) {
+    public void setTotalItems(Long totalItems) {
         this.totalItems = totalItems;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public String getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(String countMode) {
+        this.countMode = countMode;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public void setPrevCursor(String prevCursor) {
+        this.prevCursor = prevCursor;
+    }
+
+    /**
+     * @return Item fields materialized for this page, on endpoints that accept a fieldset
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
 }
@@ -0,0 +1,115 @@
+package com.filmer.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response DTO for "more like this" recommendations of one movie.
+ */
+public class SimilarMoviesResponse {
+
+    private String movieId;
+    private List<SimilarMovie> items;
+
+    public SimilarMoviesResponse() {
+    }
+
+    public SimilarMoviesResponse(String movieId, List<SimilarMovie> items) {
+        this.movieId = movieId;
+        this.items = items;
+    }
+
+    // Getters and Setters
+
+    public String getMovieId() {
+        return movieId;
+    }
+
+    public void setMovieId(String movieId) {
+        this.movieId = movieId;
+    }
+
+    public List<SimilarMovie> getItems() {
+        return items;
+    }
+
+    public void setItems(List<SimilarMovie> items) {
+        this.items = items;
+    }
+
+    /**
+     * A similar movie, most similar first.
+     */
+    public static class SimilarMovie {
+
+        private String id;
+        private String title;
+        private Short year;
+        private String director;
+        private BigDecimal rating;
+        private Integer numVotes;
+        private double similarity;
+
+        public SimilarMovie() {
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public Short getYear() {
+            return year;
+        }
+
+        public void setYear(Short year) {
+            this.year = year;
+        }
+
+        public String getDirector() {
+            return director;
+        }
+
+        public void setDirector(String director) {
+            this.director = director;
+        }
+
+        public BigDecimal getRating() {
+            return rating;
+        }
+
+        public void setRating(BigDecimal rating) {
+            this.rating = rating;
+        }
+
+        public Integer getNumVotes() {
+            return numVotes;
+        }
+
+        public void setNumVotes(Integer numVotes) {
+            this.numVotes = numVotes;
+        }
+
+        /**
+         * @return Jaccard similarity of the two movies' cast and genre sets, 0 to 1
+         */
+        public double getSimilarity() {
+            return similarity;
+        }
+
+        public void setSimilarity(double similarity) {
+            this.similarity = similarity;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.filmer.dto.response;
+
+/**
+ * A response item that may be serialized with only some of its fields,
+ * as selected by a request's {@code fields} parameter.
+ *
+ * <p>Implementations are annotated with {@code @JsonFilter(FILTER_ID)};
+ * the filter registered under that id asks each item which properties to
+ * write.</p>
+ */
+public interface SparseFieldset {
+
+    String FILTER_ID = "sparseFieldset";
+
+    /**
+     * @param name JSON property name
+     * @return Whether the property is written
+     */
+    boolean includesField(String name);
+}
@@ -1,19 +1,47 @@
 package com.filmer.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+import java.util.Set;
+
 /**
  * Response DTO for star list items.
  * Contains summary information for displaying in lists.
  */
-public class StarListItemResponse {
+@JsonFilter(SparseFieldset.FILTER_ID)
+public class StarListItemResponse implements SparseFieldset {
+
+    /**
+     * JSON fields selectable with the {@code fields} parameter, in output order.
+     */
+    public static final List<String> FIELDS = List.of("id", "name", "birthYear", "movieCount");
 
     private String id;
     private String name;
     private Short birthYear;
     private Integer movieCount;
 
+    @JsonIgnore
+    private Set<String> selectedFields;
+
     public StarListItemResponse() {
     }
 
+    /**
+     * @param selectedFields Fields to serialize, or null for all
+     */
+    @JsonIgnore
+    public void setSelectedFields(Set<String> selectedFields) {
+        this.selectedFields = selectedFields;
+    }
+
+    @Override
+    public boolean includesField(String name) {
+        return selectedFields == null || selectedFields.contains(name);
+    }
+
     // Getters and Setters
 
     public String getId() {
@@ -0,0 +1,81 @@
+package com.filmer.dto.response;
+
+import java.util.List;
+
+/**
+ * Response DTO for how many stars are reachable from one star within a number of hops.
+ */
+public class StarNeighborhoodResponse {
+
+    private String starId;
+    private long reachable;
+    private List<Hop> hops;
+
+    public StarNeighborhoodResponse() {
+    }
+
+    public StarNeighborhoodResponse(String starId, long reachable, List<Hop> hops) {
+        this.starId = starId;
+        this.reachable = reachable;
+        this.hops = hops;
+    }
+
+    // Getters and Setters
+
+    public String getStarId() {
+        return starId;
+    }
+
+    public void setStarId(String starId) {
+        this.starId = starId;
+    }
+
+    public long getReachable() {
+        return reachable;
+    }
+
+    public void setReachable(long reachable) {
+        this.reachable = reachable;
+    }
+
+    public List<Hop> getHops() {
+        return hops;
+    }
+
+    public void setHops(List<Hop> hops) {
+        this.hops = hops;
+    }
+
+    /**
+     * Stars first reached at one hop; hop 1 is the star's co-stars.
+     */
+    public static class Hop {
+
+        private int hop;
+        private long stars;
+
+        public Hop() {
+        }
+
+        public Hop(int hop, long stars) {
+            this.hop = hop;
+            this.stars = stars;
+        }
+
+        public int getHop() {
+            return hop;
+        }
+
+        public void setHop(int hop) {
+            this.hop = hop;
+        }
+
+        public long getStars() {
+            return stars;
+        }
+
+        public void setStars(long stars) {
+            this.stars = stars;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.filmer.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response DTO for the shortest chain of shared movies between two stars.
+ */
+public class StarPathResponse {
+
+    private String fromStarId;
+    private String toStarId;
+    private boolean connected;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer degrees;
+
+    private List<PathStep> path;
+
+    public StarPathResponse() {
+    }
+
+    public StarPathResponse(String fromStarId, String toStarId, Integer degrees, List<PathStep> path) {
+        this.fromStarId = fromStarId;
+        this.toStarId = toStarId;
+        this.connected = degrees != null;
+        this.degrees = degrees;
+        this.path = path;
+    }
+
+    // Getters and Setters
+
+    public String getFromStarId() {
+        return fromStarId;
+    }
+
+    public void setFromStarId(String fromStarId) {
+        this.fromStarId = fromStarId;
+    }
+
+    public String getToStarId() {
+        return toStarId;
+    }
+
+    public void setToStarId(String toStarId) {
+        this.toStarId = toStarId;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public void setConnected(boolean connected) {
+        this.connected = connected;
+    }
+
+    public Integer getDegrees() {
+        return degrees;
+    }
+
+    public void setDegrees(Integer degrees) {
+        this.degrees = degrees;
+    }
+
+    public List<PathStep> getPath() {
+        return path;
+    }
+
+    public void setPath(List<PathStep> path) {
+        this.path = path;
+    }
+
+    /**
+     * One step of the chain: a star, or a movie shared by the stars on either side of it.
+     */
+    public static class PathStep {
+
+        private String type;
+        private String id;
+        private String name;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Short year;
+
+        public PathStep() {
+        }
+
+        public PathStep(String type, String id, String name, Short year) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.year = year;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Short getYear() {
+            return year;
+        }
+
+        public void setYear(Short year) {
+            this.year = year;
+        }
+    }
+}
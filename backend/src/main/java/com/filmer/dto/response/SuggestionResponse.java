@@ -0,0 +1,57 @@
+package com.filmer.dto.response;
+
+/**
+ * Response DTO for a typeahead suggestion.
+ * Either a movie (with its year) or a star.
+ */
+public class SuggestionResponse {
+
+    private String type;
+    private String id;
+    private String label;
+    private Short year;
+
+    public SuggestionResponse() {
+    }
+
+    public SuggestionResponse(String type, String id, String label, Short year) {
+        this.type = type;
+        this.id = id;
+        this.label = label;
+        this.year = year;
+    }
+
+    // Getters and Setters
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Short getYear() {
+        return year;
+    }
+
+    public void setYear(Short year) {
+        this.year = year;
+    }
+}
@@ -0,0 +1,12 @@
+package com.filmer.exception;
+
+/**
+ * Thrown when request parameters fail validation.
+ * Mapped to 400 Bad Request with code VALIDATION_ERROR.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
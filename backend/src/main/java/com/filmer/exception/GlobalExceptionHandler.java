@@ -0,0 +1,63 @@
+package com.filmer.exception;
+
+import com.filmer.dto.response.ApiErrorResponse;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+/**
+ * Translates exceptions thrown by controllers and services into the
+ * standard error envelope defined in the API specification.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final long QUERY_TIMEOUT_RETRY_AFTER_SECONDS = 1;
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiErrorResponse> handleBadRequest(BadRequestException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiErrorResponse.of("VALIDATION_ERROR", e.getMessage()));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiErrorResponse.of("VALIDATION_ERROR", "Invalid value for parameter: " + e.getName()));
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ApiErrorResponse> handleNotFound(ResourceNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiErrorResponse.of("NOT_FOUND", e.getMessage()));
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiErrorResponse> handleTooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiErrorResponse.of("TOO_MANY_REQUESTS", e.getMessage()));
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiErrorResponse> handleServiceUnavailable(ServiceUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiErrorResponse.of("SERVICE_UNAVAILABLE", e.getMessage()));
+    }
+
+    /**
+     * A detail lookup that outran {@code filmer.lookups.timeout-ms}: the
+     * database is slow rather than the request wrong, so the client may retry.
+     */
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<ApiErrorResponse> handleQueryTimeout(QueryTimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(QUERY_TIMEOUT_RETRY_AFTER_SECONDS))
+                .body(ApiErrorResponse.of("SERVICE_UNAVAILABLE", "The request timed out; retry later"));
+    }
+}
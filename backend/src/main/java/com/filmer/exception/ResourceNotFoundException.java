@@ -0,0 +1,12 @@
+package com.filmer.exception;
+
+/**
+ * Thrown when a requested resource does not exist.
+ * Mapped to 404 Not Found with code NOT_FOUND.
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.filmer.exception;
+
+/**
+ * Thrown when a request cannot be answered correctly yet (e.g. an
+ * in-memory index is still being built). Mapped to 503 Service
+ * Unavailable with code SERVICE_UNAVAILABLE.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.filmer.exception;
+
+/**
+ * Thrown when a bounded resource (e.g. export slots) is fully in use.
+ * Mapped to 429 Too Many Requests with code TOO_MANY_REQUESTS.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -2,6 +2,8 @@ package com.filmer.parser;
 
 import java.io.*;
 import java.sql.*;
+import java.util.List;
+import java.util.Set;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -18,6 +20,7 @@ import java.util.zip.GZIPInputStream;
  * Performance Optimizations:
  * - Batch inserts (1000 records per batch)
  * - Filters only actors/actresses
+ * - Optionally keeps only stars cast in loaded movies (see LoadFilter)
  */
 public class ActorTSVParser {
     
@@ -29,9 +32,23 @@ public class ActorTSVParser {
     
     private int actorsProcessed = 0;
     private int linesSkipped = 0;
+    private int starsFiltered = 0;
+    
+    private final ReservoirSampler<String> starSample = new ReservoirSampler<>(LoadVerifier.SAMPLE_SIZE);
+    
+    // null = keep every actor
+    private final Set<String> allowedStarIds;
     
     public ActorTSVParser(Connection connection) throws SQLException {
+        this(connection, null);
+    }
+    
+    /**
+     * @param allowedStarIds Star IDs to keep (from CastTSVParser.collectStarIds), or null for all
+     */
+    public ActorTSVParser(Connection connection, Set<String> allowedStarIds) throws SQLException {
         this.connection = connection;
+        this.allowedStarIds = allowedStarIds;
         this.connection.setAutoCommit(false);
         
         this.starStmt = connection.prepareStatement(
@@ -75,6 +92,12 @@ public class ActorTSVParser {
         String birthYear = fields[2];
         String primaryProfession = fields[4];
         
+        // Filter: only stars cast in movies that survived the catalog filters
+        if (allowedStarIds != null && !allowedStarIds.contains(nconst)) {
+            starsFiltered++;
+            return;
+        }
+        
         // Filter: only actors/actresses
         if (!primaryProfession.contains("actor") && !primaryProfession.contains("actress")) {
             linesSkipped++;
@@ -102,6 +125,7 @@ public class ActorTSVParser {
         starStmt.addBatch();
         batchCount++;
         actorsProcessed++;
+        starSample.offer(nconst);
         
         // Execute batch
         if (batchCount >= BATCH_SIZE) {
@@ -122,4 +146,6 @@ public class ActorTSVParser {
     
     public int getActorsProcessed() { return actorsProcessed; }
     public int getLinesSkipped() { return linesSkipped; }
+    public int getStarsFiltered() { return starsFiltered; }
+    public List<String> getStarSample() { return starSample.getSample(); }
 }
@@ -26,12 +26,19 @@ public class CastOnlyLoader {
             
             CastTSVParser castParser = new CastTSVParser(connection);
             castParser.parse("data/title.principals.tsv.gz");
+            DataLoader.rebuildSearchDocuments(connection);
+            DataLoader.refreshStarMovieCounts(connection, castParser.getLinkedStarIds());
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_search_document ON movies USING GIN (search_document)");
+            }
+            DataLoader.bumpCatalogVersion(connection);
             
             long duration = (System.currentTimeMillis() - startTime) / 1000;
             
             System.out.println("\n✅ Cast loading complete!");
             System.out.println("   Links created: " + castParser.getLinksCreated());
             System.out.println("   Lines skipped: " + castParser.getLinesSkipped());
+            System.out.println("   Not in the catalog: " + castParser.getLinksUnmatched());
             System.out.println("   Duration: " + duration + "s");
             
         } catch (Exception e) {
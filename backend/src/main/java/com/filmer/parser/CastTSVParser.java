@@ -2,7 +2,12 @@ package com.filmer.parser;
 
 import java.io.*;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.zip.GZIPInputStream;
 
@@ -21,20 +26,31 @@ import java.util.zip.GZIPInputStream;
  * - Batch inserts (1000 records per batch)
  * - Filters only actor/actress categories
  * - Preloads movie/star IDs into memory for fast lookups
+ * - Tracks linked movies/stars as bits over the preloaded IDs' ordinals
  */
 public class CastTSVParser {
     
     private Connection connection;
     private PreparedStatement castStmt;
     
-    private Set<String> existingMovieIds;
-    private Set<String> existingStarIds;
+    // ID -> ordinal, and back
+    private Map<String, Integer> movieOrdinals;
+    private Map<String, Integer> starOrdinals;
+    private List<String> starIds;
     
     private int batchCount = 0;
     private static final int BATCH_SIZE = 1000;
     
     private int linksCreated = 0;
     private int linesSkipped = 0;
+    private int linksUnmatched = 0;
+    
+    // In-flight verification state (see LoadVerifier)
+    private final BitSet moviesWithCast = new BitSet();
+    private final ReservoirSampler<String[]> linkSample = new ReservoirSampler<>(LoadVerifier.SAMPLE_SIZE);
+    
+    // Stars offered a link, whose movie_count may have changed
+    private final BitSet linkedStars = new BitSet();
     
     public CastTSVParser(Connection connection) throws SQLException {
         this.connection = connection;
@@ -46,16 +62,17 @@ public class CastTSVParser {
         
         // Preload all movie and star IDs into memory for fast lookups
         System.out.println("   Loading existing movie IDs...");
-        this.existingMovieIds = loadExistingIds("SELECT id FROM movies");
-        System.out.println("   ✓ Loaded " + existingMovieIds.size() + " movies");
+        this.movieOrdinals = toOrdinals(loadExistingIds("SELECT id FROM movies"));
+        System.out.println("   ✓ Loaded " + movieOrdinals.size() + " movies");
         
         System.out.println("   Loading existing star IDs...");
-        this.existingStarIds = loadExistingIds("SELECT id FROM stars");
-        System.out.println("   ✓ Loaded " + existingStarIds.size() + " stars\n");
+        this.starIds = loadExistingIds("SELECT id FROM stars");
+        this.starOrdinals = toOrdinals(starIds);
+        System.out.println("   ✓ Loaded " + starOrdinals.size() + " stars\n");
     }
     
-    private Set<String> loadExistingIds(String query) throws SQLException {
-        Set<String> ids = new HashSet<>();
+    private List<String> loadExistingIds(String query) throws SQLException {
+        List<String> ids = new ArrayList<>();
         try (Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -65,6 +82,41 @@ public class CastTSVParser {
         return ids;
     }
     
+    private static Map<String, Integer> toOrdinals(List<String> ids) {
+        Map<String, Integer> ordinals = new HashMap<>(ids.size() * 4 / 3 + 1);
+        for (int i = 0; i < ids.size(); i++) {
+            ordinals.put(ids.get(i), i);
+        }
+        return ordinals;
+    }
+    
+    /**
+     * Pre-scan the principals file for the actors cast in the given movies.
+     * Lets the star load skip everyone who would never be linked.
+     */
+    public static Set<String> collectStarIds(String filePath, Set<String> movieIds) throws IOException {
+        Set<String> starIds = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(
+                    new GZIPInputStream(
+                        new FileInputStream(filePath)), "UTF-8"))) {
+            
+            String line = reader.readLine(); // Skip header
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length < 4) {
+                    continue;
+                }
+                String category = fields[3];
+                if (("actor".equals(category) || "actress".equals(category))
+                        && movieIds.contains(fields[0])) {
+                    starIds.add(fields[2]);
+                }
+            }
+        }
+        return starIds;
+    }
+    
     public void parse(String filePath) throws IOException, SQLException {
         try (BufferedReader reader = new BufferedReader(
                 new InputStreamReader(
@@ -106,14 +158,16 @@ public class CastTSVParser {
         }
         
         // Check if movie exists (fast in-memory lookup)
-        if (!existingMovieIds.contains(tconst)) {
-            linesSkipped++;
+        Integer movie = movieOrdinals.get(tconst);
+        if (movie == null) {
+            linksUnmatched++;
             return;
         }
         
         // Check if star exists (fast in-memory lookup)
-        if (!existingStarIds.contains(nconst)) {
-            linesSkipped++;
+        Integer star = starOrdinals.get(nconst);
+        if (star == null) {
+            linksUnmatched++;
             return;
         }
         
@@ -123,6 +177,9 @@ public class CastTSVParser {
         castStmt.addBatch();
         batchCount++;
         linksCreated++;
+        moviesWithCast.set(movie);
+        linkedStars.set(star);
+        linkSample.offer(new String[] { nconst, tconst });
         
         // Execute batch
         if (batchCount >= BATCH_SIZE) {
@@ -143,4 +200,15 @@ public class CastTSVParser {
     
     public int getLinksCreated() { return linksCreated; }
     public int getLinesSkipped() { return linesSkipped; }
+    public int getLinksUnmatched() { return linksUnmatched; }
+    public int getMoviesWithCast() { return moviesWithCast.cardinality(); }
+    
+    public List<String> getLinkedStarIds() {
+        List<String> ids = new ArrayList<>(linkedStars.cardinality());
+        for (int star = linkedStars.nextSetBit(0); star >= 0; star = linkedStars.nextSetBit(star + 1)) {
+            ids.add(starIds.get(star));
+        }
+        return ids;
+    }
+    public List<String[]> getLinkSample() { return linkSample.getSample(); }
 }
@@ -1,8 +1,11 @@
+package com.filmer.parser;
 
 import java.io.File;
 import java.sql.*;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
 
 /**
  * Main class for loading IMDb TSV data into PostgreSQL
@@ -16,6 +19,14 @@ import java.time.Instant;
  * - title.basics.tsv.gz (movies data)
  * - name.basics.tsv.gz (actors data)
  * - title.principals.tsv.gz (cast relationships)
+ * - title.ratings.tsv.gz (ratings; required when LOAD_MIN_VOTES is set)
+ * 
+ * Optional catalog filters (see LoadFilter):
+ * - LOAD_MIN_VOTES, LOAD_YEAR_FROM, LOAD_YEAR_TO, LOAD_GENRES
+ * 
+ * Optional rating prior (see rebuildWeightedRatings):
+ * - RATING_PRIOR_VOTES: votes of the prior mean each rating is blended with
+ *   (default: the median vote count of the loaded ratings)
  * 
  * Download from: https://datasets.imdbws.com/
  * 
@@ -28,6 +39,7 @@ public class DataLoader {
     private static final String MOVIES_FILE = "title.basics.tsv.gz";
     private static final String ACTORS_FILE = "name.basics.tsv.gz";
     private static final String CASTS_FILE = "title.principals.tsv.gz";
+    private static final String RATINGS_FILE = "title.ratings.tsv.gz";
     
     public static void main(String[] args) {
         System.out.println("╔═══════════════════════════════════════════════════╗");
@@ -68,60 +80,143 @@ public class DataLoader {
             // Optimize for bulk loading
             optimizeDatabaseForLoading(conn);
             
-            // 1. Load actors first (referenced by casts)
-            File actorsFile = new File(DATA_DIR, ACTORS_FILE);
-            if (actorsFile.exists()) {
-                System.out.println("📂 Loading actors from: " + actorsFile.getAbsolutePath());
-                Instant actorStart = Instant.now();
-                ActorTSVParser actorParser = new ActorTSVParser(conn);
-                actorParser.parse(actorsFile.getAbsolutePath());
-                Duration actorDuration = Duration.between(actorStart, Instant.now());
-                System.out.println("✓ Loaded " + actorParser.getActorsProcessed() + " actors in " + 
-                    actorDuration.getSeconds() + "s (skipped " + actorParser.getLinesSkipped() + " non-actors)");
+            // Collects parser counters for post-load verification
+            LoadVerifier verifier = new LoadVerifier(conn);
+            
+            // Catalog filters (applied while streaming, before any insert)
+            LoadFilter filter = LoadFilter.fromEnvironment();
+            if (filter.isActive()) {
+                System.out.println("🔍 Catalog filters: " + filter);
+                System.out.println();
+            }
+            
+            // 1. Read ratings into memory (drives the popularity filter)
+            RatingsTSVParser ratingsParser = null;
+            File ratingsFile = new File(DATA_DIR, RATINGS_FILE);
+            if (ratingsFile.exists()) {
+                System.out.println("📂 Reading ratings from: " + ratingsFile.getAbsolutePath());
+                Instant ratingsStart = Instant.now();
+                ratingsParser = new RatingsTSVParser(filter);
+                ratingsParser.parse(ratingsFile.getAbsolutePath());
+                Duration ratingsDuration = Duration.between(ratingsStart, Instant.now());
+                System.out.println("✓ Read " + ratingsParser.getRatingsRead() + " ratings in " + 
+                    ratingsDuration.getSeconds() + "s (skipped " + ratingsParser.getLinesSkipped() + 
+                    " below " + filter.getMinVotes() + " votes)");
                 System.out.println();
+            } else if (filter.requiresRatings()) {
+                System.err.println("❌ ERROR: LOAD_MIN_VOTES requires ratings file: " + ratingsFile.getAbsolutePath());
+                System.exit(1);
             } else {
-                System.out.println("⚠️  Skipping actors (file not found): " + actorsFile.getAbsolutePath());
+                System.out.println("⚠️  Skipping ratings (file not found): " + ratingsFile.getAbsolutePath());
                 System.out.println();
             }
             
             // 2. Load movies
+            Set<String> loadedMovieIds;
             File moviesFile = new File(DATA_DIR, MOVIES_FILE);
             if (moviesFile.exists()) {
                 System.out.println("📂 Loading movies from: " + moviesFile.getAbsolutePath());
                 Instant movieStart = Instant.now();
-                MovieTSVParser movieParser = new MovieTSVParser(conn);
+                MovieTSVParser movieParser = new MovieTSVParser(conn, filter, ratingsParser);
                 movieParser.parse(moviesFile.getAbsolutePath());
+                verifier.recordMovies(movieParser);
+                loadedMovieIds = movieParser.getLoadedMovieIds();
                 Duration movieDuration = Duration.between(movieStart, Instant.now());
                 System.out.println("✓ Loaded " + movieParser.getMoviesProcessed() + " movies with " + 
                     movieParser.getGenreLinksCreated() + " genre links in " + movieDuration.getSeconds() + 
-                    "s (skipped " + movieParser.getLinesSkipped() + " non-movies)");
+                    "s (skipped " + movieParser.getLinesSkipped() + " non-movies, filtered " + 
+                    movieParser.getMoviesFiltered() + ")");
                 System.out.println();
             } else {
                 System.err.println("❌ ERROR: Movies file not found: " + moviesFile.getAbsolutePath());
                 System.exit(1);
+                return;
+            }
+            
+            // Upserts never remove rows, so drop what an earlier, looser load kept
+            if (filter.isActive()) {
+                pruneMovies(conn, loadedMovieIds);
+            }
+            
+            // 3. Store ratings for the loaded movies
+            if (ratingsParser != null) {
+                ratingsParser.insertRatings(conn, loadedMovieIds);
+                System.out.println("✓ Stored " + ratingsParser.getRatingsInserted() + " ratings");
+                System.out.println();
             }
             
-            // 3. Load cast relationships (links movies to actors)
+            // 4. Load actors (referenced by casts)
             File castsFile = new File(DATA_DIR, CASTS_FILE);
+            File actorsFile = new File(DATA_DIR, ACTORS_FILE);
+            if (actorsFile.exists()) {
+                // Cascade filters: only keep stars cast in a loaded movie
+                Set<String> allowedStarIds = null;
+                if (filter.isActive() && castsFile.exists()) {
+                    System.out.println("📂 Collecting cast of loaded movies from: " + castsFile.getAbsolutePath());
+                    allowedStarIds = CastTSVParser.collectStarIds(castsFile.getAbsolutePath(), loadedMovieIds);
+                    System.out.println("✓ Found " + allowedStarIds.size() + " stars to keep");
+                    System.out.println();
+                } else if (filter.isActive()) {
+                    System.out.println("⚠️  Catalog filters apply to movies only: without " + castsFile.getAbsolutePath() +
+                        " the cast of loaded movies is unknown, so every actor is loaded");
+                    System.out.println();
+                }
+                
+                System.out.println("📂 Loading actors from: " + actorsFile.getAbsolutePath());
+                Instant actorStart = Instant.now();
+                ActorTSVParser actorParser = new ActorTSVParser(conn, allowedStarIds);
+                actorParser.parse(actorsFile.getAbsolutePath());
+                verifier.recordActors(actorParser);
+                if (allowedStarIds != null) {
+                    pruneStars(conn, allowedStarIds);
+                }
+                Duration actorDuration = Duration.between(actorStart, Instant.now());
+                System.out.println("✓ Loaded " + actorParser.getActorsProcessed() + " actors in " + 
+                    actorDuration.getSeconds() + "s (skipped " + actorParser.getLinesSkipped() + " non-actors, filtered " + 
+                    actorParser.getStarsFiltered() + ")");
+                System.out.println();
+            } else {
+                System.out.println("⚠️  Skipping actors (file not found): " + actorsFile.getAbsolutePath());
+                System.out.println();
+            }
+            
+            // 5. Load cast relationships (links movies to actors)
             if (castsFile.exists()) {
                 System.out.println("📂 Loading cast relationships from: " + castsFile.getAbsolutePath());
                 Instant castStart = Instant.now();
                 CastTSVParser castParser = new CastTSVParser(conn);
                 castParser.parse(castsFile.getAbsolutePath());
+                verifier.recordCasts(castParser);
                 Duration castDuration = Duration.between(castStart, Instant.now());
                 System.out.println("✓ Created " + castParser.getLinksCreated() + " cast links in " + 
-                    castDuration.getSeconds() + "s (skipped " + castParser.getLinesSkipped() + " non-actors)");
+                    castDuration.getSeconds() + "s (skipped " + castParser.getLinesSkipped() + " non-actors, " + 
+                    castParser.getLinksUnmatched() + " not in the catalog)");
                 System.out.println();
             } else {
                 System.out.println("⚠️  Skipping casts (file not found): " + castsFile.getAbsolutePath());
                 System.out.println();
             }
             
+            // Denormalize title, director and star names for full-text search
+            rebuildSearchDocuments(conn);
+            
+            // Bucket titles by first letter for startsWith browsing
+            rebuildBrowseLetters(conn);
+            
+            // Score and rank movies for rating sorts
+            rebuildWeightedRatings(conn);
+            
+            // Materialize filmography sizes for star listings
+            rebuildStarMovieCounts(conn);
+            
             // Restore indexes and analyze
             restoreIndexes(conn);
             
-            // Verify data
-            verifyData(conn);
+            // Tell running backends the catalog changed
+            bumpCatalogVersion(conn);
+            
+            // Verify data (counters + sampled checks, no full-table scans)
+            verifier.report();
             
             Duration duration = Duration.between(startTime, Instant.now());
             System.out.println();
@@ -146,7 +241,18 @@ public class DataLoader {
             // Drop indexes temporarily for faster inserts
             stmt.execute("DROP INDEX IF EXISTS idx_movies_title");
             stmt.execute("DROP INDEX IF EXISTS idx_movies_year");
+            stmt.execute("DROP INDEX IF EXISTS idx_movies_year_id");
             stmt.execute("DROP INDEX IF EXISTS idx_stars_name");
+            stmt.execute("DROP INDEX IF EXISTS idx_stars_birth_year_id");
+            stmt.execute("DROP INDEX IF EXISTS idx_movies_search_document");
+            stmt.execute("DROP INDEX IF EXISTS idx_movies_title_trgm");
+            stmt.execute("DROP INDEX IF EXISTS idx_movies_director_trgm");
+            stmt.execute("DROP INDEX IF EXISTS idx_stars_name_trgm");
+            stmt.execute("DROP INDEX IF EXISTS idx_movies_letter_title");
+            stmt.execute("DROP INDEX IF EXISTS idx_movies_letter_year");
+            stmt.execute("DROP INDEX IF EXISTS idx_stars_movie_count_id");
+            stmt.execute("DROP INDEX IF EXISTS idx_movies_rating_rank");
+            stmt.execute("DROP INDEX IF EXISTS idx_movies_letter_rating_rank");
             
             // Disable constraint checking temporarily (if needed)
             // stmt.execute("SET CONSTRAINTS ALL DEFERRED");
@@ -162,9 +268,24 @@ public class DataLoader {
         
         try (Statement stmt = conn.createStatement()) {
             // Recreate indexes
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_title ON movies(title)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_title ON movies(title, id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_year ON movies(year)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_stars_name ON stars(name)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_year_id ON movies((COALESCE(year, 0)), id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_stars_name ON stars(name, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_stars_birth_year_id ON stars((COALESCE(birth_year, 0)), id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_stars_movie_count_id ON stars(movie_count, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_search_document ON movies USING GIN (search_document)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_letter_title ON movies(browse_letter, title, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_letter_year ON movies(browse_letter, (COALESCE(year, 0)), id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_rating_rank ON movies(rating_rank, id) " +
+                "INCLUDE (title, year, director)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_letter_rating_rank ON movies(browse_letter, rating_rank, id)");
+            
+            // Trigram indexes for ILIKE '%x%' filters (GIN builds are much faster in bulk than per row)
+            stmt.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_title_trgm ON movies USING GIN (title gin_trgm_ops)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_movies_director_trgm ON movies USING GIN (director gin_trgm_ops)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_stars_name_trgm ON stars USING GIN (name gin_trgm_ops)");
             
             // Update statistics for query optimizer
             stmt.execute("ANALYZE movies");
@@ -172,6 +293,7 @@ public class DataLoader {
             stmt.execute("ANALYZE genres");
             stmt.execute("ANALYZE genres_in_movies");
             stmt.execute("ANALYZE stars_in_movies");
+            stmt.execute("ANALYZE ratings");
             
             conn.commit();
             System.out.println("✓ Indexes restored and statistics updated");
@@ -179,53 +301,212 @@ public class DataLoader {
         }
     }
     
-    private static void verifyData(Connection conn) throws SQLException {
-        System.out.println("📊 Data Verification Results:");
-        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+    /**
+     * Recompute movies.search_document from title (weight A), director (B)
+     * and the names of all cast stars (C) in one set-based UPDATE. Runs
+     * after the cast load so star names are present; the GIN index is
+     * (re)built afterwards rather than maintained row by row.
+     */
+    static void rebuildSearchDocuments(Connection conn) throws SQLException {
+        System.out.println("🔎 Building full-text search documents...");
+        Instant start = Instant.now();
         
         try (Statement stmt = conn.createStatement()) {
-            // Check movies count
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM movies");
-            if (rs.next()) {
-                int count = rs.getInt(1);
-                System.out.printf("📽️  Movies: %,d%n", count);
-                
-                if (count < 10000) {
-                    System.out.println("   ⚠️  WARNING: Less than 10,000 movies (Requirement not met!)");
-                } else {
-                    System.out.println("   ✅ Meets requirement (>10,000 movies)");
-                }
-            }
-            
-            // Check stars count
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM stars");
-            if (rs.next()) {
-                System.out.printf("⭐ Stars: %,d%n", rs.getInt(1));
-            }
-            
-            // Check genres count
-            rs = stmt.executeQuery("SELECT COUNT(DISTINCT genre_id) FROM genres_in_movies");
-            if (rs.next()) {
-                System.out.printf("🎭 Genres: %,d%n", rs.getInt(1));
-            }
-            
-            // Check movies with genres
-            rs = stmt.executeQuery(
-                "SELECT COUNT(DISTINCT movie_id) FROM genres_in_movies"
-            );
-            if (rs.next()) {
-                System.out.printf("🏷️  Movies with genres: %,d%n", rs.getInt(1));
-            }
-            
-            // Check movies with stars
-            rs = stmt.executeQuery(
-                "SELECT COUNT(DISTINCT movie_id) FROM stars_in_movies"
-            );
-            if (rs.next()) {
-                System.out.printf("👥 Movies with cast: %,d%n", rs.getInt(1));
+            stmt.execute("ALTER TABLE movies ADD COLUMN IF NOT EXISTS search_document TSVECTOR");
+            int updated = stmt.executeUpdate(
+                "UPDATE movies m SET search_document = " +
+                "setweight(to_tsvector('english', m.title), 'A') || " +
+                "setweight(to_tsvector('english', COALESCE(m.director, '')), 'B') || " +
+                "setweight(to_tsvector('english', COALESCE(c.names, '')), 'C') " +
+                "FROM movies mv LEFT JOIN (" +
+                "  SELECT sim.movie_id, string_agg(s.name, ' ') AS names " +
+                "  FROM stars_in_movies sim JOIN stars s ON s.id = sim.star_id " +
+                "  GROUP BY sim.movie_id" +
+                ") c ON c.movie_id = mv.id " +
+                "WHERE mv.id = m.id");
+            conn.commit();
+            System.out.println("✓ Built " + updated + " search documents in " +
+                Duration.between(start, Instant.now()).getSeconds() + "s");
+            System.out.println();
+        }
+    }
+    
+    /**
+     * Recompute movies.browse_letter: the upper-case first letter of the
+     * title, or '*' when it does not start with A-Z. startsWith browsing
+     * then filters on equality, which the (browse_letter, sort key, id)
+     * indexes serve for every bucket, including '*'.
+     */
+    static void rebuildBrowseLetters(Connection conn) throws SQLException {
+        System.out.println("🔤 Assigning browse letters...");
+        Instant start = Instant.now();
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE movies ADD COLUMN IF NOT EXISTS browse_letter CHAR(1)");
+            int updated = stmt.executeUpdate(
+                "UPDATE movies SET browse_letter = " +
+                "CASE WHEN title ~ '^[A-Za-z]' THEN upper(left(title, 1)) ELSE '*' END");
+            conn.commit();
+            System.out.println("✓ Assigned " + updated + " browse letters in " +
+                Duration.between(start, Instant.now()).getSeconds() + "s");
+            System.out.println();
+        }
+    }
+    
+    /**
+     * Recompute movies.weighted_rating and movies.rating_rank, the rating
+     * sort key, in one set-based UPDATE.
+     * 
+     * The weighted rating is the IMDb-style Bayesian estimate
+     * (v / (v + m)) * R + (m / (v + m)) * C, where R and v are the movie's
+     * rating and votes, C is the mean rating of all rated movies and m is
+     * RATING_PRIOR_VOTES (default: the median vote count). A movie with few
+     * votes is pulled towards the mean, so five votes of 10.0 no longer
+     * outrank a classic with a 8.5 from a million voters.
+     * 
+     * rating_rank is the dense rank of that score in ascending order: equal
+     * scores share a rank, higher is better, and unrated movies get 0. It is
+     * an integer on movies, so rating sorts are a range scan of
+     * (rating_rank, id) with no ratings join. Rows whose values are
+     * unchanged are not rewritten.
+     */
+    static void rebuildWeightedRatings(Connection conn) throws SQLException {
+        System.out.println("⭐ Ranking weighted ratings...");
+        Instant start = Instant.now();
+        
+        String priorVotes = System.getenv("RATING_PRIOR_VOTES");
+        String prior = "percentile_cont(0.5) WITHIN GROUP (ORDER BY num_votes)";
+        if (priorVotes != null && !priorVotes.isBlank()) {
+            try {
+                prior = Integer.toString(Math.max(1, Integer.parseInt(priorVotes.trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("RATING_PRIOR_VOTES must be an integer: " + priorVotes);
             }
-            
-            System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        }
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE movies ADD COLUMN IF NOT EXISTS weighted_rating NUMERIC(6,4) NOT NULL DEFAULT 0");
+            stmt.execute("ALTER TABLE movies ADD COLUMN IF NOT EXISTS rating_rank INT NOT NULL DEFAULT 0");
+            int updated = stmt.executeUpdate(
+                "WITH prior AS (" +
+                "  SELECT AVG(rating) AS c, GREATEST(" + prior + ", 1)::numeric AS m " +
+                "  FROM ratings WHERE rating IS NOT NULL AND num_votes > 0" +
+                "), scored AS (" +
+                "  SELECT r.movie_id, " +
+                "  ROUND((r.num_votes * r.rating + p.m * p.c) / (r.num_votes + p.m), 4) AS score " +
+                "  FROM ratings r CROSS JOIN prior p WHERE r.rating IS NOT NULL AND r.num_votes > 0" +
+                "), ranked AS (" +
+                "  SELECT movie_id, score, DENSE_RANK() OVER (ORDER BY score) AS rank FROM scored" +
+                ") " +
+                "UPDATE movies m SET weighted_rating = COALESCE(x.score, 0), rating_rank = COALESCE(x.rank, 0) " +
+                "FROM movies mv LEFT JOIN ranked x ON x.movie_id = mv.id " +
+                "WHERE mv.id = m.id AND (m.weighted_rating IS DISTINCT FROM COALESCE(x.score, 0) " +
+                "OR m.rating_rank IS DISTINCT FROM COALESCE(x.rank, 0))");
+            conn.commit();
+            System.out.println("✓ Ranked " + updated + " changed weighted ratings in " +
+                Duration.between(start, Instant.now()).getSeconds() + "s");
+            System.out.println();
+        }
+    }
+    
+    /**
+     * Delete movies this filtered run did not load, together with their
+     * genre links, cast links and ratings (ON DELETE CASCADE). Movies that
+     * have been sold are kept so order history survives a stricter reload.
+     */
+    static void pruneMovies(Connection conn, Collection<String> keptMovieIds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM movies m " +
+                "WHERE NOT EXISTS (SELECT 1 FROM unnest(?) AS k(id) WHERE k.id = m.id) " +
+                "AND NOT EXISTS (SELECT 1 FROM sales s WHERE s.movie_id = m.id)")) {
+            stmt.setArray(1, conn.createArrayOf("varchar", keptMovieIds.toArray()));
+            int deleted = stmt.executeUpdate();
+            conn.commit();
+            System.out.println("✓ Removed " + deleted + " movies kept by an earlier load that fail the filters");
+            System.out.println();
+        }
+    }
+    
+    /**
+     * Delete stars outside this filtered run's cast, together with their
+     * cast links (ON DELETE CASCADE).
+     */
+    static void pruneStars(Connection conn, Collection<String> keptStarIds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM stars st " +
+                "WHERE NOT EXISTS (SELECT 1 FROM unnest(?) AS k(id) WHERE k.id = st.id)")) {
+            stmt.setArray(1, conn.createArrayOf("varchar", keptStarIds.toArray()));
+            int deleted = stmt.executeUpdate();
+            conn.commit();
+            System.out.println("✓ Removed " + deleted + " stars kept by an earlier load that fail the filters");
+            System.out.println();
+        }
+    }
+    
+    /**
+     * Recompute stars.movie_count for every star in one set-based UPDATE
+     * after the cast load. Rows whose count is unchanged are not rewritten.
+     */
+    static void rebuildStarMovieCounts(Connection conn) throws SQLException {
+        System.out.println("🎭 Counting star filmographies...");
+        Instant start = Instant.now();
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE stars ADD COLUMN IF NOT EXISTS movie_count INT NOT NULL DEFAULT 0");
+            int updated = stmt.executeUpdate(
+                "UPDATE stars s SET movie_count = COALESCE(c.n, 0) " +
+                "FROM stars st LEFT JOIN (" +
+                "  SELECT star_id, COUNT(*) AS n FROM stars_in_movies GROUP BY star_id" +
+                ") c ON c.star_id = st.id " +
+                "WHERE st.id = s.id AND s.movie_count IS DISTINCT FROM COALESCE(c.n, 0)");
+            conn.commit();
+            System.out.println("✓ Updated " + updated + " star movie counts in " +
+                Duration.between(start, Instant.now()).getSeconds() + "s");
+            System.out.println();
+        }
+    }
+    
+    /**
+     * Recompute stars.movie_count for only the given stars, e.g. those a
+     * delta cast load linked. Each count is one probe of the stars_in_movies
+     * primary key, so the cost follows the delta, not the table.
+     */
+    static void refreshStarMovieCounts(Connection conn, Collection<String> starIds) throws SQLException {
+        if (starIds.isEmpty()) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE stars ADD COLUMN IF NOT EXISTS movie_count INT NOT NULL DEFAULT 0");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_stars_movie_count_id ON stars(movie_count, id)");
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE stars s SET movie_count = " +
+                "(SELECT COUNT(*) FROM stars_in_movies sim WHERE sim.star_id = s.id) " +
+                "WHERE s.id = ANY(?)")) {
+            stmt.setArray(1, conn.createArrayOf("varchar", starIds.toArray()));
+            int updated = stmt.executeUpdate();
+            conn.commit();
+            System.out.println("✓ Refreshed " + updated + " star movie counts");
+        }
+    }
+    
+    /**
+     * Increment the catalog version stamp. Backends poll it to invalidate
+     * cached counts and responses and to rebuild in-memory indexes.
+     */
+    static void bumpCatalogVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(
+                "CREATE TABLE IF NOT EXISTS catalog_version (" +
+                "id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1), " +
+                "version BIGINT NOT NULL DEFAULT 1, " +
+                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            stmt.execute(
+                "INSERT INTO catalog_version (id, version) VALUES (1, 1) " +
+                "ON CONFLICT (id) DO UPDATE SET version = catalog_version.version + 1, updated_at = CURRENT_TIMESTAMP");
+            conn.commit();
+            System.out.println("✓ Catalog version bumped");
+            System.out.println();
         }
     }
 }
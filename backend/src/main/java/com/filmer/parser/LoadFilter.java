@@ -0,0 +1,101 @@
+package com.filmer.parser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog filters applied while streaming the IMDb files, before any row
+ * reaches the database. Movies that fail a filter are never inserted, and
+ * the cast and star loads only keep rows that reference surviving movies.
+ * Movies and stars left by an earlier, looser load are deleted (see
+ * DataLoader.pruneMovies), except movies that have been sold.
+ *
+ * Optional Environment Variables:
+ * - LOAD_MIN_VOTES: minimum numVotes from title.ratings.tsv.gz (default 0 = no limit)
+ * - LOAD_YEAR_FROM: earliest startYear to keep, inclusive
+ * - LOAD_YEAR_TO:   latest startYear to keep, inclusive
+ * - LOAD_GENRES:    comma-separated genre allow-list (e.g. "Drama,Comedy")
+ */
+public class LoadFilter {
+
+    private final int minVotes;
+    private final Integer yearFrom;
+    private final Integer yearTo;
+    private final Set<String> allowedGenres;
+
+    public LoadFilter(int minVotes, Integer yearFrom, Integer yearTo, Set<String> allowedGenres) {
+        this.minVotes = minVotes;
+        this.yearFrom = yearFrom;
+        this.yearTo = yearTo;
+        this.allowedGenres = allowedGenres == null ? Collections.emptySet() : allowedGenres;
+    }
+
+    public static LoadFilter fromEnvironment() {
+        String minVotes = System.getenv("LOAD_MIN_VOTES");
+        String genres = System.getenv("LOAD_GENRES");
+
+        Set<String> allowedGenres = Collections.emptySet();
+        if (genres != null && !genres.isBlank()) {
+            allowedGenres = Arrays.stream(genres.split(","))
+                .map(String::trim)
+                .filter(g -> !g.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+
+        return new LoadFilter(
+            minVotes == null || minVotes.isBlank() ? 0 : Integer.parseInt(minVotes.trim()),
+            parseYear(System.getenv("LOAD_YEAR_FROM")),
+            parseYear(System.getenv("LOAD_YEAR_TO")),
+            allowedGenres
+        );
+    }
+
+    private static Integer parseYear(String value) {
+        return value == null || value.isBlank() ? null : Integer.valueOf(value.trim());
+    }
+
+    /**
+     * @return true if any filter narrows the catalog
+     */
+    public boolean isActive() {
+        return minVotes > 0 || yearFrom != null || yearTo != null || !allowedGenres.isEmpty();
+    }
+
+    public boolean requiresRatings() {
+        return minVotes > 0;
+    }
+
+    public boolean acceptsVotes(int numVotes) {
+        return numVotes >= minVotes;
+    }
+
+    public boolean acceptsYear(Integer year) {
+        if (yearFrom == null && yearTo == null) {
+            return true;
+        }
+        if (year == null) {
+            return false;
+        }
+        return (yearFrom == null || year >= yearFrom) && (yearTo == null || year <= yearTo);
+    }
+
+    public boolean hasGenreAllowList() {
+        return !allowedGenres.isEmpty();
+    }
+
+    public boolean acceptsGenre(String genre) {
+        return allowedGenres.isEmpty() || allowedGenres.contains(genre);
+    }
+
+    public int getMinVotes() { return minVotes; }
+
+    @Override
+    public String toString() {
+        return "minVotes=" + minVotes +
+            ", years=" + (yearFrom == null ? "*" : yearFrom) + ".." + (yearTo == null ? "*" : yearTo) +
+            ", genres=" + (allowedGenres.isEmpty() ? "*" : String.join(",", allowedGenres));
+    }
+}
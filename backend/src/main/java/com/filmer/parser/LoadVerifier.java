@@ -0,0 +1,168 @@
+package com.filmer.parser;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Post-load verification that avoids full-table aggregates.
+ *
+ * Counts come from counters the parsers keep while streaming, so they are
+ * exact for the rows written by this run and cost nothing after the load.
+ * Two cheap checks then confirm the database agrees with them:
+ * - Sampled consistency: a uniform random sample of written movies, stars
+ *   and cast links is looked up by primary key (index probes only)
+ * - Planner statistics: pg_class.reltuples, refreshed by the ANALYZE in
+ *   DataLoader.restoreIndexes, is compared against the counters
+ *
+ * Counters include rows that were upserted over existing data, so the
+ * database may legitimately hold more rows than this run wrote; only a
+ * shortfall is reported as a problem.
+ */
+public class LoadVerifier {
+
+    static final int SAMPLE_SIZE = 500;
+    private static final int MIN_MOVIES = 10000;
+    private static final double STATS_TOLERANCE = 0.10;
+
+    private final Connection connection;
+
+    private int movies = 0;
+    private int stars = 0;
+    private int distinctGenres = 0;
+    private int genreLinks = 0;
+    private int moviesWithGenres = 0;
+    private int castLinks = 0;
+    private int moviesWithCast = 0;
+
+    private List<String> movieSample = Collections.emptyList();
+    private List<String> starSample = Collections.emptyList();
+    private List<String[]> linkSample = Collections.emptyList();
+
+    public LoadVerifier(Connection connection) {
+        this.connection = connection;
+    }
+
+    public void recordActors(ActorTSVParser parser) {
+        stars = parser.getActorsProcessed();
+        starSample = parser.getStarSample();
+    }
+
+    public void recordMovies(MovieTSVParser parser) {
+        movies = parser.getMoviesProcessed();
+        distinctGenres = parser.getDistinctGenres();
+        genreLinks = parser.getGenreLinksCreated();
+        moviesWithGenres = parser.getMoviesWithGenres();
+        movieSample = parser.getMovieSample();
+    }
+
+    public void recordCasts(CastTSVParser parser) {
+        castLinks = parser.getLinksCreated();
+        moviesWithCast = parser.getMoviesWithCast();
+        linkSample = parser.getLinkSample();
+    }
+
+    public void report() throws SQLException {
+        System.out.println("📊 Data Verification Results:");
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+
+        System.out.printf("📽️  Movies: %,d%n", movies);
+        if (movies < MIN_MOVIES) {
+            System.out.println("   ⚠️  WARNING: Less than 10,000 movies (Requirement not met!)");
+        } else {
+            System.out.println("   ✅ Meets requirement (>10,000 movies)");
+        }
+        System.out.printf("⭐ Stars: %,d%n", stars);
+        System.out.printf("🎭 Genres: %,d%n", distinctGenres);
+        System.out.printf("🏷️  Movies with genres: %,d%n", moviesWithGenres);
+        System.out.printf("👥 Movies with cast: %,d%n", moviesWithCast);
+
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+
+        boolean consistent = true;
+        consistent &= checkSample("movies", movieSample.size(),
+            "SELECT COUNT(*) FROM unnest(?) AS s(id) JOIN movies m ON m.id = s.id",
+            toArray(movieSample));
+        consistent &= checkSample("stars", starSample.size(),
+            "SELECT COUNT(*) FROM unnest(?) AS s(id) JOIN stars st ON st.id = s.id",
+            toArray(starSample));
+
+        List<String> linkStars = new ArrayList<>(linkSample.size());
+        List<String> linkMovies = new ArrayList<>(linkSample.size());
+        for (String[] link : linkSample) {
+            linkStars.add(link[0]);
+            linkMovies.add(link[1]);
+        }
+        consistent &= checkSample("cast links", linkSample.size(),
+            "SELECT COUNT(*) FROM unnest(?, ?) AS s(star_id, movie_id) " +
+            "JOIN stars_in_movies sim ON sim.star_id = s.star_id AND sim.movie_id = s.movie_id",
+            toArray(linkStars), toArray(linkMovies));
+
+        consistent &= checkStatistics();
+
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        if (consistent) {
+            System.out.println("✅ Database is consistent with loader counters");
+        } else {
+            System.out.println("⚠️  WARNING: Database does not match loader counters (see above)");
+        }
+    }
+
+    private boolean checkSample(String label, int expected, String sql, Array... params) throws SQLException {
+        if (expected == 0) {
+            return true;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setArray(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                int found = rs.next() ? rs.getInt(1) : 0;
+                if (found == expected) {
+                    System.out.printf("🔎 Sampled %s: %d/%d present%n", label, found, expected);
+                    return true;
+                }
+                System.out.printf("🔎 Sampled %s: %d/%d present ⚠️  MISSING ROWS%n", label, found, expected);
+                return false;
+            }
+        }
+    }
+
+    private boolean checkStatistics() throws SQLException {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put("movies", movies);
+        expected.put("stars", stars);
+        expected.put("genres_in_movies", genreLinks);
+        expected.put("stars_in_movies", castLinks);
+
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT relname, reltuples::bigint FROM pg_class " +
+                "WHERE relkind = 'r' AND relname = ANY(?) AND relnamespace = 'public'::regnamespace")) {
+            stmt.setArray(1, toArray(new ArrayList<>(expected.keySet())));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    estimates.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+        }
+
+        boolean consistent = true;
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            long estimate = estimates.getOrDefault(entry.getKey(), 0L);
+            long written = entry.getValue();
+            boolean ok = estimate >= written * (1.0 - STATS_TOLERANCE);
+            System.out.printf("📈 %s: ~%,d rows (pg_class), %,d written%s%n",
+                entry.getKey(), estimate, written, ok ? "" : " ⚠️  SHORTFALL");
+            consistent &= ok;
+        }
+        return consistent;
+    }
+
+    private Array toArray(List<String> values) throws SQLException {
+        return connection.createArrayOf("varchar", values.toArray());
+    }
+}
@@ -2,6 +2,10 @@ package com.filmer.parser;
 
 import java.io.*;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -21,6 +25,7 @@ import java.util.zip.GZIPInputStream;
  * - Batch inserts (1000 records per batch)
  * - Filters only movies (titleType = 'movie')
  * - Skips adult content (isAdult = 0)
+ * - Applies LoadFilter (votes, year window, genre allow-list) before inserting
  */
 public class MovieTSVParser {
     
@@ -36,10 +41,26 @@ public class MovieTSVParser {
     
     private int moviesProcessed = 0;
     private int genreLinksCreated = 0;
+    private int moviesWithGenres = 0;
+    private int moviesFiltered = 0;
     private int linesSkipped = 0;
     
-    public MovieTSVParser(Connection connection) throws SQLException {
+    private final LoadFilter filter;
+    private final RatingsTSVParser ratings;
+    private final Set<String> loadedMovieIds = new HashSet<>();
+    
+    // In-flight verification state (see LoadVerifier)
+    private final Set<String> genreNames = new HashSet<>();
+    private final ReservoirSampler<String> movieSample = new ReservoirSampler<>(LoadVerifier.SAMPLE_SIZE);
+    
+    /**
+     * @param filter  Catalog filters applied before any row is written
+     * @param ratings Parsed ratings, required when the filter has a vote threshold
+     */
+    public MovieTSVParser(Connection connection, LoadFilter filter, RatingsTSVParser ratings) throws SQLException {
         this.connection = connection;
+        this.filter = filter;
+        this.ratings = ratings;
         this.connection.setAutoCommit(false);
         
         this.movieStmt = connection.prepareStatement(
@@ -113,6 +134,27 @@ public class MovieTSVParser {
             }
         }
         
+        // Filter: catalog window and popularity threshold
+        if (!filter.acceptsYear(year) || (filter.requiresRatings() && !ratings.isRated(tconst))) {
+            moviesFiltered++;
+            return;
+        }
+        
+        // Filter: genre allow-list (movie needs at least one allowed genre)
+        List<String> acceptedGenres = new ArrayList<>();
+        if (!"\\N".equals(genres) && !genres.isEmpty()) {
+            for (String genre : genres.split(",")) {
+                genre = genre.trim();
+                if (!genre.isEmpty() && filter.acceptsGenre(genre)) {
+                    acceptedGenres.add(genre);
+                }
+            }
+        }
+        if (acceptedGenres.isEmpty() && filter.hasGenreAllowList()) {
+            moviesFiltered++;
+            return;
+        }
+        
         // Insert movie
         movieStmt.setString(1, tconst);
         movieStmt.setString(2, primaryTitle);
@@ -123,33 +165,35 @@ public class MovieTSVParser {
         }
         movieStmt.addBatch();
         movieBatchCount++;
+        loadedMovieIds.add(tconst);
         
         // Process genres
-        if (!"\\N".equals(genres) && !genres.isEmpty()) {
-            String[] genreList = genres.split(",");
-            for (String genre : genreList) {
-                genre = genre.trim();
-                if (!genre.isEmpty()) {
-                    // Insert genre
-                    genreStmt.setString(1, genre);
-                    genreStmt.executeUpdate();
-                    
-                    // Get genre ID and link
-                    genreSelectStmt.setString(1, genre);
-                    ResultSet rs = genreSelectStmt.executeQuery();
-                    if (rs.next()) {
-                        genreMovieStmt.setInt(1, rs.getInt("id"));
-                        genreMovieStmt.setString(2, tconst);
-                        genreMovieStmt.addBatch();
-                        genreMovieBatchCount++;
-                        genreLinksCreated++;
-                    }
-                    rs.close();
-                }
+        boolean linkedGenre = false;
+        for (String genre : acceptedGenres) {
+            // Insert genre
+            genreStmt.setString(1, genre);
+            genreStmt.executeUpdate();
+            
+            // Get genre ID and link
+            genreSelectStmt.setString(1, genre);
+            ResultSet rs = genreSelectStmt.executeQuery();
+            if (rs.next()) {
+                genreMovieStmt.setInt(1, rs.getInt("id"));
+                genreMovieStmt.setString(2, tconst);
+                genreMovieStmt.addBatch();
+                genreMovieBatchCount++;
+                genreLinksCreated++;
+                genreNames.add(genre);
+                linkedGenre = true;
             }
+            rs.close();
         }
         
         moviesProcessed++;
+        if (linkedGenre) {
+            moviesWithGenres++;
+        }
+        movieSample.offer(tconst);
         
         // Execute batches - movies MUST be committed before genres
         if (movieBatchCount >= BATCH_SIZE) {
@@ -190,5 +234,10 @@ public class MovieTSVParser {
     
     public int getMoviesProcessed() { return moviesProcessed; }
     public int getGenreLinksCreated() { return genreLinksCreated; }
+    public int getMoviesWithGenres() { return moviesWithGenres; }
+    public int getDistinctGenres() { return genreNames.size(); }
+    public List<String> getMovieSample() { return movieSample.getSample(); }
+    public int getMoviesFiltered() { return moviesFiltered; }
     public int getLinesSkipped() { return linesSkipped; }
+    public Set<String> getLoadedMovieIds() { return loadedMovieIds; }
 }
@@ -0,0 +1,141 @@
+package com.filmer.parser;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * TSV Parser for IMDb title.ratings.tsv.gz file
+ * Reads ratings into memory so the movie load can filter on popularity,
+ * then writes ratings for the movies that were actually loaded
+ *
+ * TSV Format:
+ * tconst	averageRating	numVotes
+ * tt0000001	5.7	1965
+ *
+ * Database Table:
+ * - ratings(movie_id, rating, num_votes)
+ *
+ * Performance Optimizations:
+ * - Titles below the minimum vote count are dropped while reading
+ * - Rating and vote count packed into a single long per title
+ * - Batch inserts (1000 records per batch)
+ */
+public class RatingsTSVParser {
+
+    private final LoadFilter filter;
+
+    // tconst -> (numVotes << 16 | rating * 10)
+    private final Map<String, Long> ratings = new HashMap<>();
+
+    private static final int BATCH_SIZE = 1000;
+
+    private int ratingsRead = 0;
+    private int ratingsInserted = 0;
+    private int linesSkipped = 0;
+
+    public RatingsTSVParser(LoadFilter filter) {
+        this.filter = filter;
+    }
+
+    public void parse(String filePath) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(
+                    new GZIPInputStream(
+                        new FileInputStream(filePath)), "UTF-8"))) {
+
+            String line;
+            boolean isFirstLine = true;
+
+            while ((line = reader.readLine()) != null) {
+                if (isFirstLine) {
+                    isFirstLine = false;
+                    continue; // Skip header
+                }
+
+                processLine(line);
+            }
+        }
+    }
+
+    private void processLine(String line) {
+        String[] fields = line.split("\t", -1);
+
+        if (fields.length < 3) {
+            linesSkipped++;
+            return;
+        }
+
+        int ratingTenths;
+        int numVotes;
+        try {
+            ratingTenths = Math.round(Float.parseFloat(fields[1]) * 10);
+            numVotes = Integer.parseInt(fields[2]);
+        } catch (NumberFormatException e) {
+            linesSkipped++;
+            return;
+        }
+
+        // Filter: drop unpopular titles before they take up memory
+        if (!filter.acceptsVotes(numVotes)) {
+            linesSkipped++;
+            return;
+        }
+
+        ratings.put(fields[0], ((long) numVotes << 16) | ratingTenths);
+        ratingsRead++;
+    }
+
+    /**
+     * @return true if the title has a rating that passed the vote threshold
+     */
+    public boolean isRated(String tconst) {
+        return ratings.containsKey(tconst);
+    }
+
+    /**
+     * Insert ratings for the given (already loaded) movies.
+     */
+    public void insertRatings(Connection connection, Set<String> movieIds) throws SQLException {
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO ratings (movie_id, rating, num_votes) VALUES (?, ?, ?) " +
+                "ON CONFLICT (movie_id) DO UPDATE SET rating = EXCLUDED.rating, num_votes = EXCLUDED.num_votes")) {
+
+            int batchCount = 0;
+            for (String movieId : movieIds) {
+                Long packed = ratings.get(movieId);
+                if (packed == null) {
+                    continue;
+                }
+
+                stmt.setString(1, movieId);
+                stmt.setBigDecimal(2, BigDecimal.valueOf(packed & 0xFFFF, 1));
+                stmt.setInt(3, (int) (packed >>> 16));
+                stmt.addBatch();
+                batchCount++;
+                ratingsInserted++;
+
+                if (batchCount >= BATCH_SIZE) {
+                    stmt.executeBatch();
+                    connection.commit();
+                    batchCount = 0;
+                }
+            }
+
+            if (batchCount > 0) {
+                stmt.executeBatch();
+                connection.commit();
+            }
+        }
+    }
+
+    public int getRatingsRead() { return ratingsRead; }
+    public int getRatingsInserted() { return ratingsInserted; }
+    public int getLinesSkipped() { return linesSkipped; }
+}
@@ -0,0 +1,42 @@
+package com.filmer.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fixed-size uniform random sample over a stream of unknown length
+ * (Algorithm R). Used by the parsers to remember a handful of the rows
+ * they wrote so the loader can spot-check them against the database
+ * without scanning whole tables.
+ *
+ * @param <T> The type of sampled items
+ */
+class ReservoirSampler<T> {
+
+    private final int capacity;
+    private final List<T> reservoir;
+    private long seen = 0;
+
+    ReservoirSampler(int capacity) {
+        this.capacity = capacity;
+        this.reservoir = new ArrayList<>(capacity);
+    }
+
+    void offer(T item) {
+        seen++;
+        if (reservoir.size() < capacity) {
+            reservoir.add(item);
+            return;
+        }
+        long slot = ThreadLocalRandom.current().nextLong(seen);
+        if (slot < capacity) {
+            reservoir.set((int) slot, item);
+        }
+    }
+
+    List<T> getSample() {
+        return Collections.unmodifiableList(reservoir);
+    }
+}
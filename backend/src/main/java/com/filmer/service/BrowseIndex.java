@@ -0,0 +1,295 @@
+package com.filmer.service;
+
+import com.filmer.exception.BadRequestException;
+import com.filmer.service.query.KeysetCursor;
+import com.filmer.service.query.MovieSortField;
+import com.filmer.service.query.PageRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory browse index: for every genre and every title letter bucket,
+ * the ids of its movies pre-sorted by each {@link MovieSortField}.
+ *
+ * <p>Each sort order is computed once by the database over the whole
+ * catalog ({@code ORDER BY expression, id}, the same order the SQL path
+ * uses), so every movie gets a global rank per sort field. A bucket then
+ * stores, per sort field, the sorted ranks of its movies as an
+ * {@code int[]}. A page is an array slice, a cursor is resolved by
+ * binary-searching the rank of the movie it points at, and the bucket
+ * size is the exact total, so neither needs a query.</p>
+ *
+ * <p>Letter buckets follow {@code movies.browse_letter} as written by the
+ * data loader: the upper-case first letter of the title, or {@code *} for
+ * titles not starting with A-Z.</p>
+ *
+ * <p>The index is rebuilt whenever the catalog version changes (including
+ * the first read at startup) and published with a single volatile write.
+ * While it is missing or older than the current catalog version, callers
+ * get {@code null} and fall back to SQL.</p>
+ */
+@Component
+public class BrowseIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowseIndex.class);
+
+    private static final MovieSortField[] SORTS = MovieSortField.values();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private MovieSortOrdersCache movieSortOrders;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        snapshot = build(event.getVersion());
+        log.info("Browse index built for catalog version {}: {} movies, {} genres, {} letters, {} ms, ~{} KiB",
+                snapshot.version, snapshot.sorts.size(), snapshot.genres.size(), snapshot.letters.size(),
+                snapshot.buildMillis, snapshot.approxBytes / 1024);
+    }
+
+    /**
+     * Resolves one page of a genre listing from memory.
+     *
+     * @param genreId Genre ID (assumed to exist)
+     * @param sort    Sort field
+     * @param page    Validated pagination parameters
+     * @return The movie ids of the page in display order, or null if the
+     *         index is not current or the cursor does not point into it
+     * @throws BadRequestException if the cursor was issued for a different sort
+     */
+    public Slice genreSlice(long genreId, MovieSortField sort, PageRequest page) {
+        Snapshot current = currentSnapshot();
+        return current == null ? null : slice(current, current.genres.get(genreId), sort, page);
+    }
+
+    /**
+     * Resolves one page of the movies whose title starts with a letter.
+     *
+     * @param letter Upper-case A-Z, or * for titles not starting with a letter
+     * @param sort   Sort field
+     * @param page   Validated pagination parameters
+     * @return The movie ids of the page in display order, or null if the
+     *         index is not current or the cursor does not point into it
+     * @throws BadRequestException if the cursor was issued for a different sort
+     */
+    public Slice letterSlice(String letter, MovieSortField sort, PageRequest page) {
+        Snapshot current = currentSnapshot();
+        return current == null ? null : slice(current, current.letters.get(letter), sort, page);
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null || current.version != catalogVersionService.getVersion()) {
+            return null;
+        }
+        return current;
+    }
+
+    private static Slice slice(Snapshot current, int[][] bySort, MovieSortField sort, PageRequest page) {
+        int[] ranks = bySort == null ? new int[0] : bySort[sort.ordinal()];
+        int n = ranks.length;
+        boolean descending = page.isDescending();
+
+        int start;
+        int end;
+        KeysetCursor cursor = page.getCursor();
+        if (cursor == null) {
+            start = (int) Math.min(page.getOffset(), n);
+            end = Math.min(start + page.getSize(), n);
+        } else {
+            if (!sort.param().equals(cursor.getSortBy()) || cursor.isDescending() != descending) {
+                throw new BadRequestException("cursor was issued for a different sortBy/order");
+            }
+            Integer ordinal = current.sorts.ordinals.get(cursor.getId());
+            int pos = ordinal == null ? -1 : Arrays.binarySearch(ranks, current.sorts.rank[sort.ordinal()][ordinal]);
+            if (pos < 0) {
+                return null;
+            }
+            int logical = descending ? n - 1 - pos : pos;
+            if (cursor.isBackward()) {
+                end = logical;
+                start = Math.max(0, end - page.getSize());
+            } else {
+                start = logical + 1;
+                end = Math.min(start + page.getSize(), n);
+            }
+        }
+
+        int[] order = current.sorts.order[sort.ordinal()];
+        List<String> movieIds = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            int p = descending ? n - 1 - i : i;
+            movieIds.add(current.sorts.ids[order[ranks[p]]]);
+        }
+        return new Slice(movieIds, n, end < n, start > 0);
+    }
+
+    /**
+     * @return Size, memory and build time of the current index
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", current != null && current.version == catalogVersionService.getVersion());
+        if (current != null) {
+            stats.put("version", current.version);
+            stats.put("movies", current.sorts.size());
+            stats.put("genres", current.genres.size());
+            stats.put("letters", current.letters.size());
+            stats.put("buildMillis", current.buildMillis);
+            stats.put("approxBytes", current.approxBytes);
+        }
+        return stats;
+    }
+
+    private Snapshot build(long version) {
+        long started = System.nanoTime();
+
+        MovieSortOrders sorts = movieSortOrders.get(version);
+        Map<String, Integer> ordinals = sorts.ordinals;
+
+        // Rows arrive grouped by genre (primary key order), so each genre is one run
+        Map<Long, int[]> members = new HashMap<>();
+        long[] runGenre = {-1};
+        int[][] run = {new int[1024]};
+        int[] runSize = {0};
+        jdbcTemplate.query("SELECT genre_id, movie_id FROM genres_in_movies ORDER BY genre_id, movie_id", rs -> {
+            long genreId = rs.getLong(1);
+            if (genreId != runGenre[0]) {
+                if (runSize[0] > 0) {
+                    members.put(runGenre[0], Arrays.copyOf(run[0], runSize[0]));
+                }
+                runGenre[0] = genreId;
+                runSize[0] = 0;
+            }
+            Integer ordinal = ordinals.get(rs.getString(2));
+            if (ordinal != null) {
+                if (runSize[0] == run[0].length) {
+                    run[0] = Arrays.copyOf(run[0], run[0].length * 2);
+                }
+                run[0][runSize[0]++] = ordinal;
+            }
+        });
+        if (runSize[0] > 0) {
+            members.put(runGenre[0], Arrays.copyOf(run[0], runSize[0]));
+        }
+
+        // browse_letter is ASCII (A-Z or *), so one char per movie is enough to bucket them
+        char[] letterOf = new char[sorts.size()];
+        Map<Character, Integer> letterSizes = new HashMap<>();
+        jdbcTemplate.query("SELECT id, browse_letter FROM movies", rs -> {
+            Integer ordinal = ordinals.get(rs.getString(1));
+            String letter = rs.getString(2);
+            if (ordinal != null && letter != null && !letter.isEmpty()) {
+                letterOf[ordinal] = letter.charAt(0);
+                letterSizes.merge(letter.charAt(0), 1, Integer::sum);
+            }
+        });
+
+        Map<Long, int[][]> genres = new HashMap<>();
+        for (Map.Entry<Long, int[]> entry : members.entrySet()) {
+            genres.put(entry.getKey(), rankBySort(sorts, entry.getValue()));
+        }
+        Map<String, int[][]> letters = new HashMap<>();
+        for (Map.Entry<Character, Integer> entry : letterSizes.entrySet()) {
+            int[] letterOrdinals = new int[entry.getValue()];
+            int size = 0;
+            for (int ordinal = 0; ordinal < letterOf.length; ordinal++) {
+                if (letterOf[ordinal] == entry.getKey()) {
+                    letterOrdinals[size++] = ordinal;
+                }
+            }
+            letters.put(String.valueOf(entry.getKey()), rankBySort(sorts, letterOrdinals));
+        }
+
+        long linkInts = 0;
+        for (int[][] bySort : genres.values()) {
+            linkInts += (long) bySort.length * bySort[0].length;
+        }
+        // Letter buckets partition the catalog: one rank per movie and sort field.
+        // The shared sort orders are reported by MovieSortOrdersCache.
+        long approxBytes = 4L * linkInts + 4L * SORTS.length * sorts.size();
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        return new Snapshot(version, sorts, Collections.unmodifiableMap(genres),
+                Collections.unmodifiableMap(letters), buildMillis, approxBytes);
+    }
+
+    /**
+     * @return Per sort field, the sorted global ranks of the given movies
+     */
+    private static int[][] rankBySort(MovieSortOrders sorts, int[] memberOrdinals) {
+        int[][] bySort = new int[SORTS.length][];
+        for (MovieSortField sort : SORTS) {
+            int[] sortRank = sorts.rank[sort.ordinal()];
+            int[] ranks = new int[memberOrdinals.length];
+            for (int i = 0; i < ranks.length; i++) {
+                ranks[i] = sortRank[memberOrdinals[i]];
+            }
+            Arrays.sort(ranks);
+            bySort[sort.ordinal()] = ranks;
+        }
+        return bySort;
+    }
+
+    /**
+     * One page of movie ids taken from the index.
+     */
+    public static final class Slice {
+
+        private final List<String> movieIds;
+        private final int total;
+        private final boolean hasNext;
+        private final boolean hasPrev;
+
+        Slice(List<String> movieIds, int total, boolean hasNext, boolean hasPrev) {
+            this.movieIds = movieIds;
+            this.total = total;
+            this.hasNext = hasNext;
+            this.hasPrev = hasPrev;
+        }
+
+        public List<String> getMovieIds() { return movieIds; }
+        public int getTotal() { return total; }
+        public boolean hasNext() { return hasNext; }
+        public boolean hasPrev() { return hasPrev; }
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final MovieSortOrders sorts;
+        private final Map<Long, int[][]> genres;
+        private final Map<String, int[][]> letters;
+        private final long buildMillis;
+        private final long approxBytes;
+
+        private Snapshot(long version, MovieSortOrders sorts, Map<Long, int[][]> genres,
+                         Map<String, int[][]> letters, long buildMillis, long approxBytes) {
+            this.version = version;
+            this.sorts = sorts;
+            this.genres = genres;
+            this.letters = letters;
+            this.buildMillis = buildMillis;
+            this.approxBytes = approxBytes;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.filmer.service;
+
+/**
+ * Published when the catalog version stamp changes, i.e. after the data
+ * loader has finished a load. Also published once at startup when the
+ * version is first read. Listeners use it to drop caches and rebuild
+ * derived data.
+ */
+public class CatalogChangedEvent {
+
+    private final long previousVersion;
+    private final long version;
+
+    public CatalogChangedEvent(long previousVersion, long version) {
+        this.previousVersion = previousVersion;
+        this.version = version;
+    }
+
+    /**
+     * @return The version before the change, or 0 at startup
+     */
+    public long getPreviousVersion() {
+        return previousVersion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
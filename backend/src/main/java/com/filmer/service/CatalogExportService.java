@@ -0,0 +1,183 @@
+package com.filmer.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filmer.exception.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams the whole movie catalog as NDJSON: one JSON object per line,
+ * each with the movie's genres and full cast.
+ *
+ * <p>Rows are read through a PostgreSQL server-side cursor (autocommit
+ * off plus a fetch size), so only one fetch batch is in memory at a time,
+ * and every row is written straight to the response with a streaming
+ * {@link JsonGenerator}; memory use does not depend on catalog size.</p>
+ *
+ * <p>An export holds one pooled connection for its whole duration. The
+ * number of concurrent exports is capped by {@code filmer.export.max-concurrent}
+ * so they can never take more than that many connections from the pool;
+ * callers over the cap are turned away with 429 instead of queueing.</p>
+ */
+@Service
+public class CatalogExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogExportService.class);
+
+    private static final String EXPORT_SQL =
+            "SELECT m.id, m.title, m.year, m.director, r.rating, r.num_votes, " +
+            "       g.genre_names, st.star_ids, st.star_names " +
+            "FROM movies m " +
+            "LEFT JOIN ratings r ON r.movie_id = m.id " +
+            "LEFT JOIN LATERAL (" +
+            "  SELECT array_agg(gn.name ORDER BY gn.name) AS genre_names " +
+            "  FROM genres_in_movies gim JOIN genres gn ON gn.id = gim.genre_id " +
+            "  WHERE gim.movie_id = m.id" +
+            ") g ON true " +
+            "LEFT JOIN LATERAL (" +
+            "  SELECT array_agg(s.id ORDER BY s.name, s.id) AS star_ids, " +
+            "         array_agg(s.name ORDER BY s.name, s.id) AS star_names " +
+            "  FROM stars_in_movies sim JOIN stars s ON s.id = sim.star_id " +
+            "  WHERE sim.movie_id = m.id" +
+            ") st ON true " +
+            "ORDER BY m.id";
+
+    private static final long RETRY_AFTER_SECONDS = 60;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Semaphore slots;
+    private final int fetchSize;
+
+    public CatalogExportService(@Value("${filmer.export.max-concurrent:1}") int maxConcurrent,
+                                @Value("${filmer.export.fetch-size:1000}") int fetchSize) {
+        this.slots = new Semaphore(maxConcurrent);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Reserves an export slot; it must be released with {@link #release()}.
+     *
+     * @throws TooManyRequestsException if all slots are in use
+     */
+    public void acquire() {
+        if (!slots.tryAcquire()) {
+            throw new TooManyRequestsException("An export is already running; retry later", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    public void release() {
+        slots.release();
+    }
+
+    /**
+     * Writes every movie, ordered by id, as one NDJSON line each.
+     *
+     * @param out Response stream; not closed
+     * @return The number of movies written
+     * @throws UncheckedIOException if the client goes away
+     */
+    public long writeMovies(OutputStream out) {
+        long started = System.nanoTime();
+        Long written = jdbcTemplate.execute((Connection conn) -> {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(fetchSize);
+                try (ResultSet rs = stmt.executeQuery();
+                     JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                    json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    // Lines are already ended with a newline; the default root separator is a space
+                    json.setRootValueSeparator(null);
+                    long rows = 0;
+                    while (rs.next()) {
+                        writeMovie(json, rs);
+                        if (++rows % fetchSize == 0) {
+                            json.flush();
+                        }
+                    }
+                    return rows;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(autoCommit);
+            }
+        });
+        long rows = written == null ? 0 : written;
+        log.info("Exported {} movies in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    private static void writeMovie(JsonGenerator json, ResultSet rs) throws SQLException, IOException {
+        json.writeStartObject();
+        json.writeStringField("id", rs.getString("id"));
+        json.writeStringField("title", rs.getString("title"));
+        short year = rs.getShort("year");
+        if (rs.wasNull()) {
+            json.writeNullField("year");
+        } else {
+            json.writeNumberField("year", year);
+        }
+        json.writeStringField("director", rs.getString("director"));
+        BigDecimal rating = rs.getBigDecimal("rating");
+        if (rating == null) {
+            json.writeNullField("rating");
+        } else {
+            json.writeNumberField("rating", rating);
+        }
+        int numVotes = rs.getInt("num_votes");
+        if (rs.wasNull()) {
+            json.writeNullField("numVotes");
+        } else {
+            json.writeNumberField("numVotes", numVotes);
+        }
+
+        json.writeArrayFieldStart("genres");
+        for (String name : strings(rs.getArray("genre_names"))) {
+            json.writeString(name);
+        }
+        json.writeEndArray();
+
+        String[] starIds = strings(rs.getArray("star_ids"));
+        String[] starNames = strings(rs.getArray("star_names"));
+        json.writeArrayFieldStart("stars");
+        for (int i = 0; i < starIds.length; i++) {
+            json.writeStartObject();
+            json.writeStringField("id", starIds[i]);
+            json.writeStringField("name", starNames[i]);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static String[] strings(Array array) throws SQLException {
+        return array == null ? new String[0] : (String[]) array.getArray();
+    }
+}
@@ -0,0 +1,91 @@
+package com.filmer.service;
+
+import com.filmer.config.DataSourceRoute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tracks the catalog version stamp written by the data loader.
+ *
+ * <p>Movies, stars and genres only change when the loader runs, so the
+ * stamp in {@code catalog_version} is polled periodically and a
+ * {@link CatalogChangedEvent} is published whenever it moves.</p>
+ *
+ * <p>Polls run on the read route, so listeners rebuilding in-memory
+ * indexes read the same pool the catalog endpoints do.</p>
+ *
+ * <p>Listeners run synchronously, one after another, and the slower ones
+ * rebuild whole indexes. A listener that cannot apply the change throws;
+ * the versions then stay where they were and the next poll publishes the
+ * event again, so an index never keeps serving an old build as if it were
+ * current. Until the last listener has returned, some responses are still
+ * built from the previous catalog, so HTTP validators use
+ * {@link #getAppliedVersion()}, which only moves once every listener has
+ * succeeded.</p>
+ */
+@Service
+public class CatalogVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersionService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile long version = 0;
+
+    private volatile long appliedVersion = 0;
+
+    /**
+     * @return The catalog version being applied, or the last one applied;
+     *         0 if it has not been read yet
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The last catalog version every {@link CatalogChangedEvent}
+     *         listener has finished applying, or 0 before the first one
+     */
+    public long getAppliedVersion() {
+        return appliedVersion;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${filmer.catalog.poll-interval-ms:30000}")
+    public void poll() {
+        DataSourceRoute.runWith(DataSourceRoute.READ, this::checkVersion);
+    }
+
+    private void checkVersion() {
+        Long current;
+        try {
+            current = jdbcTemplate.queryForObject("SELECT version FROM catalog_version WHERE id = 1", Long.class);
+        } catch (DataAccessException e) {
+            log.warn("Could not read catalog version: {}", e.getMessage());
+            return;
+        }
+
+        if (current != null && current != appliedVersion) {
+            long previous = appliedVersion;
+            version = current;
+            log.info("Catalog version changed: {} -> {}", previous, current);
+            try {
+                eventPublisher.publishEvent(new CatalogChangedEvent(previous, current));
+            } catch (RuntimeException e) {
+                version = previous;
+                log.warn("Could not apply catalog version {}, retrying on the next poll: {}", current, e.getMessage());
+                return;
+            }
+            appliedVersion = current;
+        }
+    }
+}
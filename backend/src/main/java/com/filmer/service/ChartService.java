@@ -0,0 +1,104 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.ChartResponse;
+import com.filmer.dto.response.GenreResponse;
+import com.filmer.exception.BadRequestException;
+import com.filmer.exception.ResourceNotFoundException;
+import com.filmer.service.query.JdbcRows;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Service for the top-rated charts per genre and per decade.
+ *
+ * <p>Charts are served from {@link TopChartsIndex} when it is current;
+ * otherwise the same order ({@code rating_rank DESC, id DESC} over rated
+ * movies) is read from the rating rank index with a LIMIT.</p>
+ */
+@Service
+public class ChartService {
+
+    static final int MIN_DECADE = 1870;
+
+    private static final String CHART_COLUMNS =
+            "m.id, m.title, m.year, m.director, m.weighted_rating, r.rating, r.num_votes";
+
+    private static final RowMapper<ChartResponse.ChartItem> CHART_ROW = (rs, rowNum) -> {
+        ChartResponse.ChartItem item = new ChartResponse.ChartItem();
+        item.setPosition(rowNum + 1);
+        item.setId(rs.getString("id"));
+        item.setTitle(rs.getString("title"));
+        item.setYear(JdbcRows.getShort(rs, "year"));
+        item.setDirector(rs.getString("director"));
+        item.setRating(rs.getBigDecimal("rating"));
+        item.setNumVotes(JdbcRows.getInteger(rs, "num_votes"));
+        item.setWeightedRating(rs.getBigDecimal("weighted_rating"));
+        return item;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TopChartsIndex topChartsIndex;
+
+    @Autowired
+    private GenreService genreService;
+
+    /**
+     * @param genreId Genre ID
+     * @param limit   Entries to return
+     * @return The genre's best movies by weighted rating, best first
+     * @throws BadRequestException if the limit is out of range
+     * @throws ResourceNotFoundException if no genre has the given ID
+     */
+    public ChartResponse getGenreChart(Long genreId, int limit) {
+        validateLimit(limit);
+        ChartResponse chart = topChartsIndex.genreChart(genreId, limit);
+        if (chart != null) {
+            return chart;
+        }
+
+        GenreResponse genre = genreService.getGenre(genreId);
+        List<ChartResponse.ChartItem> items = jdbcTemplate.query(
+                "SELECT " + CHART_COLUMNS + " FROM genres_in_movies gim JOIN movies m ON m.id = gim.movie_id " +
+                "LEFT JOIN ratings r ON r.movie_id = m.id " +
+                "WHERE gim.genre_id = ? AND m.rating_rank > 0 ORDER BY m.rating_rank DESC, m.id DESC LIMIT ?",
+                CHART_ROW, genreId, limit);
+        return new ChartResponse(genre, null, items);
+    }
+
+    /**
+     * @param decade First year of the decade, e.g. 1990
+     * @param limit  Entries to return
+     * @return The decade's best movies by weighted rating, best first
+     * @throws BadRequestException if the decade or limit is invalid
+     */
+    public ChartResponse getDecadeChart(int decade, int limit) {
+        if (decade % 10 != 0 || decade < MIN_DECADE || decade > 9990) {
+            throw new BadRequestException("decade must be a year ending in 0 from " + MIN_DECADE + ", e.g. 1990");
+        }
+        validateLimit(limit);
+        ChartResponse chart = topChartsIndex.decadeChart(decade, limit);
+        if (chart != null) {
+            return chart;
+        }
+
+        List<ChartResponse.ChartItem> items = jdbcTemplate.query(
+                "SELECT " + CHART_COLUMNS + " FROM movies m LEFT JOIN ratings r ON r.movie_id = m.id " +
+                "WHERE m.year >= ? AND m.year < ? AND m.rating_rank > 0 ORDER BY m.rating_rank DESC, m.id DESC LIMIT ?",
+                CHART_ROW, decade, decade + 10, limit);
+        return new ChartResponse(null, decade, items);
+    }
+
+    private void validateLimit(int limit) {
+        int max = topChartsIndex.getChartSize();
+        if (limit < 1 || limit > max) {
+            throw new BadRequestException("limit must be between 1 and " + max);
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.filmer.service;
+
+import com.filmer.exception.TooManyRequestsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable star-movie bipartite graph for degrees-of-separation queries.
+ *
+ * <p>Stars and movies with at least one link are numbered by id order (a
+ * star without movies has no co-stars, so it is left out) and the
+ * junction table is held twice as CSR adjacency arrays: {@code starMovies[starOffsets[s] ..
+ * starOffsets[s + 1])} are the movies of star s and {@code movieStars}
+ * likewise the cast of each movie. Two stars are one degree apart when
+ * they share a movie.</p>
+ *
+ * <p>Shortest paths use a bidirectional breadth-first search that always
+ * expands whichever side's frontier has fewer links to follow, one full
+ * level at a time, so the first star reached from both sides lies on a
+ * shortest path. Visited marks are generation stamps in per-search int
+ * arrays, so a search never clears them; those arrays are sized to the
+ * graph and reused from a small pool, which also caps how many searches
+ * run at once. Frontier buffers start small and grow to the largest
+ * level a search has met.</p>
+ */
+public final class CoStarGraph {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private static final int INITIAL_FRONTIER = 1024;
+
+    private final String[] starIds;
+    private final Map<String, Integer> starOrdinals;
+    private final String[] movieIds;
+    private final int[] starOffsets;
+    private final int[] starMovies;
+    private final int[] movieOffsets;
+    private final int[] movieStars;
+
+    private final int maxSearches;
+    private final long searchWaitMillis;
+    private final ArrayBlockingQueue<Search> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    private final Queue<Search> allocated = new ConcurrentLinkedQueue<>();
+
+    private final long buildMillis;
+    private final long approxBytes;
+
+    private CoStarGraph(String[] starIds, Map<String, Integer> starOrdinals, String[] movieIds,
+                        int[] starOffsets, int[] starMovies, int[] movieOffsets, int[] movieStars,
+                        int maxSearches, long searchWaitMillis, long buildMillis, long approxBytes) {
+        this.starIds = starIds;
+        this.starOrdinals = starOrdinals;
+        this.movieIds = movieIds;
+        this.starOffsets = starOffsets;
+        this.starMovies = starMovies;
+        this.movieOffsets = movieOffsets;
+        this.movieStars = movieStars;
+        this.maxSearches = maxSearches;
+        this.searchWaitMillis = searchWaitMillis;
+        this.idle = new ArrayBlockingQueue<>(maxSearches);
+        this.buildMillis = buildMillis;
+        this.approxBytes = approxBytes;
+    }
+
+    /**
+     * Loads every star, movie and star-movie link and builds the adjacency arrays.
+     *
+     * @param jdbcTemplate     Template for the catalog database
+     * @param maxSearches      Searches that may run at once
+     * @param searchWaitMillis How long a search waits for a free slot before giving up
+     */
+    public static CoStarGraph build(JdbcTemplate jdbcTemplate, int maxSearches, long searchWaitMillis) {
+        long started = System.nanoTime();
+
+        List<String> starList = new ArrayList<>();
+        jdbcTemplate.query("SELECT s.id FROM stars s " +
+                "WHERE EXISTS (SELECT 1 FROM stars_in_movies sim WHERE sim.star_id = s.id) ORDER BY s.id", rs -> {
+            starList.add(rs.getString(1));
+        });
+        String[] starIds = starList.toArray(new String[0]);
+        int stars = starIds.length;
+        Map<String, Integer> starOrdinals = new HashMap<>(stars * 2);
+        for (int i = 0; i < stars; i++) {
+            starOrdinals.put(starIds[i], i);
+        }
+
+        List<String> movieList = new ArrayList<>();
+        jdbcTemplate.query("SELECT m.id FROM movies m " +
+                "WHERE EXISTS (SELECT 1 FROM stars_in_movies sim WHERE sim.movie_id = m.id) ORDER BY m.id", rs -> {
+            movieList.add(rs.getString(1));
+        });
+        String[] movieIds = movieList.toArray(new String[0]);
+        int movies = movieIds.length;
+        Map<String, Integer> movieOrdinals = new HashMap<>(movies * 2);
+        for (int i = 0; i < movies; i++) {
+            movieOrdinals.put(movieIds[i], i);
+        }
+
+        // (star, movie) pairs, sorted into one movie run per star
+        long[][] pairs = {new long[1 << 16]};
+        int[] pairCount = {0};
+        jdbcTemplate.query("SELECT star_id, movie_id FROM stars_in_movies", rs -> {
+            Integer star = starOrdinals.get(rs.getString(1));
+            Integer movie = movieOrdinals.get(rs.getString(2));
+            if (star != null && movie != null) {
+                if (pairCount[0] == pairs[0].length) {
+                    pairs[0] = Arrays.copyOf(pairs[0], pairs[0].length * 2);
+                }
+                pairs[0][pairCount[0]++] = ((long) star << 32) | movie;
+            }
+        });
+        long[] sorted = pairs[0];
+        pairs[0] = null;
+        Arrays.sort(sorted, 0, pairCount[0]);
+
+        int[] starOffsets = new int[stars + 1];
+        int[] starMovies = new int[pairCount[0]];
+        int[] movieOffsets = new int[movies + 1];
+        int links = 0;
+        for (int i = 0; i < pairCount[0]; i++) {
+            if (i > 0 && sorted[i] == sorted[i - 1]) {
+                continue;
+            }
+            int star = (int) (sorted[i] >>> 32);
+            int movie = (int) sorted[i];
+            starOffsets[star + 1]++;
+            movieOffsets[movie + 1]++;
+            starMovies[links++] = movie;
+        }
+        sorted = null;
+        if (links < starMovies.length) {
+            starMovies = Arrays.copyOf(starMovies, links);
+        }
+        for (int s = 0; s < stars; s++) {
+            starOffsets[s + 1] += starOffsets[s];
+        }
+        for (int m = 0; m < movies; m++) {
+            movieOffsets[m + 1] += movieOffsets[m];
+        }
+
+        // Transpose: walking stars in order keeps each movie's cast sorted
+        int[] movieStars = new int[links];
+        int[] fill = Arrays.copyOf(movieOffsets, movies);
+        for (int s = 0; s < stars; s++) {
+            for (int p = starOffsets[s]; p < starOffsets[s + 1]; p++) {
+                movieStars[fill[starMovies[p]]++] = s;
+            }
+        }
+
+        long approxBytes = stars * (56L + 48L + 4L) + movies * (56L + 4L) + 8L * links;
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        return new CoStarGraph(starIds, Collections.unmodifiableMap(starOrdinals), movieIds,
+                starOffsets, starMovies, movieOffsets, movieStars,
+                Math.max(1, maxSearches), Math.max(0, searchWaitMillis), buildMillis, approxBytes);
+    }
+
+    /**
+     * @return The star's ordinal, or -1 if the star is not in the graph
+     */
+    public int starOrdinal(String starId) {
+        Integer ordinal = starOrdinals.get(starId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public String starId(int ordinal) {
+        return starIds[ordinal];
+    }
+
+    public String movieId(int ordinal) {
+        return movieIds[ordinal];
+    }
+
+    /**
+     * @return Number of movies the star appears in
+     */
+    public int movieCountOf(int star) {
+        return starOffsets[star + 1] - starOffsets[star];
+    }
+
+    /**
+     * Finds a shortest chain of shared movies between two stars.
+     *
+     * @param from       Ordinal of the first star
+     * @param to         Ordinal of the second star
+     * @param maxDegrees Longest chain searched, in shared movies
+     * @return Ordinals alternating star, movie, star, ... from {@code from} to
+     *         {@code to}, or null if they are not connected within maxDegrees
+     * @throws TooManyRequestsException if every search slot stays busy
+     */
+    public int[] shortestPath(int from, int to, int maxDegrees) {
+        if (from == to) {
+            return new int[]{from};
+        }
+        Search search = acquire();
+        try {
+            int gen = search.nextGeneration();
+            Side a = search.forward;
+            Side b = search.backward;
+            a.start(from, gen);
+            b.start(to, gen);
+            int degrees = 0;
+            while (a.size > 0 && b.size > 0 && degrees < maxDegrees) {
+                boolean forward = linksOf(a) <= linksOf(b);
+                int meet = forward ? expand(search, a, b, gen) : expand(search, b, a, gen);
+                degrees++;
+                if (meet >= 0) {
+                    return path(a, b, meet, degrees);
+                }
+            }
+            return null;
+        } finally {
+            release(search);
+        }
+    }
+
+    /**
+     * Counts the stars first reached at each hop from a star.
+     *
+     * @param star Ordinal of the star
+     * @param hops Hops to expand
+     * @return Newly reached stars per hop; index 0 is one hop away (co-stars)
+     * @throws TooManyRequestsException if every search slot stays busy
+     */
+    public long[] neighborhood(int star, int hops) {
+        long[] counts = new long[hops];
+        Search search = acquire();
+        try {
+            int gen = search.nextGeneration();
+            Side side = search.forward;
+            side.start(star, gen);
+            for (int hop = 0; hop < hops && side.size > 0; hop++) {
+                expand(search, side, null, gen);
+                counts[hop] = side.size;
+            }
+            return counts;
+        } finally {
+            release(search);
+        }
+    }
+
+    /**
+     * Moves one side's frontier a full level out: its stars' movies, then
+     * those movies' unvisited casts.
+     *
+     * @return A star now visited from both sides, or -1
+     */
+    private int expand(Search search, Side side, Side other, int gen) {
+        int[] next = search.next;
+        int count = 0;
+        int meet = -1;
+        for (int i = 0; i < side.size && meet < 0; i++) {
+            int star = side.frontier[i];
+            for (int p = starOffsets[star]; p < starOffsets[star + 1] && meet < 0; p++) {
+                int movie = starMovies[p];
+                if (side.movieSeen[movie] == gen) {
+                    continue;
+                }
+                side.movieSeen[movie] = gen;
+                for (int q = movieOffsets[movie]; q < movieOffsets[movie + 1]; q++) {
+                    int costar = movieStars[q];
+                    if (side.starSeen[costar] == gen) {
+                        continue;
+                    }
+                    side.starSeen[costar] = gen;
+                    side.parent[costar] = star;
+                    side.via[costar] = movie;
+                    if (count == next.length) {
+                        next = Arrays.copyOf(next, Math.min(2 * count, starIds.length));
+                    }
+                    next[count++] = costar;
+                    if (other != null && other.starSeen[costar] == gen) {
+                        meet = costar;
+                        break;
+                    }
+                }
+            }
+        }
+        search.next = side.frontier;
+        side.frontier = next;
+        side.size = count;
+        return meet;
+    }
+
+    private long linksOf(Side side) {
+        long links = 0;
+        for (int i = 0; i < side.size; i++) {
+            int star = side.frontier[i];
+            links += starOffsets[star + 1] - starOffsets[star];
+        }
+        return links;
+    }
+
+    private static int[] path(Side forward, Side backward, int meet, int degrees) {
+        int[] path = new int[2 * degrees + 1];
+        int at = 0;
+        int[] head = new int[2 * degrees + 1];
+        int star = meet;
+        while (forward.parent[star] >= 0) {
+            head[at++] = star;
+            head[at++] = forward.via[star];
+            star = forward.parent[star];
+        }
+        head[at++] = star;
+        int size = 0;
+        for (int i = at - 1; i >= 0; i--) {
+            path[size++] = head[i];
+        }
+        star = meet;
+        while (backward.parent[star] >= 0) {
+            path[size++] = backward.via[star];
+            star = backward.parent[star];
+            path[size++] = star;
+        }
+        return size == path.length ? path : Arrays.copyOf(path, size);
+    }
+
+    private Search acquire() {
+        Search search = idle.poll();
+        if (search != null) {
+            return search;
+        }
+        if (created.incrementAndGet() <= maxSearches) {
+            search = new Search(starIds.length, movieIds.length);
+            allocated.add(search);
+            return search;
+        }
+        created.decrementAndGet();
+        try {
+            search = idle.poll(searchWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (search == null) {
+            throw new TooManyRequestsException("Too many star graph searches are running; retry later",
+                    RETRY_AFTER_SECONDS);
+        }
+        return search;
+    }
+
+    private void release(Search search) {
+        idle.offer(search);
+    }
+
+    public int getStarCount() {
+        return starIds.length;
+    }
+
+    public int getMovieCount() {
+        return movieIds.length;
+    }
+
+    public int getLinkCount() {
+        return starMovies.length;
+    }
+
+    public int getMaxSearches() {
+        return maxSearches;
+    }
+
+    /**
+     * @return Search scratch arrays allocated so far
+     */
+    public int getSearchesAllocated() {
+        return created.get();
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * @return Approximate heap held by the graph itself
+     */
+    public long getApproxBytes() {
+        return approxBytes;
+    }
+
+    /**
+     * @return Heap held by the search scratch arrays allocated so far,
+     *         frontier buffers at their current size
+     */
+    public long getSearchBytes() {
+        long bytes = 0;
+        for (Search search : allocated) {
+            bytes += search.bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Scratch state of one search: both sides and a spare frontier buffer.
+     */
+    private static final class Search {
+
+        private final Side forward;
+        private final Side backward;
+        private int[] next;
+        private int generation;
+
+        private Search(int stars, int movies) {
+            forward = new Side(stars, movies);
+            backward = new Side(stars, movies);
+            next = new int[Math.min(stars, INITIAL_FRONTIER)];
+        }
+
+        private long bytes() {
+            return forward.bytes() + backward.bytes() + 4L * next.length;
+        }
+
+        private int nextGeneration() {
+            if (generation == Integer.MAX_VALUE) {
+                forward.clear();
+                backward.clear();
+                generation = 0;
+            }
+            return ++generation;
+        }
+    }
+
+    /**
+     * One direction of a search. Parent and via entries are only meaningful
+     * for stars whose stamp matches the current generation.
+     */
+    private static final class Side {
+
+        private final int[] starSeen;
+        private final int[] movieSeen;
+        private final int[] parent;
+        private final int[] via;
+        private int[] frontier;
+        private int size;
+
+        private Side(int stars, int movies) {
+            starSeen = new int[stars];
+            movieSeen = new int[movies];
+            parent = new int[stars];
+            via = new int[stars];
+            frontier = new int[Math.min(stars, INITIAL_FRONTIER)];
+        }
+
+        private long bytes() {
+            return 4L * (3L * starSeen.length + movieSeen.length + frontier.length);
+        }
+
+        private void start(int star, int gen) {
+            starSeen[star] = gen;
+            parent[star] = -1;
+            frontier[0] = star;
+            size = 1;
+        }
+
+        private void clear() {
+            Arrays.fill(starSeen, 0);
+            Arrays.fill(movieSeen, 0);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.filmer.service;
+
+import com.filmer.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Degrees-of-separation queries served from a {@link CoStarGraph} held in memory.
+ *
+ * <p>The graph is rebuilt whenever the catalog version changes and
+ * published with a single volatile write. Walking stars_in_movies with
+ * recursive SQL is what this avoids, so there is no SQL fallback: while a
+ * rebuild runs the previous graph keeps answering. A negative answer is
+ * never given for lack of a graph, though: before the first build, and for
+ * stars loaded after the graph was built, {@link #requireIndexed} reports
+ * the graph as unavailable instead.</p>
+ *
+ * <p>The latencies of the most recent queries are kept in a ring so the
+ * stats can report p50/p99 on the live dataset.</p>
+ */
+@Component
+public class CoStarGraphIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CoStarGraphIndex.class);
+
+    private static final int LATENCY_SAMPLES = 1024;
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Value("${filmer.graph.max-degrees:6}")
+    private int maxDegrees;
+
+    @Value("${filmer.graph.max-hops:3}")
+    private int maxHops;
+
+    @Value("${filmer.graph.max-concurrent-searches:4}")
+    private int maxConcurrentSearches;
+
+    @Value("${filmer.graph.search-wait-millis:200}")
+    private long searchWaitMillis;
+
+    private volatile Snapshot snapshot;
+
+    private final AtomicLong pathQueries = new AtomicLong();
+    private final AtomicLong neighborhoodQueries = new AtomicLong();
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private final AtomicLong latencyCount = new AtomicLong();
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        CoStarGraph graph = CoStarGraph.build(jdbcTemplate, maxConcurrentSearches, searchWaitMillis);
+        snapshot = new Snapshot(event.getVersion(), graph);
+        log.info("Co-star graph built for catalog version {}: {} stars, {} movies, {} links, {} ms, ~{} KiB",
+                event.getVersion(), graph.getStarCount(), graph.getMovieCount(), graph.getLinkCount(),
+                graph.getBuildMillis(), graph.getApproxBytes() / 1024);
+    }
+
+    public int getMaxDegrees() {
+        return maxDegrees;
+    }
+
+    public int getMaxHops() {
+        return maxHops;
+    }
+
+    /**
+     * Checks that the graph can answer for a star known to exist in the catalog.
+     *
+     * @param starId ID of an existing star
+     * @throws ServiceUnavailableException if no graph has been built yet, or
+     *         the star is missing from a graph older than the catalog version
+     */
+    public void requireIndexed(String starId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new ServiceUnavailableException("The star graph is not built yet; retry later", RETRY_AFTER_SECONDS);
+        }
+        if (current.graph.starOrdinal(starId) < 0 && current.version != catalogVersionService.getVersion()) {
+            throw new ServiceUnavailableException("The star graph is being rebuilt; retry later", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    /**
+     * @param fromStarId First star
+     * @param toStarId   Second star
+     * @return Ids alternating star, movie, star, ... from one star to the
+     *         other, or null if they are not connected within the maximum
+     *         degrees (or either is not in the graph, see {@link #requireIndexed})
+     */
+    public String[] shortestPath(String fromStarId, String toStarId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        CoStarGraph graph = current.graph;
+        int from = graph.starOrdinal(fromStarId);
+        int to = graph.starOrdinal(toStarId);
+        if (from < 0 || to < 0) {
+            return null;
+        }
+        long started = System.nanoTime();
+        int[] path = graph.shortestPath(from, to, maxDegrees);
+        record(started);
+        pathQueries.incrementAndGet();
+        if (path == null) {
+            return null;
+        }
+        String[] ids = new String[path.length];
+        for (int i = 0; i < path.length; i++) {
+            ids[i] = i % 2 == 0 ? graph.starId(path[i]) : graph.movieId(path[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * @param starId Star ID
+     * @param hops   Hops to expand, 1 to the maximum hops
+     * @return Newly reached stars per hop, or null if the star is not in the graph
+     */
+    public long[] neighborhood(String starId, int hops) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        int star = current.graph.starOrdinal(starId);
+        if (star < 0) {
+            return null;
+        }
+        long started = System.nanoTime();
+        long[] counts = current.graph.neighborhood(star, hops);
+        record(started);
+        neighborhoodQueries.incrementAndGet();
+        return counts;
+    }
+
+    private void record(long started) {
+        long slot = latencyCount.getAndIncrement();
+        latencies[(int) (slot % LATENCY_SAMPLES)] = System.nanoTime() - started;
+    }
+
+    /**
+     * @return Size, memory, build time and recent query latency of the current graph
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", current != null);
+        stats.put("current", current != null && current.version == catalogVersionService.getVersion());
+        if (current != null) {
+            CoStarGraph graph = current.graph;
+            stats.put("version", current.version);
+            stats.put("stars", graph.getStarCount());
+            stats.put("movies", graph.getMovieCount());
+            stats.put("links", graph.getLinkCount());
+            stats.put("buildMillis", graph.getBuildMillis());
+            stats.put("approxBytes", graph.getApproxBytes());
+            stats.put("searchSlots", graph.getMaxSearches());
+            stats.put("searchBytes", graph.getSearchBytes());
+        }
+        stats.put("pathQueries", pathQueries.get());
+        stats.put("neighborhoodQueries", neighborhoodQueries.get());
+        int samples = (int) Math.min(latencyCount.get(), LATENCY_SAMPLES);
+        if (samples > 0) {
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            stats.put("p50Micros", sorted[(int) (samples * 0.50)] / 1000);
+            stats.put("p99Micros", sorted[Math.min(samples - 1, (int) (samples * 0.99))] / 1000);
+        }
+        return stats;
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final CoStarGraph graph;
+
+        private Snapshot(long version, CoStarGraph graph) {
+            this.version = version;
+            this.graph = graph;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.MovieDetailResponse;
+import com.filmer.dto.response.StarDetailResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process caches for movie and star detail responses.
+ *
+ * <p>Caffeine's W-TinyLFU policy only admits a new entry when it is
+ * estimated to be used more often than the one it would evict, so a scan
+ * of rarely viewed titles cannot flush the popular ones. Entries also
+ * expire after a fixed time, and both caches are emptied when the catalog
+ * version changes after a load. Not-found lookups are not cached.</p>
+ *
+ * <p>Cached responses are shared between requests and must not be modified.</p>
+ */
+@Component
+public class DetailCache {
+
+    private final Cache<String, MovieDetailResponse> movieDetails;
+    private final Cache<String, StarDetailResponse> starDetails;
+
+    public DetailCache(@Value("${filmer.cache.detail.max-size:10000}") long maxSize,
+                       @Value("${filmer.cache.detail.ttl-minutes:60}") long ttlMinutes) {
+        this.movieDetails = build(maxSize, ttlMinutes);
+        this.starDetails = build(maxSize, ttlMinutes);
+    }
+
+    private static <V> Cache<String, V> build(long maxSize, long ttlMinutes) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    public MovieDetailResponse getMovie(String movieId, Function<String, MovieDetailResponse> loader) {
+        return movieDetails.get(movieId, loader);
+    }
+
+    public StarDetailResponse getStar(String starId, Function<String, StarDetailResponse> loader) {
+        return starDetails.get(starId, loader);
+    }
+
+    /**
+     * Looks all ids up in the cache first and loads only the misses, in one
+     * call, caching what the loader returns.
+     *
+     * @param movieIds Distinct movie IDs
+     * @param loader   Loads the given missing IDs; IDs that do not exist are left out
+     * @return The found movies by ID
+     */
+    public Map<String, MovieDetailResponse> getMovies(Set<String> movieIds,
+                                                      Function<Set<String>, Map<String, MovieDetailResponse>> loader) {
+        return getAll(movieDetails, movieIds, loader);
+    }
+
+    public Map<String, StarDetailResponse> getStars(Set<String> starIds,
+                                                    Function<Set<String>, Map<String, StarDetailResponse>> loader) {
+        return getAll(starDetails, starIds, loader);
+    }
+
+    private static <V> Map<String, V> getAll(Cache<String, V> cache, Set<String> keys,
+                                             Function<Set<String>, Map<String, V>> loader) {
+        Map<String, V> result = new HashMap<>(cache.getAllPresent(keys));
+        if (result.size() < keys.size()) {
+            Set<String> missing = new LinkedHashSet<>(keys);
+            missing.removeAll(result.keySet());
+            Map<String, V> loaded = loader.apply(missing);
+            cache.putAll(loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * Runs before the index rebuilds, so new requests stop getting
+     * entries built from the previous catalog as early as possible.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        movieDetails.invalidateAll();
+        starDetails.invalidateAll();
+    }
+
+    /**
+     * @return Hit, miss and eviction counters per cache
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movieDetails", describe(movieDetails));
+        stats.put("starDetails", describe(starDetails));
+        return stats;
+    }
+
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,201 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.GenreListResponse;
+import com.filmer.dto.response.GenreMoviesResponse;
+import com.filmer.dto.response.GenreResponse;
+import com.filmer.exception.ResourceNotFoundException;
+import com.filmer.service.query.CountMode;
+import com.filmer.service.query.FieldSet;
+import com.filmer.service.query.JdbcRows;
+import com.filmer.service.query.KeysetCursor;
+import com.filmer.service.query.KeysetPage;
+import com.filmer.service.query.KeysetQuery;
+import com.filmer.service.query.MovieSortField;
+import com.filmer.service.query.PageCount;
+import com.filmer.service.query.PageRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for genre listing and genre browsing queries.
+ */
+@Service
+public class GenreService {
+
+    private static final RowMapper<GenreMoviesResponse.GenreMovieItem> GENRE_MOVIE_ROW = (rs, rowNum) -> {
+        GenreMoviesResponse.GenreMovieItem item = new GenreMoviesResponse.GenreMovieItem();
+        item.setId(rs.getString("id"));
+        item.setTitle(rs.getString("title"));
+        item.setYear(JdbcRows.getShort(rs, "year"));
+        item.setDirector(rs.getString("director"));
+        item.setRatingRank(rs.getInt("rating_rank"));
+        item.setRating(rs.getBigDecimal("rating"));
+        return item;
+    };
+
+    private static final String GENRE_MOVIE_COLUMNS = "m.id, m.title, m.year, m.director, m.rating_rank, r.rating";
+    private static final String GENRE_MOVIE_COLUMNS_UNRATED =
+            "m.id, m.title, m.year, m.director, m.rating_rank, NULL::numeric AS rating";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private BrowseIndex browseIndex;
+
+    /**
+     * @return All genres, ordered by name
+     */
+    public GenreListResponse listGenres() {
+        return new GenreListResponse(jdbcTemplate.query(
+                "SELECT id, name FROM genres ORDER BY name",
+                (rs, rowNum) -> new GenreResponse(rs.getLong("id"), rs.getString("name"))));
+    }
+
+    /**
+     * @throws ResourceNotFoundException if no genre has the given ID
+     */
+    public GenreResponse getGenre(Long genreId) {
+        List<GenreResponse> genres = jdbcTemplate.query(
+                "SELECT id, name FROM genres WHERE id = ?",
+                (rs, rowNum) -> new GenreResponse(rs.getLong("id"), rs.getString("name")),
+                genreId);
+        if (genres.isEmpty()) {
+            throw new ResourceNotFoundException("Genre not found with id: " + genreId);
+        }
+        return genres.get(0);
+    }
+
+    /**
+     * Lists the movies of one genre.
+     *
+     * <p>Pages are sliced from {@link BrowseIndex} when it is current,
+     * so only the page's rows are read from the database; otherwise the
+     * listing is sorted in SQL. The index knows each genre's size, so its
+     * totals are always exact (reported as such) unless hasMore was asked for.</p>
+     *
+     * @param genreId Genre ID
+     * @param sort    Sort field
+     * @param page    Validated pagination parameters (page number or cursor)
+     * @param fields  Item fields to materialize; ratings are not joined unless selected
+     * @return Genre info with the requested page and cursors for seeking onwards
+     * @throws ResourceNotFoundException if no genre has the given ID
+     */
+    public GenreMoviesResponse getMoviesByGenre(Long genreId, MovieSortField sort, PageRequest page, FieldSet fields) {
+        GenreResponse genre = getGenre(genreId);
+        boolean rated = fields.includes("rating");
+
+        BrowseIndex.Slice slice = browseIndex.genreSlice(genreId, sort, page);
+        if (slice != null) {
+            return fromIndex(genre, slice, sort, page, fields, rated);
+        }
+
+        KeysetQuery query = KeysetQuery.select(rated ? GENRE_MOVIE_COLUMNS : GENRE_MOVIE_COLUMNS_UNRATED)
+                .from("genres_in_movies gim JOIN movies m ON m.id = gim.movie_id" +
+                      (rated ? " LEFT JOIN ratings r ON r.movie_id = m.id" : ""))
+                .where("gim.genre_id = ?", genreId)
+                .orderBy(sort, "m.id");
+
+        KeysetPage<GenreMoviesResponse.GenreMovieItem> result = query.fetch(jdbcTemplate, page, GENRE_MOVIE_ROW);
+        select(result.getItems(), fields);
+
+        GenreMoviesResponse response = new GenreMoviesResponse();
+        response.setGenre(genre);
+        response.setItems(result.getItems());
+        response.setPage(page.getPage());
+        response.setSize(page.getSize());
+        pageCountService.count(query, page, result).applyTo(response);
+        response.setNextCursor(result.getNextCursor());
+        response.setPrevCursor(result.getPrevCursor());
+        response.setFields(fields.names());
+        return response;
+    }
+
+    private GenreMoviesResponse fromIndex(GenreResponse genre, BrowseIndex.Slice slice,
+                                          MovieSortField sort, PageRequest page, FieldSet fields, boolean rated) {
+        List<String> movieIds = slice.getMovieIds();
+        Map<String, GenreMoviesResponse.GenreMovieItem> rows = new HashMap<>();
+        if (!movieIds.isEmpty()) {
+            jdbcTemplate.query(
+                    "SELECT " + (rated ? GENRE_MOVIE_COLUMNS + " FROM movies m LEFT JOIN ratings r ON r.movie_id = m.id "
+                                       : GENRE_MOVIE_COLUMNS_UNRATED + " FROM movies m ") +
+                    "WHERE m.id = ANY(?)",
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", movieIds.toArray())),
+                    rs -> {
+                        GenreMoviesResponse.GenreMovieItem item = GENRE_MOVIE_ROW.mapRow(rs, 0);
+                        rows.put(item.getId(), item);
+                    });
+        }
+
+        List<GenreMoviesResponse.GenreMovieItem> items = new ArrayList<>(movieIds.size());
+        for (String movieId : movieIds) {
+            GenreMoviesResponse.GenreMovieItem item = rows.get(movieId);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        select(items, fields);
+
+        String next = null;
+        String prev = null;
+        if (!items.isEmpty()) {
+            GenreMoviesResponse.GenreMovieItem first = items.get(0);
+            GenreMoviesResponse.GenreMovieItem last = items.get(items.size() - 1);
+            if (slice.hasNext()) {
+                next = new KeysetCursor(sort.param(), page.isDescending(), false, last.getId(), sortValue(last, sort)).encode();
+            }
+            if (slice.hasPrev()) {
+                prev = new KeysetCursor(sort.param(), page.isDescending(), true, first.getId(), sortValue(first, sort)).encode();
+            }
+        }
+
+        GenreMoviesResponse response = new GenreMoviesResponse();
+        response.setGenre(genre);
+        response.setItems(items);
+        response.setPage(page.getPage());
+        response.setSize(page.getSize());
+        PageCount count = page.getCountMode() == CountMode.HAS_MORE
+                ? PageCount.hasMoreOnly(slice.hasNext())
+                : PageCount.of(CountMode.EXACT, slice.getTotal(), page.getSize(), slice.hasNext());
+        count.applyTo(response);
+        response.setNextCursor(next);
+        response.setPrevCursor(prev);
+        response.setFields(fields.names());
+        return response;
+    }
+
+    private static void select(List<GenreMoviesResponse.GenreMovieItem> items, FieldSet fields) {
+        if (!fields.isAll()) {
+            Set<String> selection = fields.selection();
+            for (GenreMoviesResponse.GenreMovieItem item : items) {
+                item.setSelectedFields(selection);
+            }
+        }
+    }
+
+    /**
+     * Renders the sort key the way the SQL path does, so cursors issued from
+     * the index can also be resolved by {@link KeysetQuery}.
+     */
+    private static String sortValue(GenreMoviesResponse.GenreMovieItem item, MovieSortField sort) {
+        switch (sort) {
+            case YEAR:
+                return item.getYear() == null ? "0" : item.getYear().toString();
+            case RATING:
+                return item.getRatingRank() == null ? "0" : item.getRatingRank().toString();
+            default:
+                return item.getTitle();
+        }
+    }
+}
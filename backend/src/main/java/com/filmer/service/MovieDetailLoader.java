@@ -0,0 +1,135 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.MovieDetailResponse;
+import com.filmer.service.query.JdbcRows;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads movie details from the database on detail cache misses.
+ *
+ * <p>A movie's row, rating, genres and stars are four independent
+ * set-based lookups keyed by {@code movie_id = ANY(?)}. They are forked
+ * together in one {@link ParallelLookups} scope, so a miss costs about the
+ * slowest lookup instead of the sum of all four, and the first failure or
+ * timeout cancels the others.</p>
+ */
+@Component
+public class MovieDetailLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ParallelLookups parallelLookups;
+
+    @Autowired
+    public MovieDetailLoader(JdbcTemplate jdbcTemplate, ParallelLookups parallelLookups) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.parallelLookups = parallelLookups;
+    }
+
+    /**
+     * @param movieIds Distinct movie IDs
+     * @return The movies that exist among the given IDs, with genres and stars, by ID
+     * @throws org.springframework.dao.QueryTimeoutException if a lookup exceeded {@code filmer.lookups.timeout-ms}
+     */
+    public Map<String, MovieDetailResponse> load(Set<String> movieIds) {
+        String[] ids = movieIds.toArray(new String[0]);
+        CompletableFuture<Map<String, MovieDetailResponse>> rows;
+        CompletableFuture<Map<String, Rating>> ratings;
+        CompletableFuture<Map<String, List<MovieDetailResponse.GenreInfo>>> genres;
+        CompletableFuture<Map<String, List<MovieDetailResponse.StarInfo>>> stars;
+        try (ParallelLookups.Scope scope = parallelLookups.open()) {
+            rows = scope.fork(() -> findMovies(ids));
+            ratings = scope.fork(() -> findRatings(ids));
+            genres = scope.fork(() -> findGenres(ids));
+            stars = scope.fork(() -> findStars(ids));
+            scope.join();
+        }
+
+        Map<String, MovieDetailResponse> movies = rows.join();
+        for (MovieDetailResponse movie : movies.values()) {
+            Rating rating = ratings.join().get(movie.getId());
+            if (rating != null) {
+                movie.setRating(rating.value);
+                movie.setNumVotes(rating.numVotes);
+            }
+            movie.setGenres(genres.join().getOrDefault(movie.getId(), Collections.emptyList()));
+            movie.setStars(stars.join().getOrDefault(movie.getId(), Collections.emptyList()));
+        }
+        return movies;
+    }
+
+    private Map<String, MovieDetailResponse> findMovies(String[] ids) {
+        Map<String, MovieDetailResponse> movies = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, title, year, director FROM movies WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)),
+                rs -> {
+                    MovieDetailResponse movie = new MovieDetailResponse();
+                    movie.setId(rs.getString("id"));
+                    movie.setTitle(rs.getString("title"));
+                    movie.setYear(JdbcRows.getShort(rs, "year"));
+                    movie.setDirector(rs.getString("director"));
+                    movies.put(movie.getId(), movie);
+                });
+        return movies;
+    }
+
+    private Map<String, Rating> findRatings(String[] ids) {
+        Map<String, Rating> ratings = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT movie_id, rating, num_votes FROM ratings WHERE movie_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)),
+                rs -> {
+                    ratings.put(rs.getString("movie_id"),
+                            new Rating(rs.getBigDecimal("rating"), JdbcRows.getInteger(rs, "num_votes")));
+                });
+        return ratings;
+    }
+
+    private Map<String, List<MovieDetailResponse.GenreInfo>> findGenres(String[] ids) {
+        Map<String, List<MovieDetailResponse.GenreInfo>> genres = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT gim.movie_id, g.id, g.name FROM genres_in_movies gim JOIN genres g ON g.id = gim.genre_id " +
+                "WHERE gim.movie_id = ANY(?) ORDER BY gim.movie_id, g.name",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)),
+                rs -> {
+                    genres.computeIfAbsent(rs.getString("movie_id"), k -> new ArrayList<>())
+                            .add(new MovieDetailResponse.GenreInfo(rs.getLong("id"), rs.getString("name")));
+                });
+        return genres;
+    }
+
+    private Map<String, List<MovieDetailResponse.StarInfo>> findStars(String[] ids) {
+        Map<String, List<MovieDetailResponse.StarInfo>> stars = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT sim.movie_id, s.id, s.name, s.birth_year FROM stars_in_movies sim JOIN stars s ON s.id = sim.star_id " +
+                "WHERE sim.movie_id = ANY(?) ORDER BY sim.movie_id, s.name, s.id",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)),
+                rs -> {
+                    stars.computeIfAbsent(rs.getString("movie_id"), k -> new ArrayList<>())
+                            .add(new MovieDetailResponse.StarInfo(
+                                    rs.getString("id"), rs.getString("name"), JdbcRows.getShort(rs, "birth_year")));
+                });
+        return stars;
+    }
+
+    private static final class Rating {
+        private final BigDecimal value;
+        private final Integer numVotes;
+
+        private Rating(BigDecimal value, Integer numVotes) {
+            this.value = value;
+            this.numVotes = numVotes;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.MovieListItemResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills in the genres and top stars of a page of movie list items.
+ *
+ * <p>Instead of two lookups per movie, the whole page is resolved with two
+ * set-based queries keyed by {@code movie_id = ANY(?)} that aggregate per
+ * movie in the database. The number of queries is therefore constant no
+ * matter how large the page is.</p>
+ */
+@Component
+public class MovieListHydrator {
+
+    /**
+     * Maximum number of stars attached to each list item: the ones with the
+     * most movies ({@code stars.movie_count}), then by name and id.
+     */
+    public static final int MAX_STARS_PER_MOVIE = 3;
+
+    private static final String GENRES_SQL =
+            "SELECT gim.movie_id, array_agg(g.name ORDER BY g.name) AS genre_names " +
+            "FROM genres_in_movies gim JOIN genres g ON g.id = gim.genre_id " +
+            "WHERE gim.movie_id = ANY(?) " +
+            "GROUP BY gim.movie_id";
+
+    private static final String STARS_SQL =
+            "SELECT sim.movie_id, " +
+            "       (array_agg(s.id ORDER BY s.movie_count DESC, s.name, s.id))[1:" + MAX_STARS_PER_MOVIE + "] AS star_ids, " +
+            "       (array_agg(s.name ORDER BY s.movie_count DESC, s.name, s.id))[1:" + MAX_STARS_PER_MOVIE + "] AS star_names " +
+            "FROM stars_in_movies sim JOIN stars s ON s.id = sim.star_id " +
+            "WHERE sim.movie_id = ANY(?) " +
+            "GROUP BY sim.movie_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sets {@code genres} and/or {@code stars} on every item, in place,
+     * running only the queries of the requested parts. Items without
+     * genres or stars get empty lists.
+     *
+     * @param items  The page of movies to hydrate
+     * @param genres Whether to set {@code genres}
+     * @param stars  Whether to set {@code stars}
+     */
+    public void hydrate(List<MovieListItemResponse> items, boolean genres, boolean stars) {
+        if (items.isEmpty() || (!genres && !stars)) {
+            return;
+        }
+
+        String[] movieIds = new String[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            movieIds[i] = items.get(i).getId();
+        }
+
+        Map<String, List<String>> genresByMovie = new HashMap<>();
+        if (genres) {
+            jdbcTemplate.query(GENRES_SQL,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", movieIds)),
+                    rs -> {
+                        String[] names = (String[]) rs.getArray("genre_names").getArray();
+                        genresByMovie.put(rs.getString("movie_id"), Arrays.asList(names));
+                    });
+        }
+
+        Map<String, List<MovieListItemResponse.StarSummary>> starsByMovie = new HashMap<>();
+        if (stars) {
+            jdbcTemplate.query(STARS_SQL,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", movieIds)),
+                    rs -> {
+                        String[] ids = (String[]) rs.getArray("star_ids").getArray();
+                        String[] names = (String[]) rs.getArray("star_names").getArray();
+                        List<MovieListItemResponse.StarSummary> summaries = new ArrayList<>(ids.length);
+                        for (int i = 0; i < ids.length; i++) {
+                            summaries.add(new MovieListItemResponse.StarSummary(ids[i], names[i]));
+                        }
+                        starsByMovie.put(rs.getString("movie_id"), summaries);
+                    });
+        }
+
+        for (MovieListItemResponse item : items) {
+            if (genres) {
+                item.setGenres(genresByMovie.getOrDefault(item.getId(), Collections.emptyList()));
+            }
+            if (stars) {
+                item.setStars(starsByMovie.getOrDefault(item.getId(), Collections.emptyList()));
+            }
+        }
+    }
+}
@@ -0,0 +1,535 @@
+package com.filmer.service;
+
+import com.filmer.exception.BadRequestException;
+import com.filmer.service.query.KeysetCursor;
+import com.filmer.service.query.MovieSortField;
+import com.filmer.service.query.PageRequest;
+import com.filmer.service.query.SearchCriteria;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded search engine answering movie searches without SQL.
+ *
+ * <p>The lexemes of each movie's {@code search_document} (title, director
+ * and star names, as the data loader normalized them) form an inverted index
+ * whose posting lists are sorted movie ordinals stored as delta-encoded
+ * varints. A keyword query intersects the posting lists of its words
+ * (shortest first); year and genre filters are then checked against
+ * primitive per-movie columns ({@code short} year, {@code long} genre
+ * bitmask). The requested page is selected with a bounded heap over the
+ * global sort ranks from {@link MovieSortOrders}, so results are ordered
+ * exactly like the SQL path.</p>
+ *
+ * <p>A keyword query is normalized by PostgreSQL itself with
+ * {@code websearch_to_tsquery}, the function the SQL path matches with, so
+ * stemming and stop words are the same on both paths; the statement reads
+ * no table and its result is cached per query string. Queries the index
+ * cannot answer identically — anything but a plain AND of lexemes (phrases,
+ * alternatives, negation, hyphenated words), title/director/star
+ * partial-match filters, relevance order — return {@code null}, as does
+ * any search while the index is older than the catalog, and the caller
+ * falls back to SQL.</p>
+ */
+@Component
+public class MovieSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieSearchIndex.class);
+
+    private static final int MAX_GENRES = 64;
+
+    private static final int MAX_CACHED_QUERIES = 10_000;
+
+    private static final String NORMALIZE_SQL =
+            "SELECT websearch_to_tsquery('" + SearchService.TEXT_SEARCH_CONFIG + "', ?)::text";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private MovieSortOrdersCache movieSortOrders;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Query string to its lexemes; an empty list if the index cannot answer it.
+     */
+    private final Cache<String, List<String>> queryLexemes = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_QUERIES)
+            .build();
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        snapshot = build(event.getVersion());
+        log.info("Movie search index built for catalog version {}: {} movies, {} tokens, {} ms, ~{} KiB",
+                snapshot.version, snapshot.sorts.size(), snapshot.postings.size(),
+                snapshot.buildMillis, snapshot.approxBytes / 1024);
+    }
+
+    /**
+     * Runs a search against the index.
+     *
+     * @param criteria Search filters (only query, year, yearFrom, yearTo and genreId are supported)
+     * @param sort     Sort field
+     * @param page     Validated pagination parameters
+     * @return The page of movie ids in display order, or null if the index
+     *         cannot answer this search and SQL must be used
+     * @throws BadRequestException if the cursor was issued for a different sort
+     */
+    public Result search(SearchCriteria criteria, MovieSortField sort, PageRequest page) {
+        Snapshot current = snapshot;
+        if (current == null || current.version != catalogVersionService.getVersion()
+                || criteria.getTitle() != null || criteria.getDirector() != null || criteria.getStar() != null
+                || (criteria.getGenreId() != null && current.genreBits == null)) {
+            return null;
+        }
+
+        int[] matches = null;
+        if (criteria.getQuery() != null) {
+            List<String> lexemes = queryLexemes.get(criteria.getQuery(), this::normalize);
+            if (lexemes.isEmpty()) {
+                return null;
+            }
+            matches = current.intersect(lexemes);
+        }
+
+        long genreBit = 0;
+        if (criteria.getGenreId() != null) {
+            Integer bit = current.genreBits.get(criteria.getGenreId());
+            if (bit == null) {
+                matches = new int[0];
+            } else {
+                genreBit = 1L << bit;
+            }
+        }
+
+        int n = current.sorts.size();
+        boolean descending = page.isDescending();
+        int[] sortRank = current.sorts.rank[sort.ordinal()];
+
+        KeysetCursor cursor = page.getCursor();
+        int cursorKey = -1;
+        if (cursor != null) {
+            if (!sort.param().equals(cursor.getSortBy()) || cursor.isDescending() != descending) {
+                throw new BadRequestException("cursor was issued for a different sortBy/order");
+            }
+            Integer ordinal = current.sorts.ordinals.get(cursor.getId());
+            if (ordinal == null) {
+                return null;
+            }
+            cursorKey = descending ? n - 1 - sortRank[ordinal] : sortRank[ordinal];
+        }
+        boolean backward = cursor != null && cursor.isBackward();
+
+        long window = (cursor == null ? page.getOffset() : 0) + page.getSize() + 1;
+        TopK top = new TopK((int) Math.min(window, n + 1L));
+
+        int total = 0;
+        int candidates = matches == null ? n : matches.length;
+        for (int i = 0; i < candidates; i++) {
+            int ordinal = matches == null ? i : matches[i];
+            if (!current.accepts(ordinal, criteria, genreBit)) {
+                continue;
+            }
+            total++;
+            int key = descending ? n - 1 - sortRank[ordinal] : sortRank[ordinal];
+            if (cursor == null || (!backward && key > cursorKey)) {
+                top.offer(key);
+            } else if (backward && key < cursorKey) {
+                top.offer(-key);
+            }
+        }
+
+        int[] keys = top.sorted();
+        if (backward) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = -keys[i];
+            }
+        }
+        int from = cursor == null ? (int) Math.min(page.getOffset(), keys.length) : 0;
+        int count = Math.min(page.getSize(), keys.length - from);
+        boolean hasMore = keys.length - from > page.getSize();
+
+        int[] order = current.sorts.order[sort.ordinal()];
+        List<String> movieIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int key = keys[from + i];
+            movieIds.add(current.sorts.ids[order[descending ? n - 1 - key : key]]);
+        }
+        if (backward) {
+            Collections.reverse(movieIds);
+        }
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrev = backward ? hasMore : (cursor != null || page.getPage() > 1);
+        return new Result(movieIds, total, hasNext, hasPrev);
+    }
+
+    /**
+     * @return Size, memory and build time of the current index
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", current != null && current.version == catalogVersionService.getVersion());
+        if (current != null) {
+            stats.put("version", current.version);
+            stats.put("movies", current.sorts.size());
+            stats.put("tokens", current.postings.size());
+            stats.put("postingBytes", current.postingBytes);
+            stats.put("buildMillis", current.buildMillis);
+            stats.put("approxBytes", current.approxBytes);
+        }
+        return stats;
+    }
+
+    private List<String> normalize(String query) {
+        return plainLexemes(jdbcTemplate.queryForObject(NORMALIZE_SQL, String.class, query));
+    }
+
+    /**
+     * Reads the text form of a tsquery such as {@code 'godfath' & 'part' & 'ii'}.
+     *
+     * @param tsquery Output of {@code websearch_to_tsquery(...)::text}
+     * @return The lexemes if the query is a plain AND of them, otherwise an
+     *         empty list (operators, prefixes, weights, or only stop words)
+     */
+    static List<String> plainLexemes(String tsquery) {
+        List<String> lexemes = new ArrayList<>();
+        if (tsquery == null) {
+            return lexemes;
+        }
+        int i = 0;
+        while (i < tsquery.length()) {
+            if (!lexemes.isEmpty()) {
+                if (!tsquery.startsWith(" & ", i)) {
+                    return List.of();
+                }
+                i += 3;
+            }
+            if (i >= tsquery.length() || tsquery.charAt(i) != '\'') {
+                return List.of();
+            }
+            StringBuilder lexeme = new StringBuilder();
+            for (i++; ; i++) {
+                if (i >= tsquery.length() || tsquery.charAt(i) == '\\') {
+                    return List.of();
+                }
+                if (tsquery.charAt(i) == '\'') {
+                    if (!tsquery.startsWith("''", i)) {
+                        break;
+                    }
+                    i++;
+                }
+                lexeme.append(tsquery.charAt(i));
+            }
+            lexemes.add(lexeme.toString());
+            i++;
+        }
+        return lexemes;
+    }
+
+    private Snapshot build(long version) {
+        long started = System.nanoTime();
+
+        MovieSortOrders sorts = movieSortOrders.get(version);
+        Map<String, Integer> ordinals = sorts.ordinals;
+        short[] years = new short[sorts.size()];
+        Map<String, IntList> tokens = new HashMap<>();
+
+        jdbcTemplate.query("SELECT id, year FROM movies", rs -> {
+            Integer ordinal = ordinals.get(rs.getString(1));
+            if (ordinal != null) {
+                years[ordinal] = rs.getShort(2);
+            }
+        });
+
+        // The lexemes the SQL path matches against, so both paths agree on every word
+        jdbcTemplate.query("SELECT m.id, d.lexeme FROM movies m CROSS JOIN LATERAL unnest(m.search_document) AS d", rs -> {
+            Integer ordinal = ordinals.get(rs.getString(1));
+            if (ordinal == null) {
+                return;
+            }
+            tokens.computeIfAbsent(rs.getString(2), t -> new IntList()).add(ordinal);
+        });
+
+        Map<Long, Integer> genreBits = new HashMap<>();
+        long[] genreMasks = new long[sorts.size()];
+        jdbcTemplate.query("SELECT genre_id, movie_id FROM genres_in_movies", rs -> {
+            Integer ordinal = ordinals.get(rs.getString(2));
+            if (ordinal == null) {
+                return;
+            }
+            Integer bit = genreBits.computeIfAbsent(rs.getLong(1), id -> genreBits.size());
+            if (bit < MAX_GENRES) {
+                genreMasks[ordinal] |= 1L << bit;
+            }
+        });
+        boolean genresIndexed = genreBits.size() <= MAX_GENRES;
+
+        Map<String, byte[]> postings = new HashMap<>(tokens.size() * 2);
+        long postingBytes = 0;
+        for (Map.Entry<String, IntList> entry : tokens.entrySet()) {
+            byte[] encoded = entry.getValue().encode();
+            postings.put(entry.getKey(), encoded);
+            postingBytes += encoded.length;
+        }
+
+        // Rough heap estimate: columns, posting arrays and their map entries (the
+        // shared sort orders are reported by MovieSortOrdersCache)
+        long approxBytes = 2L * years.length + 8L * genreMasks.length
+                + postingBytes + postings.size() * (16L + 48L + 48L);
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        return new Snapshot(version, sorts, postings, years, genresIndexed ? genreBits : null,
+                genresIndexed ? genreMasks : null, postingBytes, buildMillis, approxBytes);
+    }
+
+    /**
+     * One page of movie ids answered by the index.
+     */
+    public static final class Result {
+
+        private final List<String> movieIds;
+        private final int total;
+        private final boolean hasNext;
+        private final boolean hasPrev;
+
+        Result(List<String> movieIds, int total, boolean hasNext, boolean hasPrev) {
+            this.movieIds = movieIds;
+            this.total = total;
+            this.hasNext = hasNext;
+            this.hasPrev = hasPrev;
+        }
+
+        public List<String> getMovieIds() { return movieIds; }
+        public int getTotal() { return total; }
+        public boolean hasNext() { return hasNext; }
+        public boolean hasPrev() { return hasPrev; }
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final MovieSortOrders sorts;
+        private final Map<String, byte[]> postings;
+        private final short[] years;
+        private final Map<Long, Integer> genreBits;
+        private final long[] genreMasks;
+        private final long postingBytes;
+        private final long buildMillis;
+        private final long approxBytes;
+
+        private Snapshot(long version, MovieSortOrders sorts, Map<String, byte[]> postings, short[] years,
+                         Map<Long, Integer> genreBits, long[] genreMasks,
+                         long postingBytes, long buildMillis, long approxBytes) {
+            this.version = version;
+            this.sorts = sorts;
+            this.postings = postings;
+            this.years = years;
+            this.genreBits = genreBits;
+            this.genreMasks = genreMasks;
+            this.postingBytes = postingBytes;
+            this.buildMillis = buildMillis;
+            this.approxBytes = approxBytes;
+        }
+
+        private int[] intersect(List<String> words) {
+            List<byte[]> lists = new ArrayList<>(words.size());
+            for (String word : words) {
+                byte[] posting = postings.get(word);
+                if (posting == null) {
+                    return new int[0];
+                }
+                lists.add(posting);
+            }
+            lists.sort((a, b) -> Integer.compare(a.length, b.length));
+
+            int[] result = decode(lists.get(0));
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                int[] other = decode(lists.get(i));
+                int size = 0;
+                for (int a = 0, b = 0; a < result.length && b < other.length; ) {
+                    if (result[a] < other[b]) {
+                        a++;
+                    } else if (result[a] > other[b]) {
+                        b++;
+                    } else {
+                        result[size++] = result[a];
+                        a++;
+                        b++;
+                    }
+                }
+                result = Arrays.copyOf(result, size);
+            }
+            return result;
+        }
+
+        private boolean accepts(int ordinal, SearchCriteria criteria, long genreBit) {
+            int year = years[ordinal];
+            if (year == 0 && (criteria.getYear() != null || criteria.getYearFrom() != null || criteria.getYearTo() != null)) {
+                return false;
+            }
+            if (criteria.getYear() != null && year != criteria.getYear()) {
+                return false;
+            }
+            if (criteria.getYearFrom() != null && year < criteria.getYearFrom()) {
+                return false;
+            }
+            if (criteria.getYearTo() != null && year > criteria.getYearTo()) {
+                return false;
+            }
+            return genreBit == 0 || (genreMasks[ordinal] & genreBit) != 0;
+        }
+    }
+
+    /**
+     * Decodes a posting list: a varint count followed by varint gaps between
+     * consecutive ordinals.
+     */
+    private static int[] decode(byte[] posting) {
+        int[] position = {0};
+        int[] values = new int[readVarint(posting, position)];
+        int previous = 0;
+        for (int i = 0; i < values.length; i++) {
+            previous += readVarint(posting, position);
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static int readVarint(byte[] bytes, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Growable int array used while collecting postings.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            // Consecutive duplicates are dropped early
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private byte[] encode() {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (unique == 0 || sorted[i] != sorted[unique - 1]) {
+                    sorted[unique++] = sorted[i];
+                }
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(unique + 4);
+            writeVarint(out, unique);
+            int previous = 0;
+            for (int i = 0; i < unique; i++) {
+                writeVarint(out, sorted[i] - previous);
+                previous = sorted[i];
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Bounded max-heap keeping the {@code capacity} smallest keys offered.
+     */
+    private static final class TopK {
+
+        private final int[] heap;
+        private int size;
+
+        private TopK(int capacity) {
+            this.heap = new int[capacity];
+        }
+
+        private void offer(int key) {
+            if (heap.length == 0) {
+                return;
+            }
+            if (size < heap.length) {
+                int i = size++;
+                heap[i] = key;
+                while (i > 0 && heap[(i - 1) / 2] < heap[i]) {
+                    swap(i, (i - 1) / 2);
+                    i = (i - 1) / 2;
+                }
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                int i = 0;
+                while (true) {
+                    int largest = i;
+                    int left = 2 * i + 1;
+                    int right = left + 1;
+                    if (left < size && heap[left] > heap[largest]) {
+                        largest = left;
+                    }
+                    if (right < size && heap[right] > heap[largest]) {
+                        largest = right;
+                    }
+                    if (largest == i) {
+                        break;
+                    }
+                    swap(i, largest);
+                    i = largest;
+                }
+            }
+        }
+
+        private void swap(int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+
+        private int[] sorted() {
+            int[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            return keys;
+        }
+    }
+}
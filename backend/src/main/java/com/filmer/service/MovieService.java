@@ -0,0 +1,335 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.BatchResponse;
+import com.filmer.dto.response.MovieDetailResponse;
+import com.filmer.dto.response.MovieListItemResponse;
+import com.filmer.dto.response.PaginatedResponse;
+import com.filmer.dto.response.SimilarMoviesResponse;
+import com.filmer.exception.BadRequestException;
+import com.filmer.exception.ResourceNotFoundException;
+import com.filmer.service.query.BatchIds;
+import com.filmer.service.query.JdbcRows;
+import com.filmer.service.query.CountMode;
+import com.filmer.service.query.FieldSet;
+import com.filmer.service.query.KeysetCursor;
+import com.filmer.service.query.KeysetPage;
+import com.filmer.service.query.KeysetQuery;
+import com.filmer.service.query.MovieSortField;
+import com.filmer.service.query.PageCount;
+import com.filmer.service.query.PageRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for movie listing and detail queries.
+ */
+@Service
+public class MovieService {
+
+    static final String MOVIE_COLUMNS = "m.id, m.title, m.year, m.director, m.rating_rank, r.rating, r.num_votes";
+    static final String MOVIE_FROM = "movies m LEFT JOIN ratings r ON r.movie_id = m.id";
+
+    /**
+     * List columns without the ratings join, for fieldsets that select neither
+     * rating nor numVotes; the row mapper reads the NULLs as absent. Rating
+     * sorts do not need the join either, since rating_rank is on movies.
+     */
+    static final String MOVIE_COLUMNS_UNRATED =
+            "m.id, m.title, m.year, m.director, m.rating_rank, NULL::numeric AS rating, NULL::integer AS num_votes";
+    static final String MOVIE_FROM_UNRATED = "movies m";
+
+    static final RowMapper<MovieListItemResponse> MOVIE_LIST_ROW = (rs, rowNum) -> {
+        MovieListItemResponse item = new MovieListItemResponse();
+        item.setId(rs.getString("id"));
+        item.setTitle(rs.getString("title"));
+        item.setYear(JdbcRows.getShort(rs, "year"));
+        item.setDirector(rs.getString("director"));
+        item.setRatingRank(rs.getInt("rating_rank"));
+        item.setRating(rs.getBigDecimal("rating"));
+        item.setNumVotes(JdbcRows.getInteger(rs, "num_votes"));
+        return item;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private MovieListHydrator movieListHydrator;
+
+    @Autowired
+    private DetailCache detailCache;
+
+    @Autowired
+    private BrowseIndex browseIndex;
+
+    @Autowired
+    private MovieDetailLoader movieDetailLoader;
+
+    @Autowired
+    private SimilarMoviesIndex similarMoviesIndex;
+
+    /**
+     * Lists movies, optionally restricted to titles starting with a letter.
+     *
+     * <p>Letter buckets are sliced from {@link BrowseIndex} when it is
+     * current, with exact totals taken from the bucket size; otherwise the
+     * bucket is read in SQL through the (browse_letter, sort key, id)
+     * indexes.</p>
+     *
+     * @param sort       Sort field
+     * @param page       Validated pagination parameters (page number or cursor)
+     * @param startsWith A-Z (either case), or * for titles not starting with a letter; null for all
+     * @param fields     Item fields to materialize; unselected genres, stars and ratings are not queried
+     * @return The requested page with cursors for seeking onwards
+     */
+    public PaginatedResponse<MovieListItemResponse> listMovies(MovieSortField sort, PageRequest page, String startsWith,
+                                                              FieldSet fields) {
+        String letter = browseLetter(startsWith);
+        if (letter != null) {
+            BrowseIndex.Slice slice = browseIndex.letterSlice(letter, sort, page);
+            if (slice != null) {
+                return indexedPage(slice.getMovieIds(), slice.getTotal(), slice.hasNext(), slice.hasPrev(),
+                        sort, page, fields);
+            }
+        }
+
+        boolean rated = needsRatings(fields);
+        KeysetQuery query = KeysetQuery.select(rated ? MOVIE_COLUMNS : MOVIE_COLUMNS_UNRATED)
+                .from(rated ? MOVIE_FROM : MOVIE_FROM_UNRATED)
+                .orderBy(sort, "m.id");
+        if (letter != null) {
+            query.where("m.browse_letter = ?", letter);
+        }
+
+        KeysetPage<MovieListItemResponse> result = query.fetch(jdbcTemplate, page, MOVIE_LIST_ROW);
+        materialize(result.getItems(), fields);
+
+        PaginatedResponse<MovieListItemResponse> response =
+                new PaginatedResponse<>(result.getItems(), page.getPage(), page.getSize());
+        pageCountService.count(query, page, result).applyTo(response);
+        response.setNextCursor(result.getNextCursor());
+        response.setPrevCursor(result.getPrevCursor());
+        response.setFields(fields.names());
+        return response;
+    }
+
+    /**
+     * @return Whether the fieldset needs the ratings join
+     */
+    static boolean needsRatings(FieldSet fields) {
+        return fields.includes("rating") || fields.includes("numVotes");
+    }
+
+    /**
+     * Hydrates the selected genres and stars of a page and limits each
+     * item's JSON to the fieldset.
+     */
+    void materialize(List<MovieListItemResponse> items, FieldSet fields) {
+        movieListHydrator.hydrate(items, fields.includes("genres"), fields.includes("stars"));
+        if (!fields.isAll()) {
+            Set<String> selection = fields.selection();
+            for (MovieListItemResponse item : items) {
+                item.setSelectedFields(selection);
+            }
+        }
+    }
+
+    /**
+     * @return The browse_letter bucket for a startsWith value, or null for all movies
+     * @throws BadRequestException if the value is not a single letter A-Z or *
+     */
+    private static String browseLetter(String startsWith) {
+        if (startsWith == null || startsWith.isEmpty()) {
+            return null;
+        }
+        if ("*".equals(startsWith)) {
+            return startsWith;
+        }
+        char c = startsWith.charAt(0);
+        if (startsWith.length() == 1 && c < 128 && Character.isLetter(c)) {
+            return String.valueOf(Character.toUpperCase(c));
+        }
+        throw new BadRequestException("startsWith must be a single letter A-Z or *");
+    }
+
+    /**
+     * Builds a page whose movie ids and counts were resolved in memory:
+     * loads and hydrates the rows and issues cursors the SQL path accepts.
+     * Totals are exact unless hasMore was asked for.
+     */
+    PaginatedResponse<MovieListItemResponse> indexedPage(List<String> movieIds, long total, boolean hasNext,
+                                                         boolean hasPrev, MovieSortField sort, PageRequest page,
+                                                         FieldSet fields) {
+        List<MovieListItemResponse> items = findListItems(movieIds, needsRatings(fields));
+        materialize(items, fields);
+
+        PaginatedResponse<MovieListItemResponse> response =
+                new PaginatedResponse<>(items, page.getPage(), page.getSize());
+        PageCount count = page.getCountMode() == CountMode.HAS_MORE
+                ? PageCount.hasMoreOnly(hasNext)
+                : PageCount.of(CountMode.EXACT, total, page.getSize(), hasNext);
+        count.applyTo(response);
+        if (!items.isEmpty()) {
+            MovieListItemResponse first = items.get(0);
+            MovieListItemResponse last = items.get(items.size() - 1);
+            if (hasNext) {
+                response.setNextCursor(new KeysetCursor(sort.param(), page.isDescending(), false,
+                        last.getId(), sortValue(last, sort)).encode());
+            }
+            if (hasPrev) {
+                response.setPrevCursor(new KeysetCursor(sort.param(), page.isDescending(), true,
+                        first.getId(), sortValue(first, sort)).encode());
+            }
+        }
+        response.setFields(fields.names());
+        return response;
+    }
+
+    /**
+     * Loads list rows for the given movies, in the given order, without
+     * genres and stars. Ids that do not exist are skipped.
+     *
+     * @param rated Whether to join ratings; without it rating and numVotes are null
+     */
+    List<MovieListItemResponse> findListItems(List<String> movieIds, boolean rated) {
+        if (movieIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, MovieListItemResponse> rows = new HashMap<>();
+        jdbcTemplate.query("SELECT " + (rated ? MOVIE_COLUMNS : MOVIE_COLUMNS_UNRATED) +
+                        " FROM " + (rated ? MOVIE_FROM : MOVIE_FROM_UNRATED) + " WHERE m.id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", movieIds.toArray())),
+                rs -> {
+                    MovieListItemResponse item = MOVIE_LIST_ROW.mapRow(rs, 0);
+                    rows.put(item.getId(), item);
+                });
+
+        List<MovieListItemResponse> items = new ArrayList<>(movieIds.size());
+        for (String movieId : movieIds) {
+            MovieListItemResponse item = rows.get(movieId);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Renders the sort key of a row the way {@link MovieSortField#expression()}
+     * does in SQL, so cursors issued for in-memory results can also be
+     * resolved by {@link KeysetQuery}.
+     */
+    static String sortValue(MovieListItemResponse item, MovieSortField sort) {
+        switch (sort) {
+            case YEAR:
+                return item.getYear() == null ? "0" : item.getYear().toString();
+            case RATING:
+                return item.getRatingRank() == null ? "0" : item.getRatingRank().toString();
+            default:
+                return item.getTitle();
+        }
+    }
+
+    /**
+     * Returns a movie with all of its genres and stars, served from the
+     * detail cache when possible. Concurrent misses for the same movie
+     * share one load inside the cache, so they are not coalesced again.
+     *
+     * @param movieId Movie ID
+     * @return The movie details
+     * @throws ResourceNotFoundException if no movie has the given ID
+     * @throws org.springframework.dao.QueryTimeoutException if loading an uncached movie timed out
+     */
+    public MovieDetailResponse getMovieDetails(String movieId) {
+        return detailCache.getMovie(movieId, this::loadMovieDetails);
+    }
+
+    /**
+     * Returns the details of many movies at once, in request order.
+     *
+     * <p>Cached movies are taken from the detail cache; all misses are then
+     * loaded together by {@link MovieDetailLoader}, so the number of queries
+     * does not depend on how many ids are asked for.</p>
+     *
+     * @param movieIds Validated ids
+     * @return One item per requested id; ids that do not exist are marked not found
+     */
+    public BatchResponse<MovieDetailResponse> getMovieDetailsBatch(BatchIds movieIds) {
+        Map<String, MovieDetailResponse> movies = detailCache.getMovies(movieIds.distinct(), movieDetailLoader::load);
+        List<BatchResponse.Item<MovieDetailResponse>> items = new ArrayList<>(movieIds.requested().size());
+        for (String movieId : movieIds.requested()) {
+            items.add(new BatchResponse.Item<>(movieId, movies.get(movieId)));
+        }
+        return new BatchResponse<>(items);
+    }
+
+    /**
+     * Returns the movies most similar to one movie by shared cast and
+     * genres, from the precomputed {@link SimilarMoviesIndex}.
+     *
+     * @param movieId Movie ID
+     * @param limit   Maximum number of similar movies
+     * @return Similar movies, most similar first; empty if the movie is newer than the lists
+     * @throws BadRequestException if the limit is out of range
+     * @throws ResourceNotFoundException if no movie has the given ID
+     */
+    public SimilarMoviesResponse getSimilarMovies(String movieId, int limit) {
+        int max = similarMoviesIndex.getMaxLimit();
+        if (limit < 1 || limit > max) {
+            throw new BadRequestException("limit must be between 1 and " + max);
+        }
+        List<SimilarMovieNeighbors.Neighbor> neighbors = similarMoviesIndex.similar(movieId, limit);
+        if (neighbors == null) {
+            if (findListItems(Collections.singletonList(movieId), false).isEmpty()) {
+                throw new ResourceNotFoundException("Movie not found with id: " + movieId);
+            }
+            return new SimilarMoviesResponse(movieId, new ArrayList<>());
+        }
+
+        List<String> movieIds = new ArrayList<>(neighbors.size());
+        for (SimilarMovieNeighbors.Neighbor neighbor : neighbors) {
+            movieIds.add(neighbor.getMovieId());
+        }
+        Map<String, MovieListItemResponse> rows = new HashMap<>();
+        for (MovieListItemResponse row : findListItems(movieIds, true)) {
+            rows.put(row.getId(), row);
+        }
+        List<SimilarMoviesResponse.SimilarMovie> items = new ArrayList<>(neighbors.size());
+        for (SimilarMovieNeighbors.Neighbor neighbor : neighbors) {
+            MovieListItemResponse row = rows.get(neighbor.getMovieId());
+            if (row == null) {
+                continue;
+            }
+            SimilarMoviesResponse.SimilarMovie item = new SimilarMoviesResponse.SimilarMovie();
+            item.setId(row.getId());
+            item.setTitle(row.getTitle());
+            item.setYear(row.getYear());
+            item.setDirector(row.getDirector());
+            item.setRating(row.getRating());
+            item.setNumVotes(row.getNumVotes());
+            item.setSimilarity(Math.round(neighbor.getSimilarity() * 10000) / 10000.0);
+            items.add(item);
+        }
+        return new SimilarMoviesResponse(movieId, items);
+    }
+
+    private MovieDetailResponse loadMovieDetails(String movieId) {
+        MovieDetailResponse movie = movieDetailLoader.load(Collections.singleton(movieId)).get(movieId);
+        if (movie == null) {
+            throw new ResourceNotFoundException("Movie not found with id: " + movieId);
+        }
+        return movie;
+    }
+}
@@ -0,0 +1,101 @@
+package com.filmer.service;
+
+import com.filmer.service.query.MovieSortField;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The whole catalog ranked once per {@link MovieSortField}, for in-memory indexes.
+ *
+ * <p>Every movie gets a dense ordinal (its position in title order) and,
+ * per sort field, a global rank from {@code ORDER BY expression, id} as
+ * computed by the database, i.e. exactly the order the SQL path returns.
+ * Comparing ranks therefore reproduces SQL ordering, ties included.
+ * Indexes get it from {@link MovieSortOrdersCache}, which loads it once per
+ * catalog version.</p>
+ */
+final class MovieSortOrders {
+
+    private static final MovieSortField[] SORTS = MovieSortField.values();
+
+    /**
+     * Movie ids indexed by ordinal.
+     */
+    final String[] ids;
+
+    final Map<String, Integer> ordinals;
+
+    /**
+     * {@code order[sort][rank]} is the ordinal at that rank.
+     */
+    final int[][] order;
+
+    /**
+     * {@code rank[sort][ordinal]} is the position of the movie in that sort.
+     */
+    final int[][] rank;
+
+    private MovieSortOrders(String[] ids, Map<String, Integer> ordinals, int[][] order, int[][] rank) {
+        this.ids = ids;
+        this.ordinals = ordinals;
+        this.order = order;
+        this.rank = rank;
+    }
+
+    static MovieSortOrders load(JdbcTemplate jdbcTemplate) {
+        // Ordinals follow the title order, so the title rank is the ordinal itself
+        List<String> idList = new ArrayList<>();
+        jdbcTemplate.query(orderSql(MovieSortField.TITLE), rs -> {
+            idList.add(rs.getString(1));
+        });
+        String[] ids = idList.toArray(new String[0]);
+        Map<String, Integer> ordinals = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            ordinals.put(ids[i], i);
+        }
+
+        int[][] order = new int[SORTS.length][];
+        int[][] rank = new int[SORTS.length][];
+        for (MovieSortField sort : SORTS) {
+            int[] sortOrder = new int[ids.length];
+            int[] sortRank = new int[ids.length];
+            if (sort == MovieSortField.TITLE) {
+                for (int i = 0; i < ids.length; i++) {
+                    sortOrder[i] = i;
+                    sortRank[i] = i;
+                }
+            } else {
+                int[] position = {0};
+                jdbcTemplate.query(orderSql(sort), rs -> {
+                    Integer ordinal = ordinals.get(rs.getString(1));
+                    if (ordinal != null && position[0] < ids.length) {
+                        sortOrder[position[0]] = ordinal;
+                        sortRank[ordinal] = position[0]++;
+                    }
+                });
+            }
+            order[sort.ordinal()] = sortOrder;
+            rank[sort.ordinal()] = sortRank;
+        }
+        return new MovieSortOrders(ids, ordinals, order, rank);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return Rough heap estimate: id strings, their map entries and the order/rank arrays
+     */
+    long approxBytes() {
+        return ids.length * (56L + 48L) + 2L * SORTS.length * 4L * ids.length;
+    }
+
+    private static String orderSql(MovieSortField sort) {
+        return "SELECT m.id FROM movies m ORDER BY " + sort.expression() + ", m.id";
+    }
+}
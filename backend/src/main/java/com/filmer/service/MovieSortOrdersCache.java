@@ -0,0 +1,56 @@
+package com.filmer.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One {@link MovieSortOrders} per catalog version, shared by the in-memory
+ * indexes.
+ *
+ * <p>Loading the sort orders runs one full-catalog {@code ORDER BY} per
+ * sort field. The first index to rebuild for a catalog version loads them;
+ * the others reuse the same ids, ordinals and rank arrays.</p>
+ */
+@Component
+public class MovieSortOrdersCache {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long version = -1;
+    private MovieSortOrders sorts;
+    private long buildMillis;
+
+    /**
+     * @param version Catalog version being applied
+     * @return The sort orders of that version, loaded on first use
+     */
+    synchronized MovieSortOrders get(long version) {
+        if (sorts == null || this.version != version) {
+            long started = System.nanoTime();
+            sorts = MovieSortOrders.load(jdbcTemplate);
+            this.version = version;
+            buildMillis = (System.nanoTime() - started) / 1_000_000;
+        }
+        return sorts;
+    }
+
+    /**
+     * @return Version, size, memory and load time of the current sort orders
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", sorts != null);
+        if (sorts != null) {
+            stats.put("version", version);
+            stats.put("movies", sorts.size());
+            stats.put("buildMillis", buildMillis);
+            stats.put("approxBytes", sorts.approxBytes());
+        }
+        return stats;
+    }
+}
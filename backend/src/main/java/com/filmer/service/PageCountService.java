@@ -0,0 +1,91 @@
+package com.filmer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.filmer.service.query.KeysetPage;
+import com.filmer.service.query.KeysetQuery;
+import com.filmer.service.query.PageCount;
+import com.filmer.service.query.PageRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Produces the totals of paginated responses according to the requested
+ * {@link com.filmer.service.query.CountMode}.
+ *
+ * <p>Exact counts are cached per normalized filter (count SQL plus bound
+ * parameters) and catalog version, so paging through one listing counts
+ * it once. The cache holds at most {@value #MAX_CACHED_COUNTS} filters,
+ * evicting the least valuable one at a time, concurrent misses on one
+ * filter share a single count, and it is dropped whenever the catalog
+ * changes. Estimates come from the planner's row estimate and never touch
+ * the table rows.
+ * In hasMore mode nothing is counted.</p>
+ */
+@Service
+public class PageCountService {
+
+    private static final int MAX_CACHED_COUNTS = 10000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Cache<String, Long> exactCounts = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_COUNTS)
+            .build();
+
+    /**
+     * @param query  The query the page was fetched with
+     * @param page   The pagination parameters, including the count mode
+     * @param result The fetched page
+     * @return Totals for the response
+     */
+    public PageCount count(KeysetQuery query, PageRequest page, KeysetPage<?> result) {
+        switch (page.getCountMode()) {
+            case ESTIMATE:
+                // Never report fewer rows than this request has already seen
+                long seen = (page.hasCursor() ? 0 : page.getOffset()) + result.getItems().size()
+                        + (result.hasNext() ? 1 : 0);
+                return PageCount.of(page.getCountMode(), Math.max(estimate(query), seen), page.getSize(), result.hasNext());
+            case HAS_MORE:
+                return PageCount.hasMoreOnly(result.hasNext());
+            default:
+                return PageCount.of(page.getCountMode(), exactCount(query), page.getSize(), result.hasNext());
+        }
+    }
+
+    private long exactCount(KeysetQuery query) {
+        Object[] params = query.filterParams();
+        String key = catalogVersionService.getVersion() + "|" + query.countSql() + "|" + Arrays.toString(params);
+        return exactCounts.get(key, k -> query.count(jdbcTemplate));
+    }
+
+    private long estimate(KeysetQuery query) {
+        String plan = query.execute(jdbcTemplate,
+                t -> t.queryForObject(query.estimateSql(), String.class, query.filterParams()));
+        try {
+            JsonNode root = objectMapper.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong(0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not parse query plan", e);
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        exactCounts.invalidateAll();
+    }
+}
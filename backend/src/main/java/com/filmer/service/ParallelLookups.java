@@ -0,0 +1,217 @@
+package com.filmer.service;
+
+import com.filmer.config.DataSourceRoute;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent database lookups of one request in parallel, in a
+ * scope that behaves like a structured task scope: the caller forks the
+ * lookups, joins them, and a failure or timeout of any one cancels the rest.
+ *
+ * <p>Lookups run on a bounded pool of daemon threads. Each one holds a
+ * permit of a global semaphore while it uses the database, so all scopes
+ * together never hold more than {@code filmer.lookups.max-db-concurrency}
+ * pooled connections and requests doing ordinary queries are not starved.
+ * Each lookup must finish within {@code filmer.lookups.timeout-ms} of
+ * being forked, including the time spent waiting for a thread or a permit.</p>
+ *
+ * <p>Cancelled lookups that have not started never run and those waiting
+ * for a permit stop waiting; a statement already executing is left to
+ * finish and its result is dropped. With {@code filmer.lookups.parallel=false}
+ * lookups run one after another on the calling thread.</p>
+ *
+ * <p>Forked lookups use the {@link DataSourceRoute} of the thread that forked them.</p>
+ */
+@Component
+public class ParallelLookups implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final Semaphore dbPermits;
+    private final long timeoutMillis;
+    private final boolean parallel;
+
+    private final LongAdder forked = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+
+    public ParallelLookups(@Value("${filmer.lookups.threads:8}") int threads,
+                           @Value("${filmer.lookups.max-db-concurrency:6}") int maxDbConcurrency,
+                           @Value("${filmer.lookups.timeout-ms:2000}") long timeoutMillis,
+                           @Value("${filmer.lookups.parallel:true}") boolean parallel) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 64),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "lookup-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.dbPermits = new Semaphore(maxDbConcurrency, true);
+        this.timeoutMillis = timeoutMillis;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Opens a scope for one request's lookups; use it in try-with-resources.
+     */
+    public Scope open() {
+        return new Scope();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return Counters since startup and the database permits free now
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("parallel", parallel);
+        stats.put("forked", forked.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("failed", failed.sum());
+        stats.put("cancelled", cancelled.sum());
+        stats.put("dbPermitsAvailable", dbPermits.availablePermits());
+        return stats;
+    }
+
+    /**
+     * The lookups of one request. Not thread-safe; owned by the calling thread.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final List<CompletableFuture<?>> results = new ArrayList<>();
+        private final List<Future<?>> tasks = new ArrayList<>();
+        private final CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+
+        private Scope() {
+        }
+
+        /**
+         * Starts a lookup. Its result is available from the returned future
+         * once {@link #join()} has returned.
+         *
+         * @param lookup A database lookup independent of the others in the scope
+         */
+        public <T> CompletableFuture<T> fork(Supplier<T> lookup) {
+            forked.increment();
+            CompletableFuture<T> result = new CompletableFuture<>();
+            results.add(result);
+            result.whenComplete((value, e) -> {
+                if (e != null) {
+                    firstFailure.completeExceptionally(e);
+                }
+            });
+
+            if (!parallel) {
+                if (!firstFailure.isDone()) {
+                    run(lookup, result);
+                }
+                return result;
+            }
+            result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            DataSourceRoute route = DataSourceRoute.current();
+            tasks.add(executor.submit(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    if (!dbPermits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                        result.completeExceptionally(new TimeoutException("No database permit within " + timeoutMillis + " ms"));
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    result.completeExceptionally(new CancellationException("Cancelled while waiting for a database permit"));
+                    return;
+                }
+                try {
+                    DataSourceRoute.runWith(route, () -> run(lookup, result));
+                } finally {
+                    dbPermits.release();
+                }
+            }));
+            return result;
+        }
+
+        private <T> void run(Supplier<T> lookup, CompletableFuture<T> result) {
+            try {
+                result.complete(lookup.get());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Waits until every lookup has completed, or until the first one fails
+         * or times out, in which case the others are cancelled and that
+         * failure is rethrown.
+         *
+         * @throws QueryTimeoutException if a lookup did not finish in time
+         */
+        public void join() {
+            CompletableFuture<Void> all = CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]));
+            try {
+                CompletableFuture.anyOf(all, firstFailure).join();
+            } catch (CompletionException | CancellationException e) {
+                cancelAll();
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    timedOut.increment();
+                    throw new QueryTimeoutException("Lookup did not finish within " + timeoutMillis + " ms", cause);
+                }
+                failed.increment();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+
+        /**
+         * Cancels any lookup still pending, e.g. when the caller leaves early.
+         */
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private void cancelAll() {
+            for (CompletableFuture<?> result : results) {
+                if (result.cancel(false)) {
+                    cancelled.increment();
+                }
+            }
+            for (Future<?> task : tasks) {
+                task.cancel(true);
+            }
+        }
+    }
+}
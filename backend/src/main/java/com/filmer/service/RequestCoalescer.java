@@ -0,0 +1,105 @@
+package com.filmer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical concurrent requests.
+ *
+ * <p>The first caller for a key runs the computation; callers arriving
+ * with the same key while it is in flight wait for it and share its
+ * result, or its exception (so e.g. a 404 is shared too). Nothing is
+ * kept once the computation finishes, so this only merges requests that
+ * overlap in time; caching is left to {@link DetailCache}.</p>
+ *
+ * <p>Waiting is bounded: a caller that has waited
+ * {@code filmer.coalescing.timeout-ms} without a result runs the
+ * computation itself rather than failing.</p>
+ *
+ * <p>Shared results are handed to several requests and must not be modified.</p>
+ */
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder failuresShared = new LongAdder();
+
+    public RequestCoalescer(@Value("${filmer.coalescing.timeout-ms:5000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs the computation, or joins an identical one already in flight.
+     *
+     * @param key         Endpoint and normalized parameters; equal keys must produce equal results
+     * @param computation Produces the result
+     * @return The result of this or the joined computation
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> computation) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+        if (running == null) {
+            executed.increment();
+            try {
+                T result = computation.get();
+                own.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                own.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, own);
+            }
+        }
+
+        coalesced.increment();
+        try {
+            return (T) running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            failuresShared.increment();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            return computation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+
+    /**
+     * @return Counters since startup: computations run, requests that joined
+     *         one, joins that timed out or received an exception, and keys in flight now
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("executed", executed.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("failuresShared", failuresShared.sum());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+}
@@ -0,0 +1,172 @@
+package com.filmer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filmer.dto.response.ApiResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of hot catalog responses as final bytes: the JSON of the
+ * {@link ApiResponse} envelope, plus a gzip variant compressed once at
+ * maximum level.
+ *
+ * <p>A hit returns the stored array as the response body, so no object
+ * graph is built, Jackson does not run and, because the gzip variant is
+ * already labelled {@code Content-Encoding: gzip}, the container does not
+ * compress it again. The cache is bounded by total bytes and emptied when
+ * the catalog version changes. Exceptions (e.g. not found) are not cached.</p>
+ */
+@Component
+public class ResponseBytesCache {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Cache<String, SerializedResponse> responses;
+
+    public ResponseBytesCache(@Value("${filmer.cache.bytes.max-bytes:67108864}") long maxBytes,
+                              @Value("${filmer.cache.detail.ttl-minutes:60}") long ttlMinutes) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, SerializedResponse value) -> value.weight(key))
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param key  Endpoint and parameters identifying the response
+     * @param data Produces the response payload on a miss
+     * @return The serialized {@code ApiResponse.success(data)}
+     */
+    public SerializedResponse get(String key, Supplier<?> data) {
+        return responses.get(key, k -> serialize(ApiResponse.success(data.get())));
+    }
+
+    /**
+     * Runs before the index rebuilds, so new requests stop getting
+     * entries built from the previous catalog as early as possible.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        responses.invalidateAll();
+    }
+
+    /**
+     * @return Entry count, hit and miss counters
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = responses.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", responses.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private SerializedResponse serialize(Object body) {
+        try {
+            return SerializedResponse.of(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    /**
+     * JSON bytes of one response, with a gzip variant when it is smaller.
+     */
+    public static final class SerializedResponse {
+
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        private SerializedResponse(byte[] identity, byte[] gzip) {
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        public static SerializedResponse of(byte[] json) {
+            byte[] compressed = gzip(json);
+            return new SerializedResponse(json, compressed.length < json.length ? compressed : null);
+        }
+
+        /**
+         * @param acceptEncoding The request's Accept-Encoding header, may be null
+         * @return A 200 response carrying the gzip variant if the client accepts it
+         */
+        public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip != null && acceptsGzip(acceptEncoding)) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+            }
+            return response.body(identity);
+        }
+
+        public byte[] getIdentity() { return identity; }
+        public byte[] getGzip() { return gzip; }
+
+        private int weight(String key) {
+            return 64 + 2 * key.length() + identity.length + (gzip == null ? 0 : gzip.length);
+        }
+
+        static boolean acceptsGzip(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return false;
+            }
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.trim().split(";");
+                String name = parts[0].trim();
+                if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                    for (int i = 1; i < parts.length; i++) {
+                        String param = parts[i].replace(" ", "");
+                        if (param.matches("q=0(\\.0{0,3})?")) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static byte[] gzip(byte[] data) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                out.write(data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.MovieListItemResponse;
+import com.filmer.dto.response.PaginatedResponse;
+import com.filmer.exception.BadRequestException;
+import com.filmer.service.query.FieldSet;
+import com.filmer.service.query.KeysetPage;
+import com.filmer.service.query.KeysetQuery;
+import com.filmer.service.query.LikePatterns;
+import com.filmer.service.query.MovieSortField;
+import com.filmer.service.query.PageRequest;
+import com.filmer.service.query.SearchCriteria;
+import com.filmer.service.query.SearchSortField;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for keyword search and advanced movie filtering.
+ *
+ * <p>The {@code query} keyword is matched against {@code movies.search_document},
+ * a tsvector of title, director and star names maintained by the data loader
+ * and indexed with GIN, so keyword search never scans movies or joins stars.
+ * Results can be ordered by {@code ts_rank} relevance.</p>
+ *
+ * <p>Searches sorted by title, year or rating that only use the keyword,
+ * year and genre filters are first offered to {@link MovieSearchIndex},
+ * which answers them from memory; SQL is used when it declines.</p>
+ */
+@Service
+public class SearchService {
+
+    /**
+     * Text search configuration; must match the one used by the loader to
+     * build search documents.
+     */
+    static final String TEXT_SEARCH_CONFIG = "english";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private MovieSearchIndex movieSearchIndex;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    /**
+     * Searches movies. Concurrent identical searches share one execution.
+     *
+     * @param criteria Search filters; at least one must be present
+     * @param sortBy   Sort field, or null for relevance when a keyword is given and title otherwise
+     * @param page     Validated pagination parameters (page number or cursor)
+     * @param fields   Item fields to materialize; unselected genres, stars and ratings are not queried
+     * @return The requested page with cursors for seeking onwards
+     * @throws BadRequestException if no filter is present or relevance is requested without a keyword
+     */
+    public PaginatedResponse<MovieListItemResponse> searchMovies(SearchCriteria criteria, String sortBy, PageRequest page,
+                                                                FieldSet fields) {
+        if (!criteria.hasAny()) {
+            throw new BadRequestException("At least one search parameter must be provided");
+        }
+
+        SearchSortField sort;
+        if (sortBy == null || sortBy.isEmpty()) {
+            sort = criteria.getQuery() != null ? SearchSortField.RELEVANCE : SearchSortField.TITLE;
+        } else {
+            sort = SearchSortField.fromParam(sortBy);
+        }
+        if (sort == SearchSortField.RELEVANCE && criteria.getQuery() == null) {
+            throw new BadRequestException("sortBy=relevance requires a query");
+        }
+
+        String key = "search:" + criteria.key() + "\u001F" + sort.param() + "\u001F" + page.key() +
+                "\u001F" + fields.key();
+        return requestCoalescer.execute(key, () -> search(criteria, sort, page, fields));
+    }
+
+    private PaginatedResponse<MovieListItemResponse> search(SearchCriteria criteria, SearchSortField sort,
+                                                            PageRequest page, FieldSet fields) {
+        MovieSortField movieSort = sort.movieSortField();
+        if (movieSort != null) {
+            MovieSearchIndex.Result indexed = movieSearchIndex.search(criteria, movieSort, page);
+            if (indexed != null) {
+                return fromIndex(indexed, movieSort, page, fields);
+            }
+        }
+
+        boolean rated = MovieService.needsRatings(fields);
+        String from = rated ? MovieService.MOVIE_FROM : MovieService.MOVIE_FROM_UNRATED;
+        KeysetQuery query = KeysetQuery.select(rated ? MovieService.MOVIE_COLUMNS : MovieService.MOVIE_COLUMNS_UNRATED);
+        if (criteria.getQuery() != null) {
+            query.from(from +
+                            " CROSS JOIN websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', ?) AS q(query)",
+                            criteria.getQuery())
+                    .where("m.search_document @@ q.query");
+        } else {
+            query.from(from);
+        }
+        query.orderBy(sort, "m.id");
+
+        if (criteria.getTitle() != null) {
+            query.where("m.title ILIKE ?", LikePatterns.contains(criteria.getTitle())).customPlans();
+        }
+        if (criteria.getYear() != null) {
+            query.where("m.year = ?", criteria.getYear());
+        }
+        if (criteria.getYearFrom() != null) {
+            query.where("m.year >= ?", criteria.getYearFrom());
+        }
+        if (criteria.getYearTo() != null) {
+            query.where("m.year <= ?", criteria.getYearTo());
+        }
+        if (criteria.getDirector() != null) {
+            query.where("m.director ILIKE ?", LikePatterns.contains(criteria.getDirector())).customPlans();
+        }
+        if (criteria.getStar() != null) {
+            // Uncorrelated so the planner can start from the trigram index on stars.name
+            query.where("m.id IN (SELECT sim.movie_id FROM stars s JOIN stars_in_movies sim ON sim.star_id = s.id " +
+                        "WHERE s.name ILIKE ?)", LikePatterns.contains(criteria.getStar())).customPlans();
+        }
+        if (criteria.getGenreId() != null) {
+            query.where("EXISTS (SELECT 1 FROM genres_in_movies gim WHERE gim.movie_id = m.id AND gim.genre_id = ?)",
+                        criteria.getGenreId());
+        }
+
+        KeysetPage<MovieListItemResponse> result = query.fetch(jdbcTemplate, page, MovieService.MOVIE_LIST_ROW);
+        movieService.materialize(result.getItems(), fields);
+
+        PaginatedResponse<MovieListItemResponse> response =
+                new PaginatedResponse<>(result.getItems(), page.getPage(), page.getSize());
+        pageCountService.count(query, page, result).applyTo(response);
+        response.setNextCursor(result.getNextCursor());
+        response.setPrevCursor(result.getPrevCursor());
+        response.setFields(fields.names());
+        return response;
+    }
+
+    private PaginatedResponse<MovieListItemResponse> fromIndex(MovieSearchIndex.Result indexed,
+                                                               MovieSortField sort, PageRequest page, FieldSet fields) {
+        return movieService.indexedPage(indexed.getMovieIds(), indexed.getTotal(),
+                indexed.hasNext(), indexed.hasPrev(), sort, page, fields);
+    }
+}
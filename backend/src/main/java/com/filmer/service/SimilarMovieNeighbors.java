@@ -0,0 +1,419 @@
+package com.filmer.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Immutable "more like this" neighbors: for every movie, the top-k other
+ * movies by Jaccard similarity of their feature sets (cast and genres).
+ *
+ * <p>Comparing every pair of movies is quadratic, so candidates are found
+ * with MinHash and locality-sensitive hashing. Each movie gets a signature
+ * of {@code bands x rows} min-hashes of its features; two movies become a
+ * candidate pair when all the min-hashes of at least one band agree, which
+ * happens with probability {@code 1 - (1 - J^rows)^bands} for Jaccard
+ * similarity J. Per band, movies are grouped by sorting
+ * {@code (band hash, ordinal)} pairs packed in a {@code long[]}; buckets
+ * larger than {@code maxBucketSize} (typically movies known only by one
+ * common genre) are skipped. Candidates are scored with their exact
+ * Jaccard similarity and kept in a bounded, sorted neighbor list per movie.</p>
+ *
+ * <p>Recall is measured at build time: for a sample of movies the exact
+ * top-k is computed by brute force, and a stored neighbor counts as a hit
+ * when it scores at least the exact k-th score (so ties do not count as
+ * misses).</p>
+ *
+ * <p>Only ids and the flat neighbor arrays are kept; feature sets and
+ * signatures are dropped after the build.</p>
+ */
+public final class SimilarMovieNeighbors {
+
+    public static final int MAX_K = 100;
+
+    /**
+     * Features are dense star ordinals, and genre ordinals with this bit set,
+     * so distinct stars and genres never share a feature.
+     */
+    private static final int GENRE_FEATURE = 0x80000000;
+
+    private final String[] ids;
+    private final Map<String, Integer> ordinals;
+    private final int k;
+    private final int[] neighbors;
+    private final float[] scores;
+    private final byte[] counts;
+
+    private final int moviesWithFeatures;
+    private final long candidatePairs;
+    private final int oversizedBuckets;
+    private final int recallSample;
+    private final double recall;
+    private final long buildMillis;
+    private final long approxBytes;
+
+    private SimilarMovieNeighbors(String[] ids, Map<String, Integer> ordinals, int k, int[] neighbors,
+                                  float[] scores, byte[] counts, int moviesWithFeatures, long candidatePairs,
+                                  int oversizedBuckets, int recallSample, double recall,
+                                  long buildMillis, long approxBytes) {
+        this.ids = ids;
+        this.ordinals = ordinals;
+        this.k = k;
+        this.neighbors = neighbors;
+        this.scores = scores;
+        this.counts = counts;
+        this.moviesWithFeatures = moviesWithFeatures;
+        this.candidatePairs = candidatePairs;
+        this.oversizedBuckets = oversizedBuckets;
+        this.recallSample = recallSample;
+        this.recall = recall;
+        this.buildMillis = buildMillis;
+        this.approxBytes = approxBytes;
+    }
+
+    /**
+     * Loads every movie's cast and genres and builds the neighbor lists.
+     *
+     * @param jdbcTemplate  Template for the catalog database
+     * @param k             Neighbors kept per movie, 1 to {@link #MAX_K}
+     * @param bands         LSH bands
+     * @param rows          Min-hashes per band
+     * @param maxBucketSize Largest bucket whose pairs are compared
+     * @param recallSample  Movies checked against brute force for the recall estimate
+     */
+    public static SimilarMovieNeighbors build(JdbcTemplate jdbcTemplate, int k, int bands, int rows,
+                                              int maxBucketSize, int recallSample) {
+        long started = System.nanoTime();
+        k = Math.max(1, Math.min(k, MAX_K));
+
+        List<String> idList = new ArrayList<>();
+        jdbcTemplate.query("SELECT id FROM movies ORDER BY id", rs -> {
+            idList.add(rs.getString(1));
+        });
+        String[] ids = idList.toArray(new String[0]);
+        int n = ids.length;
+        Map<String, Integer> ordinals = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            ordinals.put(ids[i], i);
+        }
+
+        // (ordinal, feature) pairs, sorted into one feature run per movie
+        long[][] pairs = {new long[1 << 16]};
+        int[] pairCount = {0};
+        Map<String, Integer> starFeatures = new HashMap<>();
+        jdbcTemplate.query("SELECT movie_id, star_id FROM stars_in_movies", rs -> {
+            Integer ordinal = ordinals.get(rs.getString(1));
+            if (ordinal != null) {
+                int feature = starFeatures.computeIfAbsent(rs.getString(2), id -> starFeatures.size());
+                addPair(pairs, pairCount, ordinal, feature);
+            }
+        });
+        starFeatures.clear();
+        Map<Long, Integer> genreFeatures = new HashMap<>();
+        jdbcTemplate.query("SELECT movie_id, genre_id FROM genres_in_movies", rs -> {
+            Integer ordinal = ordinals.get(rs.getString(1));
+            if (ordinal != null) {
+                int feature = genreFeatures.computeIfAbsent(rs.getLong(2), id -> GENRE_FEATURE | genreFeatures.size());
+                addPair(pairs, pairCount, ordinal, feature);
+            }
+        });
+        long[] sorted = pairs[0];
+        Arrays.sort(sorted, 0, pairCount[0]);
+        pairs[0] = null;
+
+        int[] offsets = new int[n + 1];
+        int[] features = new int[pairCount[0]];
+        int size = 0;
+        int pair = 0;
+        for (int ordinal = 0; ordinal < n; ordinal++) {
+            offsets[ordinal] = size;
+            while (pair < pairCount[0] && (int) (sorted[pair] >>> 32) == ordinal) {
+                int feature = (int) sorted[pair++];
+                if (size == offsets[ordinal] || features[size - 1] != feature) {
+                    features[size++] = feature;
+                }
+            }
+        }
+        offsets[n] = size;
+        sorted = null;
+
+        int[] featured = new int[n];
+        int featuredCount = 0;
+        for (int ordinal = 0; ordinal < n; ordinal++) {
+            if (offsets[ordinal + 1] > offsets[ordinal]) {
+                featured[featuredCount++] = ordinal;
+            }
+        }
+
+        // MinHash signatures: hashes x movies, min over each movie's features
+        int hashes = bands * rows;
+        int[] seeds = new int[hashes];
+        for (int i = 0; i < hashes; i++) {
+            seeds[i] = fmix32((i + 1) * 0x9E3779B9);
+        }
+        int[] signatures = new int[n * hashes];
+        Arrays.fill(signatures, Integer.MAX_VALUE);
+        for (int f = 0; f < featuredCount; f++) {
+            int ordinal = featured[f];
+            int base = ordinal * hashes;
+            for (int j = offsets[ordinal]; j < offsets[ordinal + 1]; j++) {
+                int feature = features[j];
+                for (int i = 0; i < hashes; i++) {
+                    int h = fmix32(feature ^ seeds[i]);
+                    if (h < signatures[base + i]) {
+                        signatures[base + i] = h;
+                    }
+                }
+            }
+        }
+
+        int[] neighbors = new int[n * k];
+        float[] scores = new float[n * k];
+        byte[] counts = new byte[n];
+        long candidatePairs = 0;
+        int oversizedBuckets = 0;
+        long[] keys = new long[featuredCount];
+        for (int band = 0; band < bands; band++) {
+            for (int f = 0; f < featuredCount; f++) {
+                int ordinal = featured[f];
+                int h = band * 0x9E3779B9;
+                int from = ordinal * hashes + band * rows;
+                for (int r = 0; r < rows; r++) {
+                    h = fmix32(h * 31 + signatures[from + r]);
+                }
+                keys[f] = ((long) h << 32) | ordinal;
+            }
+            Arrays.sort(keys);
+            int start = 0;
+            while (start < featuredCount) {
+                int end = start + 1;
+                while (end < featuredCount && (keys[end] >>> 32) == (keys[start] >>> 32)) {
+                    end++;
+                }
+                if (end - start > maxBucketSize) {
+                    oversizedBuckets++;
+                } else {
+                    for (int a = start; a < end; a++) {
+                        int x = (int) keys[a];
+                        for (int b = a + 1; b < end; b++) {
+                            int y = (int) keys[b];
+                            candidatePairs++;
+                            float score = jaccard(features, offsets, x, y);
+                            if (score > 0) {
+                                offer(neighbors, scores, counts, k, x, y, score);
+                                offer(neighbors, scores, counts, k, y, x, score);
+                            }
+                        }
+                    }
+                }
+                start = end;
+            }
+        }
+
+        // Recall against brute force on a fixed sample
+        int sample = Math.min(recallSample, featuredCount);
+        Random random = new Random(42);
+        int[] pool = Arrays.copyOf(featured, featuredCount);
+        long expected = 0;
+        long hits = 0;
+        int[] exactNeighbors = new int[k];
+        float[] exactScores = new float[k];
+        byte[] exactCount = new byte[1];
+        for (int s = 0; s < sample; s++) {
+            int pick = s + random.nextInt(featuredCount - s);
+            int x = pool[pick];
+            pool[pick] = pool[s];
+            pool[s] = x;
+
+            exactCount[0] = 0;
+            for (int f = 0; f < featuredCount; f++) {
+                int y = featured[f];
+                if (y != x) {
+                    float score = jaccard(features, offsets, x, y);
+                    if (score > 0) {
+                        offer(exactNeighbors, exactScores, exactCount, k, 0, y, score);
+                    }
+                }
+            }
+            int want = exactCount[0];
+            if (want == 0) {
+                continue;
+            }
+            float kth = exactScores[want - 1];
+            int found = 0;
+            for (int i = 0; i < counts[x]; i++) {
+                if (scores[x * k + i] >= kth) {
+                    found++;
+                }
+            }
+            expected += want;
+            hits += Math.min(found, want);
+        }
+        double recall = expected == 0 ? Double.NaN : (double) hits / expected;
+
+        long approxBytes = n * (56L + 48L + 1L) + 8L * n * k;
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        return new SimilarMovieNeighbors(ids, Collections.unmodifiableMap(ordinals), k, neighbors, scores, counts,
+                featuredCount, candidatePairs, oversizedBuckets, sample, recall, buildMillis, approxBytes);
+    }
+
+    /**
+     * @param movieId Movie ID
+     * @param limit   Maximum number of neighbors
+     * @return The movie's most similar movies, best first, or null if the movie is not indexed
+     */
+    public List<Neighbor> neighbors(String movieId, int limit) {
+        Integer ordinal = ordinals.get(movieId);
+        if (ordinal == null) {
+            return null;
+        }
+        int count = Math.min(limit, counts[ordinal]);
+        List<Neighbor> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int slot = ordinal * k + i;
+            result.add(new Neighbor(ids[neighbors[slot]], scores[slot]));
+        }
+        return result;
+    }
+
+    /**
+     * Keeps {@code other} among the best k neighbors of {@code ordinal},
+     * sorted by score descending, then ordinal; a neighbor already listed is ignored.
+     */
+    private static void offer(int[] neighbors, float[] scores, byte[] counts, int k, int ordinal, int other,
+                              float score) {
+        int base = ordinal * k;
+        int count = counts[ordinal];
+        for (int i = 0; i < count; i++) {
+            if (neighbors[base + i] == other) {
+                return;
+            }
+        }
+        int pos;
+        if (count < k) {
+            pos = count;
+            counts[ordinal] = (byte) (count + 1);
+        } else if (better(score, other, scores[base + k - 1], neighbors[base + k - 1])) {
+            pos = k - 1;
+        } else {
+            return;
+        }
+        while (pos > 0 && better(score, other, scores[base + pos - 1], neighbors[base + pos - 1])) {
+            scores[base + pos] = scores[base + pos - 1];
+            neighbors[base + pos] = neighbors[base + pos - 1];
+            pos--;
+        }
+        scores[base + pos] = score;
+        neighbors[base + pos] = other;
+    }
+
+    private static boolean better(float score, int ordinal, float otherScore, int otherOrdinal) {
+        return score > otherScore || (score == otherScore && ordinal < otherOrdinal);
+    }
+
+    /**
+     * Jaccard similarity of two movies' feature runs, which are sorted by the packed-pair order.
+     */
+    private static float jaccard(int[] features, int[] offsets, int x, int y) {
+        int i = offsets[x];
+        int iEnd = offsets[x + 1];
+        int j = offsets[y];
+        int jEnd = offsets[y + 1];
+        int common = 0;
+        while (i < iEnd && j < jEnd) {
+            int cmp = Integer.compareUnsigned(features[i], features[j]);
+            if (cmp == 0) {
+                common++;
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = (iEnd - offsets[x]) + (jEnd - offsets[y]) - common;
+        return union == 0 ? 0f : (float) common / union;
+    }
+
+    private static void addPair(long[][] pairs, int[] pairCount, int ordinal, int feature) {
+        if (pairCount[0] == pairs[0].length) {
+            pairs[0] = Arrays.copyOf(pairs[0], pairs[0].length * 2);
+        }
+        pairs[0][pairCount[0]++] = ((long) ordinal << 32) | (feature & 0xFFFFFFFFL);
+    }
+
+    /**
+     * MurmurHash3 finalizer.
+     */
+    private static int fmix32(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int getMovieCount() {
+        return ids.length;
+    }
+
+    public int getMoviesWithFeatures() {
+        return moviesWithFeatures;
+    }
+
+    public long getCandidatePairs() {
+        return candidatePairs;
+    }
+
+    public int getOversizedBuckets() {
+        return oversizedBuckets;
+    }
+
+    public int getRecallSample() {
+        return recallSample;
+    }
+
+    /**
+     * @return Share of the sampled movies' exact top-k found, or NaN if no sampled movie had a neighbor
+     */
+    public double getRecall() {
+        return recall;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    public long getApproxBytes() {
+        return approxBytes;
+    }
+
+    /**
+     * A similar movie and its Jaccard similarity.
+     */
+    public static final class Neighbor {
+
+        private final String movieId;
+        private final double similarity;
+
+        Neighbor(String movieId, double similarity) {
+            this.movieId = movieId;
+            this.similarity = similarity;
+        }
+
+        public String getMovieId() { return movieId; }
+        public double getSimilarity() { return similarity; }
+    }
+}
@@ -0,0 +1,130 @@
+package com.filmer.service;
+
+import com.filmer.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "More like this" recommendations served from {@link SimilarMovieNeighbors}
+ * held in memory.
+ *
+ * <p>The neighbor lists are rebuilt whenever the catalog version changes
+ * and published with a single volatile write. Exact Jaccard similarity at
+ * request time is what this avoids, so there is no SQL fallback. Lists
+ * built for an older catalog version are never served: before the first
+ * build, and while a rebuild runs, {@link #similar} reports the lists as
+ * unavailable.</p>
+ */
+@Component
+public class SimilarMoviesIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarMoviesIndex.class);
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Value("${filmer.similar.k:10}")
+    private int k;
+
+    @Value("${filmer.similar.bands:32}")
+    private int bands;
+
+    @Value("${filmer.similar.rows:2}")
+    private int rows;
+
+    @Value("${filmer.similar.max-bucket-size:300}")
+    private int maxBucketSize;
+
+    @Value("${filmer.similar.recall-sample:200}")
+    private int recallSample;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        SimilarMovieNeighbors neighbors =
+                SimilarMovieNeighbors.build(jdbcTemplate, k, bands, rows, maxBucketSize, recallSample);
+        snapshot = new Snapshot(event.getVersion(), neighbors);
+        log.info("Similar movies built for catalog version {}: {} movies, {} candidate pairs, " +
+                        "recall@{} {} on {} sampled, {} ms, ~{} KiB",
+                event.getVersion(), neighbors.getMoviesWithFeatures(), neighbors.getCandidatePairs(),
+                neighbors.getK(), String.format("%.3f", neighbors.getRecall()), neighbors.getRecallSample(),
+                neighbors.getBuildMillis(), neighbors.getApproxBytes() / 1024);
+    }
+
+    /**
+     * @return Neighbors kept per movie, the largest limit that can be served
+     */
+    public int getMaxLimit() {
+        Snapshot current = snapshot;
+        return current == null ? Math.max(1, Math.min(k, SimilarMovieNeighbors.MAX_K)) : current.neighbors.getK();
+    }
+
+    /**
+     * @param movieId Movie ID
+     * @param limit   Maximum number of neighbors
+     * @return The movie's most similar movies, best first, or null if it is
+     *         not in the lists (unknown, or sharing nothing with other movies)
+     * @throws ServiceUnavailableException if no lists have been built for
+     *         the current catalog version yet
+     */
+    public List<SimilarMovieNeighbors.Neighbor> similar(String movieId, int limit) {
+        Snapshot current = snapshot;
+        if (current == null || current.version != catalogVersionService.getVersion()) {
+            throw new ServiceUnavailableException("Similar movies are being rebuilt; retry later", RETRY_AFTER_SECONDS);
+        }
+        return current.neighbors.neighbors(movieId, limit);
+    }
+
+    /**
+     * @return Build parameters, size, memory, build time and measured recall of the current lists
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", current != null);
+        stats.put("current", current != null && current.version == catalogVersionService.getVersion());
+        if (current != null) {
+            SimilarMovieNeighbors neighbors = current.neighbors;
+            stats.put("version", current.version);
+            stats.put("k", neighbors.getK());
+            stats.put("bands", bands);
+            stats.put("rows", rows);
+            stats.put("movies", neighbors.getMovieCount());
+            stats.put("moviesWithFeatures", neighbors.getMoviesWithFeatures());
+            stats.put("candidatePairs", neighbors.getCandidatePairs());
+            stats.put("oversizedBuckets", neighbors.getOversizedBuckets());
+            stats.put("recallSample", neighbors.getRecallSample());
+            stats.put("recall", Double.isNaN(neighbors.getRecall()) ? null
+                    : Math.round(neighbors.getRecall() * 1000) / 1000.0);
+            stats.put("buildMillis", neighbors.getBuildMillis());
+            stats.put("approxBytes", neighbors.getApproxBytes());
+        }
+        return stats;
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final SimilarMovieNeighbors neighbors;
+
+        private Snapshot(long version, SimilarMovieNeighbors neighbors) {
+            this.version = version;
+            this.neighbors = neighbors;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.BatchResponse;
+import com.filmer.dto.response.PaginatedResponse;
+import com.filmer.dto.response.StarDetailResponse;
+import com.filmer.dto.response.StarListItemResponse;
+import com.filmer.dto.response.StarNeighborhoodResponse;
+import com.filmer.dto.response.StarPathResponse;
+import com.filmer.exception.BadRequestException;
+import com.filmer.exception.ResourceNotFoundException;
+import com.filmer.exception.ServiceUnavailableException;
+import com.filmer.service.query.BatchIds;
+import com.filmer.service.query.FieldSet;
+import com.filmer.service.query.JdbcRows;
+import com.filmer.service.query.KeysetPage;
+import com.filmer.service.query.KeysetQuery;
+import com.filmer.service.query.LikePatterns;
+import com.filmer.service.query.PageRequest;
+import com.filmer.service.query.StarSortField;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for star listing and detail queries.
+ */
+@Service
+public class StarService {
+
+    private static final RowMapper<StarListItemResponse> STAR_LIST_ROW = (rs, rowNum) -> {
+        StarListItemResponse item = new StarListItemResponse();
+        item.setId(rs.getString("id"));
+        item.setName(rs.getString("name"));
+        item.setBirthYear(JdbcRows.getShort(rs, "birth_year"));
+        item.setMovieCount(rs.getInt("movie_count"));
+        return item;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private DetailCache detailCache;
+
+    @Autowired
+    private CoStarGraphIndex coStarGraphIndex;
+
+    /**
+     * Lists stars, optionally filtered by a partial, case-insensitive name match.
+     *
+     * <p>Movie counts come from {@code stars.movie_count}, maintained by the
+     * data loader, so no page aggregates stars_in_movies.</p>
+     *
+     * @param sort   Sort field
+     * @param page   Validated pagination parameters (page number or cursor)
+     * @param name   Name filter, or null for all stars
+     * @param fields Item fields to serialize
+     * @return The requested page with cursors for seeking onwards
+     */
+    public PaginatedResponse<StarListItemResponse> listStars(StarSortField sort, PageRequest page, String name,
+                                                            FieldSet fields) {
+        KeysetQuery query = KeysetQuery.select("s.id, s.name, s.birth_year, s.movie_count")
+                .from("stars s")
+                .orderBy(sort, "s.id");
+
+        if (name != null && !name.isBlank()) {
+            query.where("s.name ILIKE ?", LikePatterns.contains(name.trim())).customPlans();
+        }
+
+        KeysetPage<StarListItemResponse> result = query.fetch(jdbcTemplate, page, STAR_LIST_ROW);
+        if (!fields.isAll()) {
+            Set<String> selection = fields.selection();
+            for (StarListItemResponse item : result.getItems()) {
+                item.setSelectedFields(selection);
+            }
+        }
+
+        PaginatedResponse<StarListItemResponse> response =
+                new PaginatedResponse<>(result.getItems(), page.getPage(), page.getSize());
+        pageCountService.count(query, page, result).applyTo(response);
+        response.setNextCursor(result.getNextCursor());
+        response.setPrevCursor(result.getPrevCursor());
+        response.setFields(fields.names());
+        return response;
+    }
+
+    /**
+     * Returns a star with every movie they appeared in, newest first,
+     * served from the detail cache when possible.
+     *
+     * @param starId Star ID
+     * @return The star details
+     * @throws ResourceNotFoundException if no star has the given ID
+     */
+    public StarDetailResponse getStarDetails(String starId) {
+        return detailCache.getStar(starId, this::loadStarDetails);
+    }
+
+    /**
+     * Returns the details of many stars at once, in request order.
+     *
+     * <p>Cached stars are taken from the detail cache; all misses are then
+     * loaded together with two set-based queries (stars, filmographies).</p>
+     *
+     * @param starIds Validated ids
+     * @return One item per requested id; ids that do not exist are marked not found
+     */
+    public BatchResponse<StarDetailResponse> getStarDetailsBatch(BatchIds starIds) {
+        Map<String, StarDetailResponse> stars = detailCache.getStars(starIds.distinct(), this::loadStarDetails);
+        List<BatchResponse.Item<StarDetailResponse>> items = new ArrayList<>(starIds.requested().size());
+        for (String starId : starIds.requested()) {
+            items.add(new BatchResponse.Item<>(starId, stars.get(starId)));
+        }
+        return new BatchResponse<>(items);
+    }
+
+    /**
+     * Finds the shortest chain of shared movies linking two stars.
+     *
+     * <p>The search runs on the in-memory co-star graph; only the names and
+     * titles of the stars and movies on the chain are read from the database.</p>
+     *
+     * @param fromStarId First star
+     * @param toStarId   Second star
+     * @return The chain, or connected=false if there is none within the maximum degrees
+     * @throws BadRequestException if toStarId is missing
+     * @throws ResourceNotFoundException if either star does not exist
+     * @throws ServiceUnavailableException if the graph cannot answer for them yet
+     */
+    public StarPathResponse getStarPath(String fromStarId, String toStarId) {
+        if (toStarId == null || toStarId.isBlank()) {
+            throw new BadRequestException("to is required");
+        }
+        toStarId = toStarId.trim();
+        Map<String, String> starNames = findStarNames(List.of(fromStarId, toStarId));
+        for (String starId : new String[]{fromStarId, toStarId}) {
+            if (!starNames.containsKey(starId)) {
+                throw new ResourceNotFoundException("Star not found with id: " + starId);
+            }
+            coStarGraphIndex.requireIndexed(starId);
+        }
+        String[] path = coStarGraphIndex.shortestPath(fromStarId, toStarId);
+        if (path == null) {
+            return new StarPathResponse(fromStarId, toStarId, null, new ArrayList<>());
+        }
+
+        List<String> starIds = new ArrayList<>();
+        List<String> movieIds = new ArrayList<>();
+        for (int i = 0; i < path.length; i++) {
+            if (i % 2 == 1) {
+                movieIds.add(path[i]);
+            } else if (!starNames.containsKey(path[i])) {
+                starIds.add(path[i]);
+            }
+        }
+        starNames.putAll(findStarNames(starIds));
+
+        Map<String, StarPathResponse.PathStep> movies = new HashMap<>();
+        String[] movieArray = movieIds.toArray(new String[0]);
+        jdbcTemplate.query(
+                "SELECT id, title, year FROM movies WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", movieArray)),
+                rs -> {
+                    movies.put(rs.getString("id"), new StarPathResponse.PathStep(
+                            "movie", rs.getString("id"), rs.getString("title"), JdbcRows.getShort(rs, "year")));
+                });
+        List<StarPathResponse.PathStep> steps = new ArrayList<>(path.length);
+        for (int i = 0; i < path.length; i++) {
+            if (i % 2 == 0) {
+                steps.add(new StarPathResponse.PathStep("star", path[i], starNames.get(path[i]), null));
+            } else {
+                StarPathResponse.PathStep movie = movies.get(path[i]);
+                steps.add(movie != null ? movie : new StarPathResponse.PathStep("movie", path[i], null, null));
+            }
+        }
+        return new StarPathResponse(fromStarId, toStarId, path.length / 2, steps);
+    }
+
+    /**
+     * Counts the stars reachable from a star through shared movies, per hop.
+     *
+     * @param starId Star ID
+     * @param hops   Hops to expand, 1 to the configured maximum
+     * @return Newly reached stars at each hop and their total
+     * @throws BadRequestException if hops is out of range
+     * @throws ResourceNotFoundException if the star does not exist
+     * @throws ServiceUnavailableException if the graph cannot answer for it yet
+     */
+    public StarNeighborhoodResponse getStarNeighborhood(String starId, int hops) {
+        int maxHops = coStarGraphIndex.getMaxHops();
+        if (hops < 1 || hops > maxHops) {
+            throw new BadRequestException("hops must be between 1 and " + maxHops);
+        }
+        long[] counts = coStarGraphIndex.neighborhood(starId, hops);
+        if (counts == null) {
+            Boolean exists = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM stars WHERE id = ?)", Boolean.class, starId);
+            if (!Boolean.TRUE.equals(exists)) {
+                throw new ResourceNotFoundException("Star not found with id: " + starId);
+            }
+            coStarGraphIndex.requireIndexed(starId);
+            counts = new long[hops];
+        }
+        List<StarNeighborhoodResponse.Hop> items = new ArrayList<>(hops);
+        long reachable = 0;
+        for (int hop = 0; hop < hops; hop++) {
+            items.add(new StarNeighborhoodResponse.Hop(hop + 1, counts[hop]));
+            reachable += counts[hop];
+        }
+        return new StarNeighborhoodResponse(starId, reachable, items);
+    }
+
+    /**
+     * @return Names of the stars that exist among the given IDs, by ID
+     */
+    private Map<String, String> findStarNames(List<String> starIds) {
+        Map<String, String> names = new HashMap<>();
+        if (starIds.isEmpty()) {
+            return names;
+        }
+        String[] ids = starIds.toArray(new String[0]);
+        jdbcTemplate.query(
+                "SELECT id, name FROM stars WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)),
+                rs -> {
+                    names.put(rs.getString("id"), rs.getString("name"));
+                });
+        return names;
+    }
+
+    private StarDetailResponse loadStarDetails(String starId) {
+        StarDetailResponse star = loadStarDetails(Collections.singleton(starId)).get(starId);
+        if (star == null) {
+            throw new ResourceNotFoundException("Star not found with id: " + starId);
+        }
+        return star;
+    }
+
+    /**
+     * @return The stars that exist among the given IDs, with their movies, by ID
+     */
+    private Map<String, StarDetailResponse> loadStarDetails(Set<String> starIds) {
+        String[] ids = starIds.toArray(new String[0]);
+        Map<String, StarDetailResponse> stars = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, name, birth_year FROM stars WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)),
+                rs -> {
+                    StarDetailResponse star = new StarDetailResponse();
+                    star.setId(rs.getString("id"));
+                    star.setName(rs.getString("name"));
+                    star.setBirthYear(JdbcRows.getShort(rs, "birth_year"));
+                    star.setMovies(new ArrayList<>());
+                    stars.put(star.getId(), star);
+                });
+        if (stars.isEmpty()) {
+            return stars;
+        }
+
+        String[] found = stars.keySet().toArray(new String[0]);
+        jdbcTemplate.query(
+                "SELECT sim.star_id, m.id, m.title, m.year, m.director FROM stars_in_movies sim JOIN movies m ON m.id = sim.movie_id " +
+                "WHERE sim.star_id = ANY(?) ORDER BY sim.star_id, m.year DESC NULLS LAST, m.title, m.id",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", found)),
+                rs -> {
+                    stars.get(rs.getString("star_id")).getMovies().add(new StarDetailResponse.MovieInfo(
+                            rs.getString("id"), rs.getString("title"), JdbcRows.getShort(rs, "year"), rs.getString("director")));
+                });
+        return stars;
+    }
+}
@@ -0,0 +1,290 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.SuggestionResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix dictionary of movie titles and star names for typeahead.
+ *
+ * <p>Every entry is indexed under its normalized name (accents folded,
+ * lowercase, single spaces) and under the suffixes starting at its next
+ * few words, so "matrix" finds "The Matrix". Keys live in one sorted
+ * {@code String[]}; a prefix maps to a contiguous range found by binary
+ * search. Every prefix whose range holds more than {@value #MAX_SCAN} keys
+ * has its top entries precomputed; any other prefix scans its whole range
+ * keeping the best entries by popularity (IMDb votes, summed over a
+ * star's movies), so results are exact for every prefix.</p>
+ *
+ * <p>Memory is bounded by keeping only the most popular entries of each
+ * type and at most {@value #MAX_KEYS_PER_ENTRY} keys per entry.</p>
+ */
+public final class SuggestDictionary {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final int MAX_KEYS_PER_ENTRY = 4;
+    private static final int MAX_SCAN = 2048;
+
+    private static final byte MOVIE = 0;
+    private static final byte STAR = 1;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final String[] keys;
+    private final int[] keyEntries;
+
+    private final byte[] types;
+    private final String[] ids;
+    private final String[] labels;
+    private final short[] years;
+    private final long[] popularity;
+
+    private final Map<String, int[]> precomputed;
+    private final long buildMillis;
+    private final long approxBytes;
+
+    private SuggestDictionary(String[] keys, int[] keyEntries, byte[] types, String[] ids, String[] labels,
+                              short[] years, long[] popularity, Map<String, int[]> precomputed,
+                              long buildMillis, long approxBytes) {
+        this.keys = keys;
+        this.keyEntries = keyEntries;
+        this.types = types;
+        this.ids = ids;
+        this.labels = labels;
+        this.years = years;
+        this.popularity = popularity;
+        this.precomputed = precomputed;
+        this.buildMillis = buildMillis;
+        this.approxBytes = approxBytes;
+    }
+
+    /**
+     * Loads the most popular movies and stars and builds the dictionary.
+     *
+     * @param jdbcTemplate       Template for the catalog database
+     * @param maxEntriesPerType  Maximum number of movies and of stars to keep
+     */
+    public static SuggestDictionary build(JdbcTemplate jdbcTemplate, int maxEntriesPerType) {
+        long started = System.nanoTime();
+
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT m.id, m.title, m.year, COALESCE(r.num_votes, 0) AS votes " +
+                "FROM movies m LEFT JOIN ratings r ON r.movie_id = m.id " +
+                "ORDER BY votes DESC, m.id LIMIT ?",
+                rs -> {
+                    rows.add(new Object[] {MOVIE, rs.getString(1), rs.getString(2), rs.getShort(3), rs.getLong(4)});
+                },
+                maxEntriesPerType);
+        jdbcTemplate.query(
+                "SELECT s.id, s.name, COALESCE(SUM(r.num_votes), 0) AS votes " +
+                "FROM stars s JOIN stars_in_movies sim ON sim.star_id = s.id " +
+                "LEFT JOIN ratings r ON r.movie_id = sim.movie_id " +
+                "GROUP BY s.id, s.name ORDER BY votes DESC, s.id LIMIT ?",
+                rs -> {
+                    rows.add(new Object[] {STAR, rs.getString(1), rs.getString(2), (short) 0, rs.getLong(3)});
+                },
+                maxEntriesPerType);
+
+        int size = rows.size();
+        byte[] types = new byte[size];
+        String[] ids = new String[size];
+        String[] labels = new String[size];
+        short[] years = new short[size];
+        long[] popularity = new long[size];
+        List<KeyRef> refs = new ArrayList<>(size * 2);
+        long approxBytes = 0;
+
+        for (int entry = 0; entry < size; entry++) {
+            Object[] row = rows.get(entry);
+            types[entry] = (Byte) row[0];
+            ids[entry] = (String) row[1];
+            labels[entry] = (String) row[2];
+            years[entry] = (Short) row[3];
+            popularity[entry] = (Long) row[4];
+            approxBytes += 2 * 40L + ids[entry].length() + labels[entry].length() + 1 + 2 + 8;
+
+            String[] words = normalize(labels[entry]).split(" ");
+            for (int w = 0; w < words.length && w < MAX_KEYS_PER_ENTRY; w++) {
+                if (words[w].isEmpty()) {
+                    continue;
+                }
+                String key = String.join(" ", Arrays.copyOfRange(words, w, words.length));
+                refs.add(new KeyRef(key, entry));
+                approxBytes += 40L + key.length() + 4;
+            }
+        }
+        rows.clear();
+
+        refs.sort(null);
+        String[] keys = new String[refs.size()];
+        int[] keyEntries = new int[refs.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = refs.get(i).key;
+            keyEntries[i] = refs.get(i).entry;
+        }
+        refs.clear();
+
+        SuggestDictionary partial = new SuggestDictionary(keys, keyEntries, types, ids, labels, years, popularity,
+                new HashMap<>(), 0, 0);
+        Map<String, int[]> precomputed = new HashMap<>();
+        partial.precompute(0, keys.length, 1, precomputed);
+        for (Map.Entry<String, int[]> top : precomputed.entrySet()) {
+            approxBytes += 40L + top.getKey().length() + 16L + 4L * top.getValue().length + 48L;
+        }
+
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        return new SuggestDictionary(keys, keyEntries, types, ids, labels, years, popularity, precomputed,
+                buildMillis, approxBytes);
+    }
+
+    /**
+     * @param prefix Text typed so far (any case, accents and punctuation are ignored)
+     * @param limit  Maximum number of suggestions, at most {@link #MAX_LIMIT}
+     * @return Matching movies and stars, most popular first
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        List<SuggestionResponse> suggestions = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return suggestions;
+        }
+
+        int[] top = precomputed.get(normalized);
+        if (top == null) {
+            // Not precomputed, so the range holds at most MAX_SCAN keys
+            int start = lowerBound(normalized);
+            int end = start;
+            while (end < keys.length && keys[end].startsWith(normalized)) {
+                end++;
+            }
+            top = best(start, end, limit);
+        }
+
+        for (int i = 0; i < top.length && i < limit; i++) {
+            int entry = top[i];
+            suggestions.add(new SuggestionResponse(
+                    types[entry] == MOVIE ? "movie" : "star",
+                    ids[entry],
+                    labels[entry],
+                    types[entry] == MOVIE && years[entry] != 0 ? years[entry] : null));
+        }
+        return suggestions;
+    }
+
+    public int getEntryCount() { return ids.length; }
+    public int getKeyCount() { return keys.length; }
+    public long getBuildMillis() { return buildMillis; }
+    public long getApproxBytes() { return approxBytes; }
+
+    /**
+     * Precomputes the top entries of every prefix of the given length within
+     * keys [start, end) whose range exceeds {@link #MAX_SCAN}, then of its
+     * longer prefixes in turn. Nested ranges only shrink, so the work stops
+     * at the first length where every range is small enough to scan.
+     */
+    private void precompute(int start, int end, int length, Map<String, int[]> precomputed) {
+        int i = start;
+        while (i < end) {
+            if (keys[i].length() < length) {
+                i++;
+                continue;
+            }
+            String prefix = keys[i].substring(0, length);
+            int rangeEnd = i;
+            while (rangeEnd < end && keys[rangeEnd].startsWith(prefix)) {
+                rangeEnd++;
+            }
+            if (rangeEnd - i > MAX_SCAN) {
+                precomputed.put(prefix, best(i, rangeEnd, MAX_LIMIT));
+                precompute(i, rangeEnd, length + 1, precomputed);
+            }
+            i = rangeEnd;
+        }
+    }
+
+    /**
+     * Most popular distinct entries among keys [start, end), best first.
+     * Candidates below the current worst are rejected with one comparison.
+     */
+    private int[] best(int start, int end, int limit) {
+        int[] best = new int[limit];
+        int size = 0;
+        for (int i = start; i < end; i++) {
+            int entry = keyEntries[i];
+            if (size == limit && !better(entry, best[size - 1])) {
+                continue;
+            }
+            boolean duplicate = false;
+            for (int j = 0; j < size; j++) {
+                if (best[j] == entry) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (duplicate) {
+                continue;
+            }
+            int at = size < limit ? size++ : size - 1;
+            while (at > 0 && better(entry, best[at - 1])) {
+                best[at] = best[at - 1];
+                at--;
+            }
+            best[at] = entry;
+        }
+        return Arrays.copyOf(best, size);
+    }
+
+    private boolean better(int a, int b) {
+        return popularity[a] != popularity[b] ? popularity[a] > popularity[b] : a < b;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static final class KeyRef implements Comparable<KeyRef> {
+
+        private final String key;
+        private final int entry;
+
+        private KeyRef(String key, int entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @Override
+        public int compareTo(KeyRef other) {
+            int cmp = key.compareTo(other.key);
+            return cmp != 0 ? cmp : Integer.compare(entry, other.entry);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.SuggestionResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead suggestions for titles and star names, served from a
+ * {@link SuggestDictionary} held in memory.
+ *
+ * <p>The dictionary is rebuilt whenever the catalog version changes and
+ * published with a single volatile write. Unlike the browse and search
+ * indexes there is no SQL fallback (a prefix query per keystroke is what
+ * this avoids), so while a rebuild runs the previous dictionary keeps
+ * answering; before the first build, suggestions are empty.</p>
+ */
+@Component
+public class SuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndex.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Value("${filmer.suggest.max-entries-per-type:200000}")
+    private int maxEntriesPerType;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        SuggestDictionary dictionary = SuggestDictionary.build(jdbcTemplate, maxEntriesPerType);
+        snapshot = new Snapshot(event.getVersion(), dictionary);
+        log.info("Suggest index built for catalog version {}: {} entries, {} keys, {} ms, ~{} KiB",
+                event.getVersion(), dictionary.getEntryCount(), dictionary.getKeyCount(),
+                dictionary.getBuildMillis(), dictionary.getApproxBytes() / 1024);
+    }
+
+    /**
+     * @param prefix Text typed so far
+     * @param limit  Maximum number of suggestions (1 to {@link SuggestDictionary#MAX_LIMIT})
+     * @return Most popular movies and stars whose name has a word starting with the prefix
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        return current.dictionary.suggest(prefix, limit);
+    }
+
+    /**
+     * @return Size, memory and build time of the current dictionary
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", current != null);
+        stats.put("current", current != null && current.version == catalogVersionService.getVersion());
+        if (current != null) {
+            stats.put("version", current.version);
+            stats.put("entries", current.dictionary.getEntryCount());
+            stats.put("keys", current.dictionary.getKeyCount());
+            stats.put("buildMillis", current.dictionary.getBuildMillis());
+            stats.put("approxBytes", current.dictionary.getApproxBytes());
+        }
+        return stats;
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final SuggestDictionary dictionary;
+
+        private Snapshot(long version, SuggestDictionary dictionary) {
+            this.version = version;
+            this.dictionary = dictionary;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.ChartResponse;
+import com.filmer.dto.response.GenreResponse;
+import com.filmer.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory top-rated charts: the best movies of every genre and every
+ * decade by weighted rating, for the home page rails.
+ *
+ * <p>Rated movies are read once in {@code (rating_rank, id)} order, so a
+ * movie's position in that order (its ordinal) is also its chart key:
+ * a higher ordinal is a better movie, ties included, exactly as
+ * {@code ORDER BY rating_rank DESC, id DESC}. Genre links and years are
+ * then streamed into one bounded min-heap of ordinals per chart, holding
+ * at most {@code filmer.charts.size} ints each, so building costs
+ * O(links log N) time. Resolving genre links still needs every rated
+ * movie's id and ordinal, so peak memory during a build grows with the
+ * number of rated movies; none of it outlives the build.</p>
+ *
+ * <p>Only the movies that made some chart are kept after the build, in
+ * O(charts x N) memory regardless of catalog size, in parallel arrays of
+ * ids, titles and primitive columns; a chart is an {@code int[]} of entry
+ * indexes, best first. Serving a chart is a map lookup plus building the
+ * requested entries, with no query.</p>
+ *
+ * <p>The charts are rebuilt whenever the catalog version changes and
+ * published with a single volatile write, so readers see either the old
+ * or the new lists, never a mix. While they are missing or older than the
+ * current catalog version, callers get {@code null} and fall back to SQL.</p>
+ */
+@Component
+public class TopChartsIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TopChartsIndex.class);
+
+    private static final short NO_YEAR = Short.MIN_VALUE;
+    private static final int NO_VALUE = -1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    private final int chartSize;
+
+    private volatile Snapshot snapshot;
+
+    public TopChartsIndex(@Value("${filmer.charts.size:50}") int chartSize) {
+        this.chartSize = chartSize;
+    }
+
+    /**
+     * @return Entries kept per chart, the largest limit that can be served
+     */
+    public int getChartSize() {
+        return chartSize;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        snapshot = build(event.getVersion());
+        log.info("Top charts built for catalog version {}: {} genres, {} decades, {} movies, {} ms, ~{} KiB",
+                snapshot.version, snapshot.genreCharts.size(), snapshot.decadeCharts.size(),
+                snapshot.ids.length, snapshot.buildMillis, snapshot.approxBytes / 1024);
+    }
+
+    /**
+     * @param genreId Genre ID
+     * @param limit   Entries to return, at most {@link #getChartSize()}
+     * @return The genre's best movies, or null if the charts are not current
+     * @throws ResourceNotFoundException if no genre has the given ID
+     */
+    public ChartResponse genreChart(long genreId, int limit) {
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            return null;
+        }
+        String name = current.genreNames.get(genreId);
+        if (name == null) {
+            throw new ResourceNotFoundException("Genre not found with id: " + genreId);
+        }
+        return new ChartResponse(new GenreResponse(genreId, name), null,
+                current.items(current.genreCharts.get(genreId), limit));
+    }
+
+    /**
+     * @param decade First year of the decade, e.g. 1990
+     * @param limit  Entries to return, at most {@link #getChartSize()}
+     * @return The decade's best movies (empty if it has none), or null if the charts are not current
+     */
+    public ChartResponse decadeChart(int decade, int limit) {
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            return null;
+        }
+        return new ChartResponse(null, decade, current.items(current.decadeCharts.get(decade), limit));
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null || current.version != catalogVersionService.getVersion()) {
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * @return Chart counts, memory and build time of the current charts
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", current != null && current.version == catalogVersionService.getVersion());
+        stats.put("chartSize", chartSize);
+        if (current != null) {
+            stats.put("version", current.version);
+            stats.put("genres", current.genreCharts.size());
+            stats.put("decades", current.decadeCharts.size());
+            stats.put("movies", current.ids.length);
+            stats.put("buildMillis", current.buildMillis);
+            stats.put("approxBytes", current.approxBytes);
+        }
+        return stats;
+    }
+
+    private Snapshot build(long version) {
+        long started = System.nanoTime();
+
+        // Ordinal = position in (rating_rank, id) order over rated movies; higher is better
+        Map<String, Integer> ordinals = new HashMap<>();
+        List<String> rankedIds = new ArrayList<>();
+        Map<Integer, TopN> decadeHeaps = new HashMap<>();
+        jdbcTemplate.query("SELECT id, year FROM movies WHERE rating_rank > 0 ORDER BY rating_rank, id", rs -> {
+            int ordinal = rankedIds.size();
+            String id = rs.getString(1);
+            rankedIds.add(id);
+            ordinals.put(id, ordinal);
+            int year = rs.getInt(2);
+            if (!rs.wasNull() && year > 0) {
+                decadeHeaps.computeIfAbsent(year / 10 * 10, k -> new TopN(chartSize)).offer(ordinal);
+            }
+        });
+
+        Map<Long, String> genreNames = new HashMap<>();
+        Map<Long, TopN> genreHeaps = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM genres", rs -> {
+            genreNames.put(rs.getLong(1), rs.getString(2));
+        });
+        jdbcTemplate.query("SELECT genre_id, movie_id FROM genres_in_movies", rs -> {
+            Integer ordinal = ordinals.get(rs.getString(2));
+            if (ordinal != null) {
+                genreHeaps.computeIfAbsent(rs.getLong(1), k -> new TopN(chartSize)).offer(ordinal);
+            }
+        });
+
+        // Keep only movies on some chart; entry indexes replace ordinals
+        Map<Integer, Integer> entryOf = new HashMap<>();
+        Map<Long, int[]> genreCharts = new HashMap<>();
+        for (Map.Entry<Long, TopN> entry : genreHeaps.entrySet()) {
+            genreCharts.put(entry.getKey(), toEntries(entry.getValue().bestFirst(), entryOf));
+        }
+        Map<Integer, int[]> decadeCharts = new HashMap<>();
+        for (Map.Entry<Integer, TopN> entry : decadeHeaps.entrySet()) {
+            decadeCharts.put(entry.getKey(), toEntries(entry.getValue().bestFirst(), entryOf));
+        }
+
+        int n = entryOf.size();
+        String[] ids = new String[n];
+        for (Map.Entry<Integer, Integer> entry : entryOf.entrySet()) {
+            ids[entry.getValue()] = rankedIds.get(entry.getKey());
+        }
+        Map<String, Integer> entryIndex = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            entryIndex.put(ids[i], i);
+        }
+
+        String[] titles = new String[n];
+        String[] directors = new String[n];
+        short[] years = new short[n];
+        int[] ratingTenths = new int[n];
+        int[] numVotes = new int[n];
+        int[] weighted = new int[n];
+        if (n > 0) {
+            jdbcTemplate.query(
+                    "SELECT m.id, m.title, m.year, m.director, m.weighted_rating, r.rating, r.num_votes " +
+                    "FROM movies m LEFT JOIN ratings r ON r.movie_id = m.id WHERE m.id = ANY(?)",
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)),
+                    rs -> {
+                        Integer i = entryIndex.get(rs.getString("id"));
+                        if (i == null) {
+                            return;
+                        }
+                        titles[i] = rs.getString("title");
+                        directors[i] = rs.getString("director");
+                        short year = rs.getShort("year");
+                        years[i] = rs.wasNull() ? NO_YEAR : year;
+                        BigDecimal weightedRating = rs.getBigDecimal("weighted_rating");
+                        weighted[i] = weightedRating == null ? NO_VALUE : scaled(weightedRating, 4);
+                        BigDecimal rating = rs.getBigDecimal("rating");
+                        ratingTenths[i] = rating == null ? NO_VALUE : scaled(rating, 1);
+                        int votes = rs.getInt("num_votes");
+                        numVotes[i] = rs.wasNull() ? NO_VALUE : votes;
+                    });
+        }
+
+        long chartInts = 0;
+        for (int[] chart : genreCharts.values()) {
+            chartInts += chart.length;
+        }
+        for (int[] chart : decadeCharts.values()) {
+            chartInts += chart.length;
+        }
+        // id, title and director strings plus four primitive columns per movie
+        long approxBytes = n * (3L * 64L + 14L) + 4L * chartInts;
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        return new Snapshot(version, Collections.unmodifiableMap(genreNames),
+                Collections.unmodifiableMap(genreCharts), Collections.unmodifiableMap(decadeCharts),
+                ids, titles, directors, years, ratingTenths, numVotes, weighted, buildMillis, approxBytes);
+    }
+
+    private static int[] toEntries(int[] ordinals, Map<Integer, Integer> entryOf) {
+        int[] entries = new int[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            entries[i] = entryOf.computeIfAbsent(ordinals[i], k -> entryOf.size());
+        }
+        return entries;
+    }
+
+    private static int scaled(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().intValue();
+    }
+
+    /**
+     * Bounded min-heap keeping the N largest ints offered.
+     */
+    static final class TopN {
+
+        private final int[] heap;
+        private int size;
+
+        TopN(int capacity) {
+            this.heap = new int[capacity];
+        }
+
+        void offer(int value) {
+            if (size < heap.length) {
+                int i = size++;
+                heap[i] = value;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (heap[parent] <= heap[i]) {
+                        break;
+                    }
+                    swap(parent, i);
+                    i = parent;
+                }
+            } else if (heap.length > 0 && value > heap[0]) {
+                heap[0] = value;
+                int i = 0;
+                while (true) {
+                    int smallest = i;
+                    int left = 2 * i + 1;
+                    int right = left + 1;
+                    if (left < size && heap[left] < heap[smallest]) {
+                        smallest = left;
+                    }
+                    if (right < size && heap[right] < heap[smallest]) {
+                        smallest = right;
+                    }
+                    if (smallest == i) {
+                        break;
+                    }
+                    swap(i, smallest);
+                    i = smallest;
+                }
+            }
+        }
+
+        /**
+         * @return The kept values, largest first
+         */
+        int[] bestFirst() {
+            int[] values = Arrays.copyOf(heap, size);
+            Arrays.sort(values);
+            for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+                int tmp = values[i];
+                values[i] = values[j];
+                values[j] = tmp;
+            }
+            return values;
+        }
+
+        private void swap(int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final Map<Long, String> genreNames;
+        private final Map<Long, int[]> genreCharts;
+        private final Map<Integer, int[]> decadeCharts;
+        private final String[] ids;
+        private final String[] titles;
+        private final String[] directors;
+        private final short[] years;
+        private final int[] ratingTenths;
+        private final int[] numVotes;
+        private final int[] weighted;
+        private final long buildMillis;
+        private final long approxBytes;
+
+        private Snapshot(long version, Map<Long, String> genreNames, Map<Long, int[]> genreCharts,
+                         Map<Integer, int[]> decadeCharts, String[] ids, String[] titles, String[] directors,
+                         short[] years, int[] ratingTenths, int[] numVotes, int[] weighted,
+                         long buildMillis, long approxBytes) {
+            this.version = version;
+            this.genreNames = genreNames;
+            this.genreCharts = genreCharts;
+            this.decadeCharts = decadeCharts;
+            this.ids = ids;
+            this.titles = titles;
+            this.directors = directors;
+            this.years = years;
+            this.ratingTenths = ratingTenths;
+            this.numVotes = numVotes;
+            this.weighted = weighted;
+            this.buildMillis = buildMillis;
+            this.approxBytes = approxBytes;
+        }
+
+        private List<ChartResponse.ChartItem> items(int[] chart, int limit) {
+            int n = chart == null ? 0 : Math.min(limit, chart.length);
+            List<ChartResponse.ChartItem> items = new ArrayList<>(n);
+            for (int position = 0; position < n; position++) {
+                int i = chart[position];
+                ChartResponse.ChartItem item = new ChartResponse.ChartItem();
+                item.setPosition(position + 1);
+                item.setId(ids[i]);
+                item.setTitle(titles[i]);
+                item.setYear(years[i] == NO_YEAR ? null : years[i]);
+                item.setDirector(directors[i]);
+                item.setRating(ratingTenths[i] == NO_VALUE ? null : BigDecimal.valueOf(ratingTenths[i], 1));
+                item.setNumVotes(numVotes[i] == NO_VALUE ? null : numVotes[i]);
+                item.setWeightedRating(weighted[i] == NO_VALUE ? null : BigDecimal.valueOf(weighted[i], 4));
+                items.add(item);
+            }
+            return items;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validated id list of a batch (multi-get) request.
+ *
+ * <p>Ids are given comma-separated. {@link #requested()} keeps them in
+ * request order, duplicates included, so responses can answer position by
+ * position; {@link #distinct()} is what is actually looked up.</p>
+ */
+public final class BatchIds {
+
+    public static final int MAX_IDS = 100;
+
+    private final List<String> requested;
+    private final Set<String> distinct;
+
+    private BatchIds(List<String> requested) {
+        this.requested = Collections.unmodifiableList(requested);
+        this.distinct = Collections.unmodifiableSet(new LinkedHashSet<>(requested));
+    }
+
+    /**
+     * @param ids Comma-separated ids, e.g. {@code tt0133093,tt0234215}
+     * @throws BadRequestException if no id is given, an id is blank, or there are more than {@link #MAX_IDS}
+     */
+    public static BatchIds of(String ids) {
+        if (ids == null || ids.isBlank()) {
+            throw new BadRequestException("ids must contain at least one id");
+        }
+        List<String> parsed = new ArrayList<>();
+        for (String id : ids.split(",", -1)) {
+            String trimmed = id.trim();
+            if (trimmed.isEmpty()) {
+                throw new BadRequestException("ids must not contain blank entries");
+            }
+            parsed.add(trimmed);
+        }
+        if (parsed.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " ids may be requested at once");
+        }
+        return new BatchIds(parsed);
+    }
+
+    public List<String> requested() { return requested; }
+    public Set<String> distinct() { return distinct; }
+}
@@ -0,0 +1,44 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+
+/**
+ * How {@code totalItems} is produced for a paginated response,
+ * selected with the {@code countMode} query parameter.
+ */
+public enum CountMode {
+
+    /**
+     * Exact COUNT(*), cached per filter until the catalog changes.
+     */
+    EXACT("exact"),
+
+    /**
+     * Planner row estimate from EXPLAIN; cheap but approximate.
+     */
+    ESTIMATE("estimate"),
+
+    /**
+     * No count at all; only whether another page follows.
+     */
+    HAS_MORE("hasMore");
+
+    private final String param;
+
+    CountMode(String param) {
+        this.param = param;
+    }
+
+    public static CountMode fromParam(String value) {
+        for (CountMode mode : values()) {
+            if (mode.param.equals(value)) {
+                return mode;
+            }
+        }
+        throw new BadRequestException("Invalid countMode value: " + value + " (allowed: exact, estimate, hasMore)");
+    }
+
+    public String param() {
+        return param;
+    }
+}
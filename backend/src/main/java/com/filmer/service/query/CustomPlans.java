@@ -0,0 +1,52 @@
+package com.filmer.service.query;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Function;
+
+/**
+ * Runs statements with {@code plan_cache_mode = force_custom_plan}.
+ *
+ * <p>Once the driver has prepared a statement on a connection, PostgreSQL
+ * may switch it to a cached generic plan. A generic plan cannot see an
+ * ILIKE pattern, so it does not know whether a trigram index helps and
+ * usually scans the table instead. Only the partial-match filters need
+ * custom plans, so the setting is made on one pooled connection for the
+ * statements given here and reset before the connection goes back.</p>
+ */
+public final class CustomPlans {
+
+    private CustomPlans() {
+    }
+
+    /**
+     * @param jdbcTemplate Template whose data source supplies the connection
+     * @param statements   Runs the statements, on a template bound to that one connection
+     * @return What {@code statements} returns
+     */
+    public static <T> T run(JdbcTemplate jdbcTemplate, Function<JdbcTemplate, T> statements) {
+        return jdbcTemplate.execute((ConnectionCallback<T>) connection -> {
+            set(connection, "SET plan_cache_mode = force_custom_plan");
+            try {
+                JdbcTemplate bound = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                bound.setFetchSize(jdbcTemplate.getFetchSize());
+                bound.setMaxRows(jdbcTemplate.getMaxRows());
+                bound.setQueryTimeout(jdbcTemplate.getQueryTimeout());
+                return statements.apply(bound);
+            } finally {
+                set(connection, "RESET plan_cache_mode");
+            }
+        });
+    }
+
+    private static void set(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
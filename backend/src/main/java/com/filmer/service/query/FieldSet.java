@@ -0,0 +1,78 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validated {@code fields} parameter (sparse fieldset) of a list endpoint.
+ *
+ * <p>Lists the JSON fields of each item the client wants, comma-separated;
+ * {@code id} is always included. Services consult {@link #includes} to
+ * skip the joins and hydration queries of fields that were not asked for.</p>
+ */
+public final class FieldSet {
+
+    private final List<String> names;
+    private final boolean all;
+
+    private FieldSet(List<String> names, boolean all) {
+        this.names = Collections.unmodifiableList(names);
+        this.all = all;
+    }
+
+    /**
+     * @param fields  Comma-separated field names, or null/blank for all fields
+     * @param allowed Fields of the item type, in serialization order
+     * @throws BadRequestException if a name is not one of the allowed fields
+     */
+    public static FieldSet of(String fields, List<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return new FieldSet(new ArrayList<>(allowed), true);
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        requested.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new BadRequestException("Invalid field: " + name + " (allowed: " + String.join(", ", allowed) + ")");
+            }
+            requested.add(name);
+        }
+        List<String> names = new ArrayList<>(requested.size());
+        for (String name : allowed) {
+            if (requested.contains(name)) {
+                names.add(name);
+            }
+        }
+        return new FieldSet(names, names.size() == allowed.size());
+    }
+
+    public boolean includes(String name) {
+        return all || names.contains(name);
+    }
+
+    /**
+     * @return Selected fields, or null when all are selected
+     */
+    public Set<String> selection() {
+        return all ? null : Set.copyOf(names);
+    }
+
+    /**
+     * @return A string equal for requests that select the same fields
+     */
+    public String key() {
+        return all ? "*" : String.join(",", names);
+    }
+
+    public List<String> names() { return names; }
+    public boolean isAll() { return all; }
+}
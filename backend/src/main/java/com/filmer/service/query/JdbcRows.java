@@ -0,0 +1,23 @@
+package com.filmer.service.query;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Null-aware column readers for JDBC result sets.
+ */
+public final class JdbcRows {
+
+    private JdbcRows() {
+    }
+
+    public static Short getShort(ResultSet rs, String column) throws SQLException {
+        short value = rs.getShort(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    public static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+}
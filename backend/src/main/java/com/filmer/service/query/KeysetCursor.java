@@ -0,0 +1,90 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Opaque pagination cursor for keyset (seek) pagination.
+ *
+ * <p>A cursor records the {@code (sortKey, id)} of the row at a page boundary
+ * together with the sort it was issued for and the direction to continue in.
+ * Clients treat it as an opaque string and pass it back unchanged.</p>
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "\u001F";
+
+    private static final Pattern REAL = Pattern.compile("[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+
+    private final String sortBy;
+    private final boolean descending;
+    private final boolean backward;
+    private final String id;
+    private final String sortValue;
+
+    public KeysetCursor(String sortBy, boolean descending, boolean backward, String id, String sortValue) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.backward = backward;
+        this.id = id;
+        this.sortValue = sortValue;
+    }
+
+    public String encode() {
+        String payload = String.join(SEPARATOR,
+                sortBy, descending ? "desc" : "asc", backward ? "prev" : "next", id, sortValue);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = payload.split(SEPARATOR, 5);
+            if (parts.length != 5) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new KeysetCursor(parts[0], "desc".equals(parts[1]), "prev".equals(parts[2]), parts[3], parts[4]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Checks that the sort value can be bound as the sort's SQL type, so a
+     * tampered cursor is rejected before it reaches the database.
+     *
+     * @param sqlType Type the seek predicate casts the value to
+     * @throws BadRequestException if the value is not of that type
+     */
+    public void checkSortValue(String sqlType) {
+        boolean valid;
+        switch (sqlType) {
+            case "integer":
+                try {
+                    Integer.parseInt(sortValue);
+                    valid = true;
+                } catch (NumberFormatException e) {
+                    valid = false;
+                }
+                break;
+            case "real":
+                valid = REAL.matcher(sortValue).matches();
+                break;
+            default:
+                valid = true;
+        }
+        if (!valid) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String getSortBy() { return sortBy; }
+    public boolean isDescending() { return descending; }
+    public boolean isBackward() { return backward; }
+    public String getId() { return id; }
+    public String getSortValue() { return sortValue; }
+}
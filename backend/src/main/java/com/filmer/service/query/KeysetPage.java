@@ -0,0 +1,33 @@
+package com.filmer.service.query;
+
+import java.util.List;
+
+/**
+ * One page of rows fetched by {@link KeysetQuery}, with the cursors
+ * needed to continue in either direction.
+ *
+ * @param <T> The type of rows on the page
+ */
+public final class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final String prevCursor;
+    private final boolean hasNext;
+
+    public KeysetPage(List<T> items, String nextCursor, String prevCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public String getPrevCursor() { return prevCursor; }
+
+    /**
+     * @return true if at least one more row follows this page in sort order
+     */
+    public boolean hasNext() { return hasNext; }
+}
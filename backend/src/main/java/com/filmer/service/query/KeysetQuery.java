@@ -0,0 +1,197 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds paginated SELECTs that support both OFFSET and keyset (seek) paging.
+ *
+ * <p>In cursor mode the query seeks with a row-value comparison on
+ * {@code (sortExpression, id)}, which a composite index on the same columns
+ * can satisfy directly, so deep pages cost the same as the first one.
+ * Page-number mode still uses OFFSET, but every page returns cursors so a
+ * client can switch to seeking after the first request.</p>
+ *
+ * <p>Each fetch reads one extra row to learn whether another page exists
+ * in the direction of travel.</p>
+ */
+public final class KeysetQuery {
+
+    private final String columns;
+    private String from;
+    private final List<Object> fromParams = new ArrayList<>();
+    private final List<String> conditions = new ArrayList<>();
+    private final List<Object> params = new ArrayList<>();
+    private SortField sort;
+    private String idColumn;
+    private boolean customPlans;
+
+    private KeysetQuery(String columns) {
+        this.columns = columns;
+    }
+
+    public static KeysetQuery select(String columns) {
+        return new KeysetQuery(columns);
+    }
+
+    /**
+     * @param from   FROM clause, which may contain placeholders (e.g. a joined function call)
+     * @param values Values for the placeholders in {@code from}, bound before the WHERE values
+     */
+    public KeysetQuery from(String from, Object... values) {
+        this.from = from;
+        fromParams.clear();
+        Collections.addAll(fromParams, values);
+        return this;
+    }
+
+    public KeysetQuery where(String condition, Object... values) {
+        conditions.add(condition);
+        Collections.addAll(params, values);
+        return this;
+    }
+
+    public KeysetQuery orderBy(SortField sort, String idColumn) {
+        this.sort = sort;
+        this.idColumn = idColumn;
+        return this;
+    }
+
+    /**
+     * Plans this query's statements with their bound values every time
+     * (see {@link CustomPlans}); needed by partial-match (ILIKE) filters.
+     */
+    public KeysetQuery customPlans() {
+        this.customPlans = true;
+        return this;
+    }
+
+    /**
+     * Runs statements for this query, with custom plans if it asked for them.
+     */
+    public <T> T execute(JdbcTemplate jdbcTemplate, Function<JdbcTemplate, T> statements) {
+        return customPlans ? CustomPlans.run(jdbcTemplate, statements) : statements.apply(jdbcTemplate);
+    }
+
+    /**
+     * @return The number of rows matching the filters (ignores any cursor)
+     */
+    public long count(JdbcTemplate jdbcTemplate) {
+        Long count = execute(jdbcTemplate, t -> t.queryForObject(countSql(), Long.class, filterParams()));
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return SQL counting the rows matching the filters; together with
+     *         {@link #filterParams()} it identifies the filter independently of paging
+     */
+    public String countSql() {
+        return "SELECT COUNT(*) FROM " + from + whereClause(conditions);
+    }
+
+    /**
+     * @return EXPLAIN statement whose top-level "Plan Rows" is the planner's
+     *         estimate of the rows matching the filters
+     */
+    public String estimateSql() {
+        return "EXPLAIN (FORMAT JSON) SELECT 1 FROM " + from + whereClause(conditions);
+    }
+
+    public Object[] filterParams() {
+        List<Object> all = new ArrayList<>(fromParams);
+        all.addAll(params);
+        return all.toArray();
+    }
+
+    public <T> KeysetPage<T> fetch(JdbcTemplate jdbcTemplate, PageRequest page, RowMapper<T> mapper) {
+        KeysetCursor cursor = page.getCursor();
+        boolean backward = cursor != null && cursor.isBackward();
+
+        List<String> where = new ArrayList<>(conditions);
+        List<Object> args = new ArrayList<>(fromParams);
+        args.addAll(params);
+        if (cursor != null) {
+            if (!sort.param().equals(cursor.getSortBy()) || cursor.isDescending() != page.isDescending()) {
+                throw new BadRequestException("cursor was issued for a different sortBy/order");
+            }
+            cursor.checkSortValue(sort.sqlType());
+            String op = page.isDescending() == backward ? ">" : "<";
+            where.add("(" + sort.expression() + ", " + idColumn + ") " + op
+                    + " (CAST(? AS " + sort.sqlType() + "), ?)");
+            args.add(cursor.getSortValue());
+            args.add(cursor.getId());
+        }
+
+        String direction = page.isDescending() != backward ? "DESC" : "ASC";
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT ").append(columns)
+                .append(", ").append(sort.expression()).append(" AS keyset_sort")
+                .append(", ").append(idColumn).append(" AS keyset_id")
+                .append(" FROM ").append(from)
+                .append(whereClause(where))
+                .append(" ORDER BY ").append(sort.expression()).append(' ').append(direction)
+                .append(", ").append(idColumn).append(' ').append(direction)
+                .append(" LIMIT ?");
+        args.add(page.getSize() + 1);
+        if (cursor == null) {
+            sql.append(" OFFSET ?");
+            args.add(page.getOffset());
+        }
+
+        List<Row<T>> rows = execute(jdbcTemplate, t -> t.query(sql.toString(),
+                (rs, rowNum) -> new Row<>(mapper.mapRow(rs, rowNum), rs.getString("keyset_sort"), rs.getString("keyset_id")),
+                args.toArray()));
+
+        boolean hasMore = rows.size() > page.getSize();
+        if (hasMore) {
+            rows = rows.subList(0, page.getSize());
+        }
+        if (backward) {
+            rows = new ArrayList<>(rows);
+            Collections.reverse(rows);
+        }
+
+        String next = null;
+        String prev = null;
+        boolean hasNext = !rows.isEmpty() && (backward || hasMore);
+        if (!rows.isEmpty()) {
+            Row<T> first = rows.get(0);
+            Row<T> last = rows.get(rows.size() - 1);
+            boolean hasPrev = backward ? hasMore : (cursor != null || page.getPage() > 1);
+            if (hasNext) {
+                next = new KeysetCursor(sort.param(), page.isDescending(), false, last.id, last.sortKey).encode();
+            }
+            if (hasPrev) {
+                prev = new KeysetCursor(sort.param(), page.isDescending(), true, first.id, first.sortKey).encode();
+            }
+        }
+
+        List<T> items = new ArrayList<>(rows.size());
+        for (Row<T> row : rows) {
+            items.add(row.value);
+        }
+        return new KeysetPage<>(items, next, prev, hasNext);
+    }
+
+    private static String whereClause(List<String> where) {
+        return where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where);
+    }
+
+    private static final class Row<T> {
+        private final T value;
+        private final String sortKey;
+        private final String id;
+
+        private Row(T value, String sortKey, String id) {
+            this.value = value;
+            this.sortKey = sortKey;
+            this.id = id;
+        }
+    }
+}
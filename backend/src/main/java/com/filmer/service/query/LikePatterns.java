@@ -0,0 +1,29 @@
+package com.filmer.service.query;
+
+/**
+ * Helpers for building LIKE / ILIKE patterns from user input.
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    /**
+     * @return A pattern matching values that contain {@code value},
+     *         with LIKE wildcards in the input escaped
+     */
+    public static String contains(String value) {
+        return "%" + escape(value) + "%";
+    }
+
+    /**
+     * @return A pattern matching values that start with {@code value}
+     */
+    public static String startsWith(String value) {
+        return escape(value) + "%";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
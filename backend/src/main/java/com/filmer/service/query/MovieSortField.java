@@ -0,0 +1,48 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+
+/**
+ * Sort orders supported by the movie listing, genre browsing and search
+ * endpoints. Expressions only use {@code movies m} columns, so sorting
+ * never needs the ratings join.
+ *
+ * <p>Rating sorts use {@code movies.rating_rank}, the dense rank of the
+ * Bayesian weighted rating computed by the data loader (0 for unrated
+ * movies, higher is better), rather than the raw rating, so a handful of
+ * perfect votes does not outrank a well-reviewed classic.</p>
+ */
+public enum MovieSortField implements SortField {
+
+    TITLE("title", "m.title", "varchar"),
+    YEAR("year", "COALESCE(m.year, 0)", "integer"),
+    RATING("rating", "m.rating_rank", "integer");
+
+    private final String param;
+    private final String expression;
+    private final String sqlType;
+
+    MovieSortField(String param, String expression, String sqlType) {
+        this.param = param;
+        this.expression = expression;
+        this.sqlType = sqlType;
+    }
+
+    public static MovieSortField fromParam(String value) {
+        for (MovieSortField field : values()) {
+            if (field.param.equals(value)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Invalid sortBy value: " + value + " (allowed: title, year, rating)");
+    }
+
+    @Override
+    public String param() { return param; }
+
+    @Override
+    public String expression() { return expression; }
+
+    @Override
+    public String sqlType() { return sqlType; }
+}
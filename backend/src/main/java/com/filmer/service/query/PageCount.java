@@ -0,0 +1,50 @@
+package com.filmer.service.query;
+
+import com.filmer.dto.response.GenreMoviesResponse;
+import com.filmer.dto.response.PaginatedResponse;
+
+/**
+ * Totals for one paginated response, as produced by the selected {@link CountMode}.
+ * {@code totalItems} and {@code totalPages} are null in {@link CountMode#HAS_MORE} mode.
+ */
+public final class PageCount {
+
+    private final CountMode mode;
+    private final Long totalItems;
+    private final Integer totalPages;
+    private final boolean hasMore;
+
+    private PageCount(CountMode mode, Long totalItems, int size, boolean hasMore) {
+        this.mode = mode;
+        this.totalItems = totalItems;
+        this.totalPages = totalItems == null ? null : (int) Math.ceil((double) totalItems / size);
+        this.hasMore = hasMore;
+    }
+
+    public static PageCount of(CountMode mode, long totalItems, int size, boolean hasMore) {
+        return new PageCount(mode, totalItems, size, hasMore);
+    }
+
+    public static PageCount hasMoreOnly(boolean hasMore) {
+        return new PageCount(CountMode.HAS_MORE, null, 1, hasMore);
+    }
+
+    public void applyTo(PaginatedResponse<?> response) {
+        response.setTotalItems(totalItems);
+        response.setTotalPages(totalPages);
+        response.setHasMore(hasMore);
+        response.setCountMode(mode.param());
+    }
+
+    public void applyTo(GenreMoviesResponse response) {
+        response.setTotalItems(totalItems);
+        response.setTotalPages(totalPages);
+        response.setHasMore(hasMore);
+        response.setCountMode(mode.param());
+    }
+
+    public CountMode getMode() { return mode; }
+    public Long getTotalItems() { return totalItems; }
+    public Integer getTotalPages() { return totalPages; }
+    public boolean isHasMore() { return hasMore; }
+}
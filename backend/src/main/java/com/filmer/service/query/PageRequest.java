@@ -0,0 +1,68 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+
+/**
+ * Validated pagination parameters shared by all paginated endpoints.
+ *
+ * <p>Either page-number mode ({@code page}/{@code size}) or cursor mode
+ * ({@code cursor}/{@code size}) is used; when a cursor is present the page
+ * number is ignored.</p>
+ *
+ * <p>{@link CountMode} selects how the response totals are produced.</p>
+ */
+public final class PageRequest {
+
+    public static final int MAX_SIZE = 100;
+
+    private final int page;
+    private final int size;
+    private final boolean descending;
+    private final KeysetCursor cursor;
+    private final CountMode countMode;
+
+    private PageRequest(int page, int size, boolean descending, KeysetCursor cursor, CountMode countMode) {
+        this.page = page;
+        this.size = size;
+        this.descending = descending;
+        this.cursor = cursor;
+        this.countMode = countMode;
+    }
+
+    public static PageRequest of(int page, int size, String order, String cursor) {
+        return of(page, size, order, cursor, CountMode.EXACT.param());
+    }
+
+    public static PageRequest of(int page, int size, String order, String cursor, String countMode) {
+        if (page < 1) {
+            throw new BadRequestException("page must be at least 1");
+        }
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_SIZE);
+        }
+        if (!"asc".equals(order) && !"desc".equals(order)) {
+            throw new BadRequestException("Invalid order value: " + order + " (allowed: asc, desc)");
+        }
+        KeysetCursor decoded = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+        return new PageRequest(page, size, "desc".equals(order), decoded, CountMode.fromParam(countMode));
+    }
+
+    public long getOffset() {
+        return (long) (page - 1) * size;
+    }
+
+    /**
+     * @return A string equal for requests that must return the same page
+     */
+    public String key() {
+        return String.join("\u001F", String.valueOf(page), String.valueOf(size), String.valueOf(descending),
+                cursor == null ? "" : cursor.encode(), countMode.name());
+    }
+
+    public int getPage() { return page; }
+    public int getSize() { return size; }
+    public boolean isDescending() { return descending; }
+    public KeysetCursor getCursor() { return cursor; }
+    public boolean hasCursor() { return cursor != null; }
+    public CountMode getCountMode() { return countMode; }
+}
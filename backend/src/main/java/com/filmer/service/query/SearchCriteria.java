@@ -0,0 +1,66 @@
+package com.filmer.service.query;
+
+import java.util.Locale;
+
+/**
+ * Filters of a movie search. All present filters are combined with AND.
+ * Text values are trimmed; blank values count as absent.
+ */
+public final class SearchCriteria {
+
+    private final String query;
+    private final String title;
+    private final Integer year;
+    private final Integer yearFrom;
+    private final Integer yearTo;
+    private final String director;
+    private final String star;
+    private final Long genreId;
+
+    public SearchCriteria(String query, String title, Integer year, Integer yearFrom, Integer yearTo,
+                          String director, String star, Long genreId) {
+        this.query = normalize(query);
+        this.title = normalize(title);
+        this.year = year;
+        this.yearFrom = yearFrom;
+        this.yearTo = yearTo;
+        this.director = normalize(director);
+        this.star = normalize(star);
+        this.genreId = genreId;
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * @return true if at least one filter is present
+     */
+    public boolean hasAny() {
+        return query != null || title != null || year != null || yearFrom != null || yearTo != null
+                || director != null || star != null || genreId != null;
+    }
+
+    /**
+     * @return A string equal for searches that must return the same rows;
+     *         partial-match filters are case-insensitive, so they are lower-cased
+     */
+    public String key() {
+        return String.join("\u001F", String.valueOf(query), lower(title), String.valueOf(year),
+                String.valueOf(yearFrom), String.valueOf(yearTo), lower(director), lower(star),
+                String.valueOf(genreId));
+    }
+
+    private static String lower(String value) {
+        return value == null ? "null" : value.toLowerCase(Locale.ROOT);
+    }
+
+    public String getQuery() { return query; }
+    public String getTitle() { return title; }
+    public Integer getYear() { return year; }
+    public Integer getYearFrom() { return yearFrom; }
+    public Integer getYearTo() { return yearTo; }
+    public String getDirector() { return director; }
+    public String getStar() { return star; }
+    public Long getGenreId() { return genreId; }
+}
@@ -0,0 +1,59 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+
+/**
+ * Sort orders supported by movie search: the movie sort fields plus
+ * full-text relevance. The relevance expression assumes the parsed query
+ * is joined as {@code q(query)}; it is negated so that ascending order
+ * lists the best matches first.
+ */
+public enum SearchSortField implements SortField {
+
+    TITLE(MovieSortField.TITLE),
+    YEAR(MovieSortField.YEAR),
+    RATING(MovieSortField.RATING),
+    RELEVANCE("relevance", "-ts_rank(m.search_document, q.query)", "real");
+
+    private final MovieSortField movieSortField;
+    private final String param;
+    private final String expression;
+    private final String sqlType;
+
+    SearchSortField(MovieSortField field) {
+        this.movieSortField = field;
+        this.param = field.param();
+        this.expression = field.expression();
+        this.sqlType = field.sqlType();
+    }
+
+    SearchSortField(String param, String expression, String sqlType) {
+        this.movieSortField = null;
+        this.param = param;
+        this.expression = expression;
+        this.sqlType = sqlType;
+    }
+
+    public static SearchSortField fromParam(String value) {
+        for (SearchSortField field : values()) {
+            if (field.param.equals(value)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Invalid sortBy value: " + value + " (allowed: title, year, rating, relevance)");
+    }
+
+    /**
+     * @return The equivalent movie sort field, or null for relevance
+     */
+    public MovieSortField movieSortField() { return movieSortField; }
+
+    @Override
+    public String param() { return param; }
+
+    @Override
+    public String expression() { return expression; }
+
+    @Override
+    public String sqlType() { return sqlType; }
+}
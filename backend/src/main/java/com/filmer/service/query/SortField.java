@@ -0,0 +1,24 @@
+package com.filmer.service.query;
+
+/**
+ * A sortable column exposed through the {@code sortBy} query parameter.
+ * The SQL expression must never evaluate to NULL so that it can be used
+ * as the leading column of a keyset (seek) predicate.
+ */
+public interface SortField {
+
+    /**
+     * @return The value accepted in the {@code sortBy} parameter
+     */
+    String param();
+
+    /**
+     * @return Non-null SQL expression to order by
+     */
+    String expression();
+
+    /**
+     * @return SQL type used to bind cursor values back into the seek predicate
+     */
+    String sqlType();
+}
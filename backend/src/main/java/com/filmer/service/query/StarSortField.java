@@ -0,0 +1,42 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+
+/**
+ * Sort orders supported by the star listing endpoint.
+ * Expressions assume {@code stars s}.
+ */
+public enum StarSortField implements SortField {
+
+    NAME("name", "s.name", "varchar"),
+    BIRTH_YEAR("birthYear", "COALESCE(s.birth_year, 0)", "integer"),
+    MOVIE_COUNT("movieCount", "s.movie_count", "integer");
+
+    private final String param;
+    private final String expression;
+    private final String sqlType;
+
+    StarSortField(String param, String expression, String sqlType) {
+        this.param = param;
+        this.expression = expression;
+        this.sqlType = sqlType;
+    }
+
+    public static StarSortField fromParam(String value) {
+        for (StarSortField field : values()) {
+            if (field.param.equals(value)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Invalid sortBy value: " + value + " (allowed: name, birthYear, movieCount)");
+    }
+
+    @Override
+    public String param() { return param; }
+
+    @Override
+    public String expression() { return expression; }
+
+    @Override
+    public String sqlType() { return sqlType; }
+}
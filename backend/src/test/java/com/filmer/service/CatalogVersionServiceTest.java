@@ -0,0 +1,65 @@
+package com.filmer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a catalog version only counts as applied once every listener
+ * has succeeded, and that a failed change is published again.
+ */
+class CatalogVersionServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private CatalogVersionService service;
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(7L);
+        service = new CatalogVersionService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "eventPublisher", eventPublisher);
+    }
+
+    @Test
+    void appliesAVersionOnceEveryListenerSucceeds() {
+        service.poll();
+
+        assertEquals(7L, service.getVersion());
+        assertEquals(7L, service.getAppliedVersion());
+
+        service.poll();
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void keepsThePreviousVersionAndRetriesWhenAListenerFails() {
+        doThrow(new IllegalStateException("rebuild failed")).doNothing()
+                .when(eventPublisher).publishEvent(any(Object.class));
+
+        service.poll();
+
+        assertEquals(0L, service.getVersion());
+        assertEquals(0L, service.getAppliedVersion());
+
+        service.poll();
+
+        assertEquals(7L, service.getVersion());
+        assertEquals(7L, service.getAppliedVersion());
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+}
@@ -0,0 +1,159 @@
+package com.filmer.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks graph searches against a plain breadth-first search over a random
+ * cast list large enough for frontiers to outgrow their initial buffers.
+ */
+class CoStarGraphTest {
+
+    private static final int STARS = 5000;
+    private static final int MOVIES = 1500;
+    private static final int CAST = 4;
+
+    private static final List<String[]> links = new ArrayList<>();
+
+    private static CoStarGraph graph;
+
+    @BeforeAll
+    static void build() {
+        Random random = new Random(11);
+        for (int movie = 0; movie < MOVIES; movie++) {
+            for (int i = 0; i < CAST; i++) {
+                // Even stars only, so odd stars have no links
+                links.add(new String[] {starId(2 * random.nextInt(STARS / 2)), movieId(movie)});
+            }
+        }
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            String[][] row = new String[1][];
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString(any(Integer.class))).thenAnswer(i -> row[0][(Integer) i.getArgument(0) - 1]);
+            List<String[]> rows = new ArrayList<>();
+            if (sql.startsWith("SELECT s.id FROM stars")) {
+                new TreeSet<>(links.stream().map(link -> link[0]).toList()).forEach(id -> rows.add(new String[] {id}));
+            } else if (sql.startsWith("SELECT m.id FROM movies")) {
+                new TreeSet<>(links.stream().map(link -> link[1]).toList()).forEach(id -> rows.add(new String[] {id}));
+            } else {
+                rows.addAll(links);
+            }
+            for (String[] values : rows) {
+                row[0] = values;
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        graph = CoStarGraph.build(jdbcTemplate, 1, 0);
+    }
+
+    @Test
+    void numbersOnlyLinkedStars() {
+        assertEquals(-1, graph.starOrdinal(starId(1)));
+        assertTrue(graph.getStarCount() <= STARS / 2);
+        assertEquals(MOVIES, graph.getMovieCount());
+    }
+
+    @Test
+    void findsShortestPathsAndNeighborhoods() {
+        Random random = new Random(5);
+        for (int i = 0; i < 50; i++) {
+            int from = random.nextInt(graph.getStarCount());
+            int to = random.nextInt(graph.getStarCount());
+            int[] distances = distances(from);
+
+            int[] path = graph.shortestPath(from, to, 10);
+            if (distances[to] < 0 || distances[to] > 10) {
+                assertNull(path);
+            } else {
+                assertEquals(2 * distances[to] + 1, path.length);
+                assertEquals(from, path[0]);
+                assertEquals(to, path[path.length - 1]);
+                for (int p = 1; p < path.length; p += 2) {
+                    assertTrue(cast(path[p], path[p - 1]) && cast(path[p], path[p + 1]), "link " + p);
+                }
+            }
+
+            long[] expected = new long[6];
+            for (int distance : distances) {
+                if (distance > 0 && distance <= expected.length) {
+                    expected[distance - 1]++;
+                }
+            }
+            assertArrayEquals(expected, graph.neighborhood(from, expected.length));
+        }
+        assertTrue(graph.getSearchBytes() > 0);
+    }
+
+    private static boolean cast(int movie, int star) {
+        String movieId = graph.movieId(movie);
+        String starId = graph.starId(star);
+        return links.stream().anyMatch(link -> link[0].equals(starId) && link[1].equals(movieId));
+    }
+
+    private static int[] distances(int from) {
+        List<List<Integer>> costars = new ArrayList<>();
+        for (int s = 0; s < graph.getStarCount(); s++) {
+            costars.add(new ArrayList<>());
+        }
+        List<List<Integer>> casts = new ArrayList<>();
+        for (int m = 0; m < MOVIES; m++) {
+            casts.add(new ArrayList<>());
+        }
+        for (String[] link : links) {
+            casts.get(Integer.parseInt(link[1].substring(2))).add(graph.starOrdinal(link[0]));
+        }
+        for (List<Integer> cast : casts) {
+            for (int a : cast) {
+                costars.get(a).addAll(cast);
+            }
+        }
+        int[] distances = new int[graph.getStarCount()];
+        Arrays.fill(distances, -1);
+        distances[from] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>(List.of(from));
+        while (!queue.isEmpty()) {
+            int star = queue.poll();
+            for (int costar : costars.get(star)) {
+                if (distances[costar] < 0) {
+                    distances[costar] = distances[star] + 1;
+                    queue.add(costar);
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static String starId(int i) {
+        return String.format("nm%07d", i);
+    }
+
+    private static String movieId(int i) {
+        return String.format("tt%07d", i);
+    }
+}
@@ -0,0 +1,133 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.MovieListItemResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that hydrating a page costs a constant number of statements,
+ * whatever the page size. Statements are counted at the JDBC connection,
+ * below JdbcTemplate; every query returns one row per requested movie.
+ */
+class MovieListHydratorTest {
+
+    private final List<String> statements = new ArrayList<>();
+
+    private MovieListHydrator hydrator;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            statements.add(invocation.getArgument(0));
+            return statement(connection);
+        });
+        when(connection.createArrayOf(anyString(), any()))
+                .thenAnswer(invocation -> sqlArray((Object[]) invocation.getArgument(1)));
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        hydrator = new MovieListHydrator();
+        ReflectionTestUtils.setField(hydrator, "jdbcTemplate", new JdbcTemplate(dataSource));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50})
+    void hydratesAPageWithTwoStatements(int pageSize) {
+        List<MovieListItemResponse> page = page(pageSize);
+
+        hydrator.hydrate(page, true, true);
+
+        assertEquals(2, statements.size(), "statements for a page of " + pageSize);
+        for (MovieListItemResponse item : page) {
+            assertEquals(List.of("genre-" + item.getId()), item.getGenres());
+            assertEquals(1, item.getStars().size());
+            assertEquals("star-" + item.getId(), item.getStars().get(0).getId());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50})
+    void runsOnlyTheRequestedPart(int pageSize) {
+        hydrator.hydrate(page(pageSize), true, false);
+
+        assertEquals(1, statements.size());
+    }
+
+    @Test
+    void runsNothingForAnEmptyPage() {
+        hydrator.hydrate(new ArrayList<>(), true, true);
+
+        assertEquals(0, statements.size());
+    }
+
+    private static List<MovieListItemResponse> page(int size) {
+        List<MovieListItemResponse> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            MovieListItemResponse item = new MovieListItemResponse();
+            item.setId("tt" + i);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * A statement whose result has one row per movie id bound to it; every
+     * array column of a row holds a single value derived from the movie id.
+     */
+    private static PreparedStatement statement(Connection connection) throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.getConnection()).thenReturn(connection);
+        Object[][] bound = new Object[1][];
+        doAnswer(invocation -> {
+            bound[0] = (Object[]) ((Array) invocation.getArgument(1)).getArray();
+            return null;
+        }).when(statement).setArray(eq(1), any());
+        when(statement.executeQuery()).thenAnswer(invocation -> resultSet(bound[0]));
+        return statement;
+    }
+
+    private static ResultSet resultSet(Object[] movieIds) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        int[] row = {-1};
+        when(rs.next()).thenAnswer(invocation -> ++row[0] < movieIds.length);
+        when(rs.getString("movie_id")).thenAnswer(invocation -> movieIds[row[0]]);
+        when(rs.getArray(anyString())).thenAnswer(invocation -> {
+            String column = invocation.getArgument(0);
+            String prefix = column.startsWith("genre") ? "genre-" : column.equals("star_ids") ? "star-" : "name-";
+            return sqlArray(new String[]{prefix + movieIds[row[0]]});
+        });
+        return rs;
+    }
+
+    private static Array sqlArray(Object[] values) throws SQLException {
+        Array array = mock(Array.class);
+        String[] strings = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            strings[i] = (String) values[i];
+        }
+        when(array.getArray()).thenReturn(strings);
+        return array;
+    }
+}
@@ -0,0 +1,340 @@
+package com.filmer.service;
+
+import com.filmer.service.query.KeysetCursor;
+import com.filmer.service.query.MovieSortField;
+import com.filmer.service.query.PageRequest;
+import com.filmer.service.query.SearchCriteria;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks index searches against a reference implementation of the SQL
+ * path: filter, {@code ORDER BY expression, id} and offset or seek
+ * pagination over the same small catalog the index is built from.
+ */
+class MovieSearchIndexTest {
+
+    private static final String[] WORDS = {"love", "war", "night", "city", "dream"};
+
+    private static final int PAGE_SIZE = 3;
+
+    @Test
+    void readsPlainAndOfLexemes() {
+        assertEquals(List.of("godfath", "part", "ii"), MovieSearchIndex.plainLexemes("'godfath' & 'part' & 'ii'"));
+        assertEquals(List.of("o'brien"), MovieSearchIndex.plainLexemes("'o''brien'"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "'spider-man' <-> 'spider' <-> 'man'",
+            "'star' | 'war'",
+            "'alien' & !'resurrect'",
+            "'termin':*",
+            "'alien':A",
+            "'a\\\\b'",
+    })
+    void declinesAnythingElse(String tsquery) {
+        assertTrue(MovieSearchIndex.plainLexemes(tsquery).isEmpty());
+    }
+
+    static Stream<Arguments> searches() {
+        List<SearchCriteria> filters = List.of(
+                criteria(null, null, null, null, null),
+                criteria("love", null, null, null, null),
+                criteria("love night", null, null, null, null),
+                criteria(null, 2001, null, null, null),
+                criteria(null, null, 1995, 2003, null),
+                criteria(null, null, null, 2000, null),
+                criteria(null, null, null, null, 2L),
+                criteria("war", null, 1990, null, 1L),
+                criteria("missing", null, null, null, null));
+        List<Arguments> arguments = new ArrayList<>();
+        for (SearchCriteria filter : filters) {
+            for (MovieSortField sort : MovieSortField.values()) {
+                arguments.add(Arguments.of(filter, sort, false));
+                arguments.add(Arguments.of(filter, sort, true));
+            }
+        }
+        return arguments.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("searches")
+    void pagesMatchTheSqlPath(SearchCriteria criteria, MovieSortField sort, boolean descending) {
+        Catalog catalog = new Catalog(40, 3);
+        MovieSearchIndex index = catalog.index();
+        List<Movie> expected = catalog.expected(criteria, sort, descending);
+        String order = descending ? "desc" : "asc";
+
+        // Page numbers, one past the last page included
+        int pages = expected.size() / PAGE_SIZE + 1;
+        for (int page = 1; page <= pages; page++) {
+            MovieSearchIndex.Result result = index.search(criteria, sort, PageRequest.of(page, PAGE_SIZE, order, null));
+            int from = Math.min((page - 1) * PAGE_SIZE, expected.size());
+            int to = Math.min(from + PAGE_SIZE, expected.size());
+            assertPage(expected.subList(from, to), expected.size(), to < expected.size(), page > 1, result);
+        }
+
+        // Forward from every movie, then backward from every movie
+        for (int at = 0; at < expected.size(); at++) {
+            Movie movie = expected.get(at);
+            MovieSearchIndex.Result next = index.search(criteria, sort, cursorPage(sort, descending, false, movie));
+            int to = Math.min(at + 1 + PAGE_SIZE, expected.size());
+            assertPage(expected.subList(at + 1, to), expected.size(), to < expected.size(), true, next);
+
+            MovieSearchIndex.Result prev = index.search(criteria, sort, cursorPage(sort, descending, true, movie));
+            int from = Math.max(0, at - PAGE_SIZE);
+            assertPage(expected.subList(from, at), expected.size(), true, from > 0, prev);
+        }
+    }
+
+    @Test
+    void sortsMissingYearsAsZeroAndExcludesThemFromYearFilters() {
+        Catalog catalog = new Catalog(40, 3);
+        MovieSearchIndex index = catalog.index();
+
+        List<String> firstByYear = index.search(criteria(null, null, null, null, null), MovieSortField.YEAR,
+                PageRequest.of(1, PAGE_SIZE, "asc", null)).getMovieIds();
+        for (String id : firstByYear) {
+            assertNull(catalog.movie(id).year, id + " has a year but sorts before the movies without one");
+        }
+
+        MovieSearchIndex.Result bounded = index.search(criteria(null, null, null, 3000, null), MovieSortField.YEAR,
+                PageRequest.of(1, 100, "asc", null));
+        for (String id : bounded.getMovieIds()) {
+            assertNotNull(catalog.movie(id).year);
+        }
+        assertEquals(catalog.expected(criteria(null, null, null, 3000, null), MovieSortField.YEAR, false).size(),
+                bounded.getTotal());
+    }
+
+    @Test
+    void declinesGenreFiltersWhenGenresDoNotFitTheBitmask() {
+        Catalog catalog = new Catalog(200, 70);
+        MovieSearchIndex index = catalog.index();
+
+        assertNull(index.search(criteria(null, null, null, null, 1L), MovieSortField.TITLE,
+                PageRequest.of(1, PAGE_SIZE, "asc", null)));
+
+        SearchCriteria byYear = criteria(null, null, 1990, null, null);
+        MovieSearchIndex.Result result = index.search(byYear, MovieSortField.TITLE, PageRequest.of(1, PAGE_SIZE, "asc", null));
+        List<Movie> expected = catalog.expected(byYear, MovieSortField.TITLE, false);
+        assertPage(expected.subList(0, Math.min(PAGE_SIZE, expected.size())), expected.size(),
+                expected.size() > PAGE_SIZE, false, result);
+    }
+
+    @Test
+    void declinesAStaleIndex() {
+        Catalog catalog = new Catalog(40, 3);
+        MovieSearchIndex index = catalog.index();
+        when(catalog.versions.getVersion()).thenReturn(2L);
+
+        assertNull(index.search(criteria("love", null, null, null, null), MovieSortField.TITLE,
+                PageRequest.of(1, PAGE_SIZE, "asc", null)));
+    }
+
+    private static void assertPage(List<Movie> items, int total, boolean hasNext, boolean hasPrev,
+                                   MovieSearchIndex.Result result) {
+        assertNotNull(result);
+        assertEquals(items.stream().map(movie -> movie.id).collect(Collectors.toList()), result.getMovieIds());
+        assertEquals(total, result.getTotal());
+        if (!items.isEmpty()) {
+            assertEquals(hasNext, result.hasNext(), "hasNext");
+            assertEquals(hasPrev, result.hasPrev(), "hasPrev");
+        }
+    }
+
+    private static PageRequest cursorPage(MovieSortField sort, boolean descending, boolean backward, Movie movie) {
+        String cursor = new KeysetCursor(sort.param(), descending, backward, movie.id, "0").encode();
+        return PageRequest.of(1, PAGE_SIZE, descending ? "desc" : "asc", cursor);
+    }
+
+    private static SearchCriteria criteria(String query, Integer year, Integer yearFrom, Integer yearTo, Long genreId) {
+        return new SearchCriteria(query, null, year, yearFrom, yearTo, null, null, genreId);
+    }
+
+    private static final class Movie {
+
+        private final String id;
+        private final String title;
+        private final Integer year;
+        private final int ratingRank;
+        private final List<String> lexemes;
+        private final List<Long> genres;
+
+        private Movie(String id, String title, Integer year, int ratingRank, List<String> lexemes, List<Long> genres) {
+            this.id = id;
+            this.title = title;
+            this.year = year;
+            this.ratingRank = ratingRank;
+            this.lexemes = lexemes;
+            this.genres = genres;
+        }
+    }
+
+    /**
+     * A random catalog with duplicate titles, years and ranks (so ties are
+     * broken by id), missing years, and an index built from it through a
+     * mocked JdbcTemplate answering each build query.
+     */
+    private static final class Catalog {
+
+        private final List<Movie> movies = new ArrayList<>();
+        private final CatalogVersionService versions = mock(CatalogVersionService.class);
+
+        private Catalog(int size, int genreCount) {
+            Random random = new Random(7);
+            for (int i = 0; i < size; i++) {
+                String first = WORDS[random.nextInt(WORDS.length)];
+                String second = WORDS[random.nextInt(WORDS.length)];
+                Integer year = random.nextInt(5) == 0 ? null : 1990 + random.nextInt(15);
+                List<String> lexemes = first.equals(second) ? List.of(first) : List.of(first, second);
+                List<Long> genres = new ArrayList<>();
+                for (long genre = 1; genre <= genreCount; genre++) {
+                    if (random.nextInt(Math.max(2, genreCount / 2)) == 0) {
+                        genres.add(genre);
+                    }
+                }
+                movies.add(new Movie(String.format("tt%07d", size - i), first + " " + second, year,
+                        random.nextInt(10), lexemes, genres));
+            }
+        }
+
+        private Movie movie(String id) {
+            return movies.stream().filter(movie -> movie.id.equals(id)).findFirst().orElseThrow();
+        }
+
+        private List<Movie> expected(SearchCriteria criteria, MovieSortField sort, boolean descending) {
+            List<String> words = criteria.getQuery() == null ? List.of()
+                    : List.of(criteria.getQuery().toLowerCase(Locale.ROOT).split(" "));
+            List<Movie> matches = new ArrayList<>();
+            for (Movie movie : movies) {
+                if (!movie.lexemes.containsAll(words)) {
+                    continue;
+                }
+                if ((criteria.getYear() != null && !criteria.getYear().equals(movie.year))
+                        || (criteria.getYearFrom() != null && (movie.year == null || movie.year < criteria.getYearFrom()))
+                        || (criteria.getYearTo() != null && (movie.year == null || movie.year > criteria.getYearTo()))) {
+                    continue;
+                }
+                if (criteria.getGenreId() != null && !movie.genres.contains(criteria.getGenreId())) {
+                    continue;
+                }
+                matches.add(movie);
+            }
+            Comparator<Movie> order = order(sort);
+            matches.sort(descending ? order.reversed() : order);
+            return matches;
+        }
+
+        /**
+         * ORDER BY expression, id as in {@link MovieSortField}.
+         */
+        private static Comparator<Movie> order(MovieSortField sort) {
+            Comparator<Movie> key;
+            switch (sort) {
+                case YEAR:
+                    key = Comparator.comparingInt(movie -> movie.year == null ? 0 : movie.year);
+                    break;
+                case RATING:
+                    key = Comparator.comparingInt(movie -> movie.ratingRank);
+                    break;
+                default:
+                    key = Comparator.comparing(movie -> movie.title);
+            }
+            return key.thenComparing(movie -> movie.id);
+        }
+
+        private MovieSearchIndex index() {
+            JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+            doAnswer(invocation -> {
+                RowCallbackHandler handler = invocation.getArgument(1);
+                Object[][] row = new Object[1][];
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(any(Integer.class))).thenAnswer(i -> {
+                    Object value = row[0][(Integer) i.getArgument(0) - 1];
+                    return value == null ? null : value.toString();
+                });
+                when(rs.getShort(any(Integer.class))).thenAnswer(i -> {
+                    Object value = row[0][(Integer) i.getArgument(0) - 1];
+                    return value == null ? (short) 0 : ((Number) value).shortValue();
+                });
+                when(rs.getLong(any(Integer.class))).thenAnswer(i -> ((Number) row[0][(Integer) i.getArgument(0) - 1]).longValue());
+                for (Object[] values : rows(invocation.getArgument(0))) {
+                    row[0] = values;
+                    handler.processRow(rs);
+                }
+                return null;
+            }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+            when(jdbcTemplate.queryForObject(startsWith("SELECT websearch_to_tsquery"), eq(String.class), any(Object[].class)))
+                    .thenAnswer(invocation -> {
+                        String query = invocation.getArgument(2);
+                        return List.of(query.toLowerCase(Locale.ROOT).split(" ")).stream()
+                                .map(word -> "'" + word + "'")
+                                .collect(Collectors.joining(" & "));
+                    });
+
+            when(versions.getVersion()).thenReturn(1L);
+            MovieSortOrdersCache sortOrders = new MovieSortOrdersCache();
+            ReflectionTestUtils.setField(sortOrders, "jdbcTemplate", jdbcTemplate);
+            MovieSearchIndex index = new MovieSearchIndex();
+            ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+            ReflectionTestUtils.setField(index, "catalogVersionService", versions);
+            ReflectionTestUtils.setField(index, "movieSortOrders", sortOrders);
+            index.onCatalogChanged(new CatalogChangedEvent(0, 1));
+            return index;
+        }
+
+        private List<Object[]> rows(String sql) {
+            List<Object[]> rows = new ArrayList<>();
+            if (sql.startsWith("SELECT m.id FROM movies m ORDER BY ")) {
+                MovieSortField sort = null;
+                for (MovieSortField candidate : MovieSortField.values()) {
+                    if (sql.endsWith("ORDER BY " + candidate.expression() + ", m.id")) {
+                        sort = candidate;
+                    }
+                }
+                List<Movie> sorted = new ArrayList<>(movies);
+                sorted.sort(order(sort));
+                sorted.forEach(movie -> rows.add(new Object[] {movie.id}));
+            } else if (sql.equals("SELECT id, year FROM movies")) {
+                movies.forEach(movie -> rows.add(new Object[] {movie.id, movie.year}));
+            } else if (sql.contains("unnest(m.search_document)")) {
+                movies.forEach(movie -> movie.lexemes.forEach(lexeme -> rows.add(new Object[] {movie.id, lexeme})));
+            } else if (sql.startsWith("SELECT genre_id, movie_id FROM genres_in_movies")) {
+                movies.forEach(movie -> movie.genres.forEach(genre -> rows.add(new Object[] {genre, movie.id})));
+            } else {
+                throw new IllegalArgumentException("Unexpected query: " + sql);
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.filmer.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures typeahead latency of the suggest dictionary at the backend's
+ * default size (200,000 movies and 200,000 stars).
+ *
+ * Titles and names are drawn from a skewed vocabulary, so common prefixes
+ * cover huge key ranges as they do in the real catalog. Lookups use
+ * prefixes of 1 to 8 characters cut at word starts, like a user typing.
+ * After a warmup pass every lookup is timed individually; typeahead is
+ * judged by its tail, so the test fails if p99 reaches 1 ms.
+ *
+ * Not picked up by the default test run (no Test suffix); run it with
+ * mvn test -Dtest=SuggestBenchmark
+ */
+class SuggestBenchmark {
+
+    private static final int ENTRIES_PER_TYPE = 200000;
+    private static final int VOCABULARY = 5000;
+    private static final int LIMIT = 10;
+    private static final int PREFIXES = 10000;
+    private static final int WARMUP_LOOKUPS = 200000;
+    private static final int MEASURED_LOOKUPS = 200000;
+    private static final long P99_TARGET_NANOS = 1_000_000;
+
+    @Test
+    void p99StaysUnderOneMillisecond() throws Exception {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = word(random);
+        }
+        List<String> titles = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < ENTRIES_PER_TYPE; i++) {
+            titles.add(phrase(random, words, 1 + random.nextInt(5)));
+            names.add(phrase(random, words, 2));
+        }
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        answer(jdbcTemplate, "SELECT m.id", titles, "tt");
+        answer(jdbcTemplate, "SELECT s.id", names, "nm");
+        SuggestDictionary dictionary = SuggestDictionary.build(jdbcTemplate, ENTRIES_PER_TYPE);
+
+        String[] prefixes = new String[PREFIXES];
+        for (int i = 0; i < PREFIXES; i++) {
+            List<String> labels = random.nextBoolean() ? titles : names;
+            String[] label = labels.get(random.nextInt(labels.size())).toLowerCase().split(" ");
+            String key = String.join(" ", Arrays.copyOfRange(label, random.nextInt(label.length), label.length));
+            prefixes[i] = key.substring(0, Math.min(key.length(), 1 + random.nextInt(8)));
+        }
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_LOOKUPS; i++) {
+            sink += dictionary.suggest(prefixes[i % PREFIXES], LIMIT).size();
+        }
+        long[] nanos = new long[MEASURED_LOOKUPS];
+        for (int i = 0; i < MEASURED_LOOKUPS; i++) {
+            String prefix = prefixes[random.nextInt(PREFIXES)];
+            long started = System.nanoTime();
+            sink += dictionary.suggest(prefix, LIMIT).size();
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+
+        System.out.printf("Suggest latency over %d lookups (%d keys, %d suggestions): " +
+                        "p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                MEASURED_LOOKUPS, dictionary.getKeyCount(), sink,
+                quantile(nanos, 0.50) / 1000.0, quantile(nanos, 0.99) / 1000.0,
+                quantile(nanos, 0.999) / 1000.0, quantile(nanos, 1.0) / 1000.0);
+        assertTrue(quantile(nanos, 0.99) < P99_TARGET_NANOS, "p99 " + quantile(nanos, 0.99) + " ns");
+    }
+
+    private static void answer(JdbcTemplate jdbcTemplate, String sql, List<String> labels, String idPrefix)
+            throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            int[] row = new int[1];
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString(1)).thenAnswer(i -> String.format("%s%07d", idPrefix, row[0]));
+            when(rs.getString(2)).thenAnswer(i -> labels.get(row[0]));
+            when(rs.getShort(3)).thenReturn((short) 2000);
+            // Listed most popular first, as the ORDER BY votes DESC returns them
+            when(rs.getLong(3)).thenAnswer(i -> (long) (labels.size() - row[0]));
+            when(rs.getLong(4)).thenAnswer(i -> (long) (labels.size() - row[0]));
+            for (int i = 0; i < labels.size(); i++) {
+                row[0] = i;
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith(sql), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private static String phrase(Random random, String[] words, int length) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            // Squaring skews picks toward the front of the vocabulary
+            double skew = random.nextDouble();
+            String word = words[(int) (skew * skew * words.length)];
+            phrase.append(i == 0 ? "" : " ").append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return phrase.toString();
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(7);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private static long quantile(long[] sorted, double quantile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)];
+    }
+}
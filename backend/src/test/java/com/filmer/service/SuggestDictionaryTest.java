@@ -0,0 +1,102 @@
+package com.filmer.service;
+
+import com.filmer.dto.response.SuggestionResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks suggestions against a brute-force scan of every entry, for
+ * prefixes whose key ranges are far larger than a single scan covers.
+ */
+class SuggestDictionaryTest {
+
+    private static final int MOVIES = 20000;
+
+    private static final List<String> titles = new ArrayList<>();
+    private static final List<Long> votes = new ArrayList<>();
+
+    private static SuggestDictionary dictionary;
+
+    @BeforeAll
+    static void build() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < MOVIES; i++) {
+            titles.add("The Matrix " + random.nextInt(3000) + " Part " + i);
+            votes.add((long) random.nextInt(1_000_000));
+        }
+        // Listed in the order the loader's ORDER BY votes DESC, id returns them
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < MOVIES; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing((Integer i) -> -votes.get(i)).thenComparing(SuggestDictionaryTest::id));
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            int[] row = new int[1];
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString(1)).thenAnswer(i -> id(row[0]));
+            when(rs.getString(2)).thenAnswer(i -> titles.get(row[0]));
+            when(rs.getShort(3)).thenReturn((short) 2000);
+            when(rs.getLong(4)).thenAnswer(i -> votes.get(row[0]));
+            for (int i : order) {
+                row[0] = i;
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT m.id"), any(RowCallbackHandler.class), any(Object[].class));
+
+        dictionary = SuggestDictionary.build(jdbcTemplate, MOVIES);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"m", "matr", "the matrix", "matrix 1", "matrix 12", "matrix 123", "part 1", "12"})
+    void matchesABruteForceScan(String prefix) {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < MOVIES; i++) {
+            if (matches(titles.get(i), prefix)) {
+                expected.add(id(i));
+            }
+        }
+        expected.sort(Comparator.comparing((String id) -> -votes.get(Integer.parseInt(id.substring(2))))
+                .thenComparing(Comparator.naturalOrder()));
+
+        List<String> actual = dictionary.suggest(prefix, 10).stream()
+                .map(SuggestionResponse::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(expected.subList(0, Math.min(10, expected.size())), actual, "prefix '" + prefix + "'");
+    }
+
+    private static boolean matches(String title, String prefix) {
+        String[] words = SuggestDictionary.normalize(title).split(" ");
+        for (int w = 0; w < words.length && w < 4; w++) {
+            if (String.join(" ", List.of(words).subList(w, words.length)).startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String id(int i) {
+        return String.format("tt%07d", i);
+    }
+}
@@ -0,0 +1,41 @@
+package com.filmer.service.query;
+
+import com.filmer.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTrips() {
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor("year", true, true, "tt0000001", "1999").encode());
+
+        assertEquals("year", cursor.getSortBy());
+        assertEquals(true, cursor.isDescending());
+        assertEquals(true, cursor.isBackward());
+        assertEquals("tt0000001", cursor.getId());
+        assertEquals("1999", cursor.getSortValue());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"integer, 1999", "integer, -3", "real, -0.0607927", "real, 1e-05", "varchar, abc"})
+    void acceptsValuesOfTheSortType(String sqlType, String value) {
+        assertDoesNotThrow(() -> cursor(value).checkSortValue(sqlType));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"integer, abc", "integer, 1.5", "integer, 99999999999", "real, abc", "real, 0x1p3", "real, NaN"})
+    void rejectsTamperedValues(String sqlType, String value) {
+        BadRequestException e = assertThrows(BadRequestException.class, () -> cursor(value).checkSortValue(sqlType));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    private static KeysetCursor cursor(String sortValue) {
+        return new KeysetCursor("year", false, false, "tt0000001", sortValue);
+    }
+}
@@ -0,0 +1,112 @@
+package com.filmer.service.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the partial-match filters are planned against the pg_trgm
+ * GIN indexes instead of sequential scans.
+ *
+ * <p>Each filter is EXPLAINed with a bound pattern through {@link CustomPlans},
+ * as the API issues it, against schema.sql filled with synthetic rows.
+ * Skipped when Docker is not available.</p>
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TrigramPlanTest {
+
+    private static final String[][] FILTERS = {
+        { "movies.title", "SELECT m.id FROM movies m WHERE m.title ILIKE ?" },
+        { "movies.director", "SELECT m.id FROM movies m WHERE m.director ILIKE ?" },
+        { "stars.name", "SELECT s.id FROM stars s WHERE s.name ILIKE ?" },
+        { "search star", "SELECT m.id FROM movies m WHERE m.id IN (" +
+            "SELECT sim.movie_id FROM stars s JOIN stars_in_movies sim ON sim.star_id = s.id WHERE s.name ILIKE ?)" },
+    };
+
+    private static final String[] TERMS = { "love", "spielberg", "hanks" };
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeAll
+    static void load() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        new ResourceDatabasePopulator(new FileSystemResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.update("INSERT INTO movies (id, title, year, director) " +
+                "SELECT 'tt' || i, 'Title ' || md5(i::text), 1900 + i % 120, 'Director ' || md5((i % 5000)::text) " +
+                "FROM generate_series(1, 100000) i");
+        jdbcTemplate.update("INSERT INTO stars (id, name) " +
+                "SELECT 'nm' || i, 'Star ' || md5(i::text) FROM generate_series(1, 100000) i");
+        jdbcTemplate.update("INSERT INTO stars_in_movies (star_id, movie_id) " +
+                "SELECT 'nm' || i, 'tt' || (1 + (i * 7919) % 100000) FROM generate_series(1, 100000) i");
+        jdbcTemplate.update("INSERT INTO movies (id, title, director) VALUES " +
+                "('tt0', 'Love Actually', 'Steven Spielberg')");
+        jdbcTemplate.update("INSERT INTO stars (id, name) VALUES ('nm0', 'Tom Hanks')");
+        jdbcTemplate.update("INSERT INTO stars_in_movies (star_id, movie_id) VALUES ('nm0', 'tt0')");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    static Stream<Arguments> filters() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (String[] filter : FILTERS) {
+            for (String term : TERMS) {
+                arguments.add(Arguments.of(filter[0], filter[1], term));
+            }
+        }
+        return arguments.stream();
+    }
+
+    @ParameterizedTest(name = "{0} ''{2}''")
+    @MethodSource("filters")
+    void filterDoesNotScanMoviesOrStars(String name, String sql, String term) throws Exception {
+        String explain = CustomPlans.run(jdbcTemplate,
+                t -> t.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, LikePatterns.contains(term)));
+        JsonNode plan = mapper.readTree(explain).path(0).path("Plan");
+
+        List<String> scans = new ArrayList<>();
+        assertFalse(collectScans(plan, scans), name + " '" + term + "': " + String.join(", ", scans));
+    }
+
+    /**
+     * Appends "Node Type on relation (index)" for every scan node.
+     *
+     * @return true if a sequential scan of movies or stars was found
+     */
+    private static boolean collectScans(JsonNode node, List<String> scans) {
+        boolean seqScan = false;
+        String relation = node.path("Relation Name").asText("");
+        if (!relation.isEmpty()) {
+            String type = node.path("Node Type").asText();
+            String index = node.path("Index Name").asText("");
+            scans.add(type + " on " + relation + (index.isEmpty() ? "" : " (" + index + ")"));
+            seqScan = "Seq Scan".equals(type) && ("movies".equals(relation) || "stars".equals(relation));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            seqScan |= collectScans(child, scans);
+        }
+        return seqScan;
+    }
+}